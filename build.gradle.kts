@@ -19,11 +19,27 @@ project(":server") {
     configure<JavaApplication> {
         mainClass = "server.ru.itmo.se.App"
     }
+    // Benchmarks are kept out of the server's jar: they are compiled against the main classes and only run through their tasks.
+    val sourceSets = the<SourceSetContainer>()
+    val benchmark = sourceSets.create("benchmark") {
+        compileClasspath += sourceSets["main"].output + sourceSets["main"].compileClasspath
+        runtimeClasspath += output + compileClasspath + sourceSets["main"].runtimeClasspath
+    }
+    tasks.register<JavaExec>("hashDistributionBenchmark") {
+        description = "Compares the hash functions of music bands on a collection file (pass it with --args)."
+        classpath = benchmark.runtimeClasspath
+        mainClass = "server.ru.itmo.se.utility.HashDistributionBenchmark"
+    }
     dependencies {
         implementation(project(":common"))
         implementation("com.google.code.gson:gson:2.10.1")
         compileOnly("org.projectlombok:lombok:1.18.30")
         annotationProcessor("org.projectlombok:lombok:1.18.30")
+        testImplementation("org.junit.jupiter:junit-jupiter:5.10.1")
+        testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    }
+    tasks.withType<Test> {
+        useJUnitPlatform()
     }
     tasks.withType<Jar>{
         manifest {
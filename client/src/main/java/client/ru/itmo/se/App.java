@@ -1,5 +1,6 @@
 package client.ru.itmo.se;
 
+import client.ru.itmo.se.utility.ResponseRenderer;
 import client.ru.itmo.se.utility.UserHandler;
 import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
 import common.ru.itmo.se.exceptions.ValueRangeException;
@@ -38,15 +39,27 @@ public class App {
      * The port number. Also used for initiating a connection to the server.
      */
     private static int port;
+    /**
+     * The renderer of the server's responses. Chosen by the optional '--output=text|tsv' argument.
+     */
+    private static ResponseRenderer responseRenderer = new ResponseRenderer(false);
+    /**
+     * This field holds the option via which the page size is chosen on startup.
+     */
+    private static final String PAGE_SIZE_OPTION_PREFIX = "--page-size=";
+    /**
+     * This field holds the amount of elements the client requests at once from list-producing commands (0 requests everything at once).
+     */
+    private static int pageSize = 50;
 
     /**
      * This method is used to initiate a connection to the server.
-     * @param hostAndPort the host and the port.
+     * @param hostAndPort the host, the port and optionally the output format and the page size.
      * @return true if the client has successfully connected to the server, <p>and false if the client didn't.
      */
     private static boolean initConnection(String[] hostAndPort) {
         try {
-            if(hostAndPort.length != 2) {
+            if(hostAndPort.length < 2 || hostAndPort.length > 4) {
                 throw new InvalidArgumentCountException("Incorrect jar usage.", new RuntimeException());
             }
             host = hostAndPort[0];
@@ -54,12 +67,26 @@ public class App {
             if(port < 0) {
                 throw new ValueRangeException("Port value cannot be negative.", new RuntimeException());
             }
+            for(int i = 2; i < hostAndPort.length; i++) {
+                if(hostAndPort[i].startsWith(ResponseRenderer.OPTION_PREFIX)) {
+                    responseRenderer = ResponseRenderer.forFormat(hostAndPort[i].substring(ResponseRenderer.OPTION_PREFIX.length()));
+                } else if(hostAndPort[i].startsWith(PAGE_SIZE_OPTION_PREFIX)) {
+                    pageSize = Integer.parseInt(hostAndPort[i].substring(PAGE_SIZE_OPTION_PREFIX.length()));
+                    if(pageSize < 0) {
+                        throw new IllegalArgumentException("Page size cannot be negative.");
+                    }
+                } else {
+                    throw new InvalidArgumentCountException("Incorrect jar usage.", new RuntimeException());
+                }
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
             String jarName = new File(App.class.getProtectionDomain().getCodeSource().getLocation().getPath()).getName();
-            PrettyPrinter.println("Usage: 'java -jar " + jarName + " <host> <port>'");
+            PrettyPrinter.println("Usage: 'java -jar " + jarName + " <host> <port> [" + ResponseRenderer.OPTION_PREFIX + "text|tsv] [" + PAGE_SIZE_OPTION_PREFIX + "<n>]'");
         } catch (NumberFormatException e) {
-            PrettyPrinter.printError("Port value must be a number.");
+            PrettyPrinter.printError("Port value and page size must be numbers.");
+        } catch (IllegalArgumentException e) {
+            PrettyPrinter.printError(e.getMessage());
         } catch (ValueRangeException e) {
             PrettyPrinter.printError("Port value cannot be negative.");
         }
@@ -68,7 +95,7 @@ public class App {
 
     /**
      * The driver method used to launch the CLI application.
-     * @param args arguments provided from the user. In this case it's the host and the port.
+     * @param args arguments provided from the user. In this case it's the host, the port and optionally the output format and the page size.
      */
     public static void main(String[] args) {
         if(!initConnection(args)) {
@@ -85,7 +112,7 @@ public class App {
         Signal.handle(new Signal("TERM"), handler);
         Scanner userScanner = new Scanner(System.in);
         UserHandler userHandler = new UserHandler(userScanner);
-        Client client = new Client(host, port, RECONNECTION_TIMEOUT, MAX_RECONNECTION_ATTEMPTS, userHandler);
+        Client client = new Client(host, port, RECONNECTION_TIMEOUT, MAX_RECONNECTION_ATTEMPTS, userHandler, responseRenderer, pageSize);
         client.run();
         userScanner.close();
     }
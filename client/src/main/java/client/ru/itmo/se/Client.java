@@ -1,10 +1,14 @@
 package client.ru.itmo.se;
 
+import client.ru.itmo.se.utility.ResponseRenderer;
 import client.ru.itmo.se.utility.UserHandler;
 import common.ru.itmo.se.exceptions.ConnectionErrorException;
 import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandOpcode;
+import common.ru.itmo.se.interaction.PageRequest;
 import common.ru.itmo.se.interaction.Request;
 import common.ru.itmo.se.interaction.Response;
+import common.ru.itmo.se.interaction.ResponseCode;
 import common.ru.itmo.se.utility.PrettyPrinter;
 
 import java.io.*;
@@ -13,6 +17,8 @@ import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -44,25 +50,37 @@ public class Client {
      * This field holds an instance of a UserHandler which is used to interpret user requests.
      */
     private final UserHandler userHandler;
+    /**
+     * This field holds an instance of a ResponseRenderer which turns the server's responses into text.
+     */
+    private final ResponseRenderer responseRenderer;
+    /**
+     * This field holds the amount of elements requested at once from list-producing commands (0 requests everything at once).
+     */
+    private final int pageSize;
     /**
      * This field holds an instance of a SocketChannel via which an NIO connection is going to be initiated.
      */
     private SocketChannel socketChannel;
 
     /**
-     * Constructs a Client with the specified host, port, reconnection timeout, maximum reconnection attempts and UserHandler.
+     * Constructs a Client with the specified host, port, reconnection timeout, maximum reconnection attempts, UserHandler, ResponseRenderer and page size.
      * @param host                    the host.
      * @param port                    the port.
      * @param reconnectionTimeout     the reconnection timeout period.
      * @param maxReconnectionAttempts the reconnection attempt limit.
      * @param userHandler             a UserHandler instance.
+     * @param responseRenderer        a ResponseRenderer instance.
+     * @param pageSize                the page size (0 disables paging).
      */
-    public Client(String host, int port, int reconnectionTimeout, int maxReconnectionAttempts, UserHandler userHandler) {
+    public Client(String host, int port, int reconnectionTimeout, int maxReconnectionAttempts, UserHandler userHandler, ResponseRenderer responseRenderer, int pageSize) {
         this.host = host;
         this.port = port;
         this.reconnectionTimeout = reconnectionTimeout;
         this.maxReconnectionAttempts = maxReconnectionAttempts;
         this.userHandler = userHandler;
+        this.responseRenderer = responseRenderer;
+        this.pageSize = pageSize;
     }
 
     /**
@@ -128,6 +146,109 @@ public class Client {
         }
     }
 
+    /**
+     * This method is used to check whether the client should be terminated after a request: after 'exit' or after a script which has ended with 'exit' successfully.
+     * @param request  the request which has been sent.
+     * @param response the server's response, <p>null if there is none.
+     * @return true if the session is over, <p>false otherwise.
+     */
+    private static boolean isExitRequest(Request request, Response response) {
+        if (request.getOpcode() == CommandOpcode.EXIT.getCode()) {
+            return true;
+        }
+        return request.getOpcode() == CommandOpcode.EXECUTE_SCRIPT.getCode()
+                && request.getCommandObjArg() instanceof List<?> batch && !batch.isEmpty()
+                && batch.get(batch.size() - 1) instanceof Request last && last.getOpcode() == CommandOpcode.EXIT.getCode()
+                && response != null && response.getResponseCode() == ResponseCode.OK;
+    }
+
+    /**
+     * This method is used to read a response frame from the server: its total length, the length of the serialized header, the header itself and the UTF-8 body.
+     * @return the response.
+     * @throws IOException            if the connection is broken.
+     * @throws ClassNotFoundException if the header cannot be deserialized.
+     */
+    private Response receiveResponse() throws IOException, ClassNotFoundException {
+        ByteBuffer frameLength = ByteBuffer.allocate(Integer.BYTES);
+        readFully(frameLength);
+        ByteBuffer frame = ByteBuffer.allocate(frameLength.getInt(0));
+        readFully(frame);
+        int headerLength = frame.getInt(0);
+        Response header;
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(frame.array(), Integer.BYTES, headerLength))) {
+            header = (Response) objectInputStream.readObject();
+        }
+        int bodyOffset = Integer.BYTES + headerLength;
+        String body = new String(frame.array(), bodyOffset, frame.limit() - bodyOffset, StandardCharsets.UTF_8);
+        return new Response(header.getResponseCode(), body, header.getPayload());
+    }
+
+    /**
+     * This method is used to read from the channel until the buffer is full, since a single read may return only a part of a frame.
+     * @param buffer the buffer to be filled.
+     * @throws IOException if the connection is closed before the buffer is filled.
+     */
+    private void readFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (socketChannel.read(buffer) < 0) {
+                throw new EOFException("The server has closed the connection.");
+            }
+        }
+    }
+
+    /**
+     * This method is used to send a request to the server and wait for its response.
+     * @param request the request to be sent.
+     * @return the server's response.
+     * @throws IOException            if the connection is broken.
+     * @throws ClassNotFoundException if the response cannot be deserialized.
+     */
+    private Response exchange(Request request) throws IOException, ClassNotFoundException {
+        try(ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(request);
+            out.flush();
+            byte[] serialized = bytes.toByteArray();
+            ByteBuffer dataToSend = ByteBuffer.allocate(Integer.BYTES + serialized.length).putInt(serialized.length).put(serialized);
+            dataToSend.flip();
+            while (dataToSend.hasRemaining()) {
+                socketChannel.write(dataToSend);
+            }
+        }
+        return receiveResponse();
+    }
+
+    /**
+     * This method is used to turn a request for a list-producing command into a request for its first page.
+     * @param request the request as it has been typed.
+     * @return request for the first page, <p>the request itself if it cannot be or shouldn't be paged.
+     */
+    private Request firstPage(Request request) {
+        CommandOpcode commandOpcode = CommandOpcode.byCode(request.getOpcode());
+        if (pageSize == 0 || commandOpcode == null || !commandOpcode.isPaged() || request.getCommandObjArg() != null) {
+            return request;
+        }
+        return new Request(commandOpcode, request.getCommandStrArg(), new PageRequest(pageSize, null));
+    }
+
+    /**
+     * This method is used to fetch the following pages of a paged response. In tab-separated mode all of them are fetched, otherwise the user is asked before each one.
+     * @param request  the request of the first page.
+     * @param response the first page.
+     * @return the last received page.
+     * @throws IOException            if the connection is broken.
+     * @throws ClassNotFoundException if a response cannot be deserialized.
+     */
+    private Response followPages(Request request, Response response) throws IOException, ClassNotFoundException {
+        while (request.getCommandObjArg() instanceof PageRequest pageRequest && response.getPayload() != null && response.getPayload().getNextCursor() != null
+                && (responseRenderer.isMachineReadable() || userHandler.requestNextPage())) {
+            request = new Request(CommandOpcode.byCode(request.getOpcode()), request.getCommandStrArg(), pageRequest.next(response.getPayload().getNextCursor()));
+            response = exchange(request);
+            System.out.print(responseRenderer.render(response, true));
+        }
+        return response;
+    }
+
     /**
      * This method is used to process a request.
      * @return false if the cycle is broken (if the application is terminated).
@@ -142,23 +263,10 @@ public class Client {
                 if(requestToServer.isEmpty()) {
                     continue;
                 }
-                try(ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-                    ObjectOutputStream out = new ObjectOutputStream(bytes)) {
-                    out.writeObject(requestToServer);
-                    ByteBuffer dataToSend = ByteBuffer.wrap(bytes.toByteArray());
-                    socketChannel.write(dataToSend);
-                    out.flush();
-                }
-                ByteBuffer dataToReceiveLength = ByteBuffer.allocate(64);
-                socketChannel.read(dataToReceiveLength);
-                dataToReceiveLength.flip();
-                int responseLength = dataToReceiveLength.getInt();
-                ByteBuffer dataToReceive = ByteBuffer.allocate(responseLength);
-                socketChannel.read(dataToReceive);
-                try(ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(dataToReceive.array()))) {
-                    responseFromServer = (Response) objectInputStream.readObject();
-                    System.out.print(responseFromServer.getResponseBody());
-                }
+                requestToServer = firstPage(requestToServer);
+                responseFromServer = exchange(requestToServer);
+                System.out.print(responseRenderer.render(responseFromServer));
+                responseFromServer = followPages(requestToServer, responseFromServer);
             } catch (InvalidClassException | NotSerializableException e) {
                 PrettyPrinter.printError("An error occurred while trying to send data to the server.");
             } catch (ClassNotFoundException e) {
@@ -176,7 +284,7 @@ public class Client {
                     }
                 }
             }
-        } while (!Objects.requireNonNull(requestToServer).getCommandName().equals("exit"));
+        } while (!isExitRequest(Objects.requireNonNull(requestToServer), responseFromServer));
         return false;
     }
 }
@@ -18,6 +18,16 @@ public enum ProcessingCode {
      * <p>In this case, it's the command update.</p>
      */
     UPDATE,
+    /**
+     * This value represents that of a command that accepts an array of objects as an argument.
+     * <p>In this case, it's the command add_batch.</p>
+     */
+    OBJECT_BATCH,
+    /**
+     * This value represents that of a command that accepts an array of objects as an argument.
+     * <p>In this case, it's the command update_batch.</p>
+     */
+    UPDATE_BATCH,
     /**
      * This value represents that of a command that facilitates the execution of a script file.
      * <p>In this case, it's the command execute_script.</p>
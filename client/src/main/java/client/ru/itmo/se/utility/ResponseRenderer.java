@@ -0,0 +1,264 @@
+package client.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.interaction.MessageKind;
+import common.ru.itmo.se.interaction.Response;
+import common.ru.itmo.se.interaction.ResponseCode;
+import common.ru.itmo.se.interaction.ResponsePayload;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class used for turning the server's responses into text. The server sends plain messages and typed data, so all the formatting and coloring happens here.
+ */
+public class ResponseRenderer {
+    /**
+     * This field holds the option via which the output format is chosen on startup.
+     */
+    public static final String OPTION_PREFIX = "--output=";
+    /**
+     * This field determines whether the output is tab-separated (for other programs) instead of colored (for people).
+     * -- GETTER --
+     * Getter method for the output format.
+     */
+    @Getter
+    private final boolean machineReadable;
+
+    /**
+     * Constructs a ResponseRenderer with the specified format.
+     * @param machineReadable true for tab-separated output, <p>false for colored output.
+     */
+    public ResponseRenderer(boolean machineReadable) {
+        this.machineReadable = machineReadable;
+    }
+
+    /**
+     * This method is used to choose the format by its name.
+     * @param formatName "text" or "tsv".
+     * @return the corresponding ResponseRenderer.
+     * @throws IllegalArgumentException if the format is unknown.
+     */
+    public static ResponseRenderer forFormat(String formatName) {
+        return switch (formatName) {
+            case "text" -> new ResponseRenderer(false);
+            case "tsv" -> new ResponseRenderer(true);
+            default -> throw new IllegalArgumentException("Unknown output format: '" + formatName + "'. Available formats: text, tsv.");
+        };
+    }
+
+    /**
+     * This method is used to render a response: its messages first, then its typed data.
+     * @param response the server's response.
+     * @return rendered text.
+     */
+    public String render(Response response) {
+        return render(response, false);
+    }
+
+    /**
+     * This method is used to render a response which may be a continuation of a paged one. The header of a tab-separated table is not repeated for continuations.
+     * @param response     the server's response.
+     * @param continuation true if the response is a following page.
+     * @return rendered text.
+     */
+    public String render(Response response, boolean continuation) {
+        StringBuilder output = new StringBuilder();
+        renderMessages(response.getResponseBody(), output);
+        ResponsePayload payload = response.getPayload();
+        if (payload != null) {
+            if (payload.getMusicBands() != null) {
+                renderMusicBands(payload, continuation, output);
+            }
+            if (payload.getRows() != null) {
+                renderRows(payload.getColumns(), payload.getRows(), continuation, output);
+            }
+            if (payload.getCounts() != null) {
+                renderPairs(payload.getCounts(), output);
+            }
+            if (payload.getFields() != null) {
+                renderPairs(payload.getFields(), output);
+            }
+            if (payload.getResultCodes() != null) {
+                renderResultCodes(payload.getResultCodes(), output);
+            }
+        }
+        return output.toString();
+    }
+
+    /**
+     * This method is used to render the plain messages of a response body.
+     * @param body   the response body.
+     * @param output the buffer to be written to.
+     */
+    private void renderMessages(String body, StringBuilder output) {
+        if (body == null) {
+            return;
+        }
+        int start = 0;
+        while (start < body.length()) {
+            int end = body.indexOf(MessageKind.MESSAGE_SEPARATOR, start);
+            if (end < 0) {
+                end = body.length();
+            }
+            if (end > start) {
+                renderMessage(MessageKind.fromMarker(body.charAt(start)), body.substring(start + 1, end), output);
+            }
+            start = end + 1;
+        }
+    }
+
+    /**
+     * This method is used to render a single message.
+     * @param kind    the kind of the message.
+     * @param message the message's text.
+     * @param output  the buffer to be written to.
+     */
+    private void renderMessage(MessageKind kind, String message, StringBuilder output) {
+        if (machineReadable) {
+            switch (kind) {
+                case TABLE_ROW -> {
+                    String[] cells = message.split(String.valueOf(MessageKind.CELL_SEPARATOR), -1);
+                    for (int i = 0; i < cells.length; i++) {
+                        output.append(i == 0 ? "" : "\t").append(cells[i].strip());
+                    }
+                    output.append('\n');
+                }
+                case ERROR -> output.append("error\t").append(message).append('\n');
+                default -> output.append("message\t").append(message).append('\n');
+            }
+            return;
+        }
+        switch (kind) {
+            case INLINE -> output.append("\u001B[1;35m").append(message).append("\u001B[0m");
+            case ERROR -> output.append("\u001B[41m + \u001B[30mError: ").append(message).append("\u001B[0m\n");
+            case TABLE_ROW -> {
+                String[] cells = message.split(String.valueOf(MessageKind.CELL_SEPARATOR), -1);
+                output.append(String.format("\u001B[36m| %-41s | %-24s | %-75s | %n", cells[0], cells.length > 1 ? cells[1] : "", cells.length > 2 ? cells[2] : ""))
+                        .append("\u001B[35m=-".repeat(75)).append("\u001B[0m\n");
+            }
+            default -> output.append("\u001B[32m").append(message).append("\u001B[0m\n");
+        }
+    }
+
+    /**
+     * This method is used to render a list of music bands.
+     * @param payload      the typed data of the response.
+     * @param continuation true if the bands continue a previous page.
+     * @param output       the buffer to be written to.
+     */
+    private void renderMusicBands(ResponsePayload payload, boolean continuation, StringBuilder output) {
+        if (machineReadable) {
+            output.append(continuation ? "" : "id\tname\tx\ty\tcreationDate\tnumberOfParticipants\testablishmentDate\tmusicGenre\tstudio\n");
+            for (MusicBand musicBand : payload.getMusicBands()) {
+                output.append(musicBand.getId()).append('\t')
+                        .append(musicBand.getName()).append('\t')
+                        .append(musicBand.getCoordinates().getX()).append('\t')
+                        .append(musicBand.getCoordinates().getY()).append('\t')
+                        .append(musicBand.getCreationDate().toInstant()).append('\t')
+                        .append(musicBand.getNumberOfParticipants()).append('\t')
+                        .append(musicBand.getEstablishmentDate()).append('\t')
+                        .append(musicBand.getMusicGenre()).append('\t')
+                        .append(musicBand.getStudio() == null ? "" : musicBand.getStudio().getAddress()).append('\n');
+            }
+            return;
+        }
+        if (payload.getMusicBands().isEmpty()) {
+            output.append("\u001B[32mEmpty collection.\u001B[0m\n");
+            return;
+        }
+        for (MusicBand musicBand : payload.getMusicBands()) {
+            output.append("\u001B[32m").append(musicBand).append('\n').append("-=".repeat(41)).append("\u001B[0m\n");
+        }
+    }
+
+    /**
+     * This method is used to render rows of selected fields as a table whose columns are as wide as their widest value.
+     * @param columns      the column names.
+     * @param rows         the rows.
+     * @param continuation true if the rows continue a previous page.
+     * @param output       the buffer to be written to.
+     */
+    private void renderRows(List<String> columns, List<String[]> rows, boolean continuation, StringBuilder output) {
+        if (machineReadable) {
+            if (!continuation) {
+                output.append(String.join("\t", columns)).append('\n');
+            }
+            for (String[] row : rows) {
+                output.append(String.join("\t", row)).append('\n');
+            }
+            return;
+        }
+        int[] widths = new int[columns.size()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = columns.get(i).length();
+        }
+        for (String[] row : rows) {
+            for (int i = 0; i < widths.length; i++) {
+                widths[i] = Math.max(widths[i], row[i].length());
+            }
+        }
+        appendRow(columns.toArray(new String[0]), widths, output);
+        for (String[] row : rows) {
+            appendRow(row, widths, output);
+        }
+    }
+
+    /**
+     * This method is used to render a single row of a table.
+     * @param cells  the row's values.
+     * @param widths the widths of the columns.
+     * @param output the buffer to be written to.
+     */
+    private static void appendRow(String[] cells, int[] widths, StringBuilder output) {
+        output.append("\u001B[36m|");
+        for (int i = 0; i < widths.length; i++) {
+            output.append(' ').append(cells[i]).append(" ".repeat(widths[i] - cells[i].length())).append(" |");
+        }
+        output.append("\u001B[0m\n");
+    }
+
+    /**
+     * This method is used to render named values, e.g. counts or info fields.
+     * @param pairs  the values to be rendered.
+     * @param output the buffer to be written to.
+     */
+    private void renderPairs(Map<String, ?> pairs, StringBuilder output) {
+        pairs.forEach((key, value) -> {
+            if (machineReadable) {
+                output.append(key).append('\t').append(value).append('\n');
+            } else {
+                output.append("\u001B[32m").append(key).append(": ").append(value).append("\u001B[0m\n");
+            }
+        });
+    }
+
+    /**
+     * This method is used to render the result codes of the commands of a script batch.
+     * @param resultCodes the result codes in the order of the commands.
+     * @param output      the buffer to be written to.
+     */
+    private void renderResultCodes(List<ResponseCode> resultCodes, StringBuilder output) {
+        if (machineReadable) {
+            for (int i = 0; i < resultCodes.size(); i++) {
+                output.append("result\t").append(i + 1).append('\t').append(resultCodes.get(i)).append('\n');
+            }
+            return;
+        }
+        output.append("\u001B[32mScript results (").append(resultCodes.size()).append(" command(s) executed): ");
+        for (int i = 0; i < resultCodes.size(); i++) {
+            output.append(i == 0 ? "" : ", ").append(resultCodes.get(i));
+        }
+        output.append("\u001B[0m\n");
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in ResponseRenderer.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "ResponseRenderer (" + (machineReadable ? "tsv" : "text") + " output)";
+    }
+}
@@ -4,6 +4,7 @@ import client.ru.itmo.se.App;
 import common.ru.itmo.se.data.*;
 import common.ru.itmo.se.exceptions.*;
 import common.ru.itmo.se.exceptions.IllegalStateException;
+import common.ru.itmo.se.interaction.CommandOpcode;
 import common.ru.itmo.se.interaction.CommandType;
 import common.ru.itmo.se.interaction.MusicBandRaw;
 import common.ru.itmo.se.interaction.Request;
@@ -33,6 +34,10 @@ public class UserHandler {
      * This field holds Scanners that are used for receiving inputs from a script file.
      */
     private final Stack<Scanner> scannerStack = new Stack<>();
+    /**
+     * This field holds a command which has been typed while the user was asked for the next page, <p>null if there is none.
+     */
+    private String pendingInput;
     /**
      * This structure maps all typos caused by not switching from the Russian ᠱ"ЙЦУКЕН" layout to their actual commands.
      */
@@ -58,45 +63,63 @@ public class UserHandler {
 
     {
         typoCommandMap.put("фвв", "add");
+        typoCommandMap.put("фвв_ифеср", "add_batch");
         typoCommandMap.put("сдуфк", "clear");
         typoCommandMap.put("учусгеу_ыскшзе", "execute_script");
         typoCommandMap.put("учы", "execute_script");
         typoCommandMap.put("учше", "exit");
         typoCommandMap.put("ашдеук_дуыы_ерфт_тгьиук_ща_зфкешсшзфтеы", "filter_less_than_number_of_participants");
         typoCommandMap.put("адетщз", "filter_less_than_number_of_participants");
+        typoCommandMap.put("аштв_ин_тфьу", "find_by_name");
         typoCommandMap.put("пкщгз_сщгтештп_ин_уыефидшырьуте_вфеу", "group_counting_by_establishment_date");
         typoCommandMap.put("псиув", "group_counting_by_establishment_date");
         typoCommandMap.put("рудз", "help");
         typoCommandMap.put("ршыещкн", "history");
         typoCommandMap.put("штащ", "info");
+        typoCommandMap.put("туфкуые", "nearest");
         typoCommandMap.put("зкште_ашудв_вуысутвштп_уыефидшырьуте_вфеу", "print_field_descending_establishment_date");
         typoCommandMap.put("завув", "print_field_descending_establishment_date");
+        typoCommandMap.put("йгукн", "query");
         typoCommandMap.put("куьщму_фе", "remove_at");
         typoCommandMap.put("куьщму_ин_шв", "remove_by_id");
+        typoCommandMap.put("куьщму_цруку", "remove_where");
         typoCommandMap.put("к_фе", "remove_at");
         typoCommandMap.put("к_шв", "remove_by_id");
+        typoCommandMap.put("ыфьзду", "sample");
         typoCommandMap.put("ыфму", "save");
         typoCommandMap.put("ыукмук_учше", "server_exit");
         typoCommandMap.put("ырщц", "show");
         typoCommandMap.put("ыргааду", "shuffle");
         typoCommandMap.put("гзвфеу", "update");
+        typoCommandMap.put("гзвфеу_ифеср", "update_batch");
+        typoCommandMap.put("цшершт_ищч", "within_box");
+        typoCommandMap.put("цшершт_кфвшгы", "within_radius");
         commandTypeMap.put("add", CommandType.WITH_FORM);
+        commandTypeMap.put("add_batch", CommandType.WITH_ARGS_FORM);
         commandTypeMap.put("clear", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("execute_script", CommandType.WITH_ARGS);
         commandTypeMap.put("exit", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("filter_less_than_number_of_participants", CommandType.WITH_ARGS);
+        commandTypeMap.put("find_by_name", CommandType.WITH_ARGS);
         commandTypeMap.put("group_counting_by_establishment_date", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("help", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("history", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("info", CommandType.WITHOUT_ARGS);
+        commandTypeMap.put("nearest", CommandType.WITH_ARGS);
         commandTypeMap.put("print_field_descending_establishment_date", CommandType.WITHOUT_ARGS);
+        commandTypeMap.put("query", CommandType.WITH_ARGS);
         commandTypeMap.put("remove_at", CommandType.WITH_ARGS);
         commandTypeMap.put("remove_by_id", CommandType.WITH_ARGS);
+        commandTypeMap.put("remove_where", CommandType.WITH_ARGS);
+        commandTypeMap.put("sample", CommandType.WITH_ARGS);
         commandTypeMap.put("save", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("server_exit", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("show", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("shuffle", CommandType.WITHOUT_ARGS);
         commandTypeMap.put("update", CommandType.WITH_ARGS_FORM);
+        commandTypeMap.put("update_batch", CommandType.WITH_ARGS_FORM);
+        commandTypeMap.put("within_box", CommandType.WITH_ARGS);
+        commandTypeMap.put("within_radius", CommandType.WITH_ARGS);
         shortHandCommandMap.put("exs", "execute_script");
         shortHandCommandMap.put("fltnop", "filter_less_than_number_of_participants");
         shortHandCommandMap.put("gcbed", "group_counting_by_establishment_date");
@@ -118,7 +141,7 @@ public class UserHandler {
         try {
             do {
                 try {
-                    if(fileMode() && (serverResponseCode == ResponseCode.ERROR || serverResponseCode == ResponseCode.SERVER_EXIT)) {
+                    if(fileMode() && (serverResponseCode == ResponseCode.ERROR || serverResponseCode == ResponseCode.LOADING || serverResponseCode == ResponseCode.SERVER_EXIT)) {
                         throw new IncorrectScriptException("", new RuntimeException());
                     }
                     while(fileMode() && !userScanner.hasNextLine()) {
@@ -132,6 +155,9 @@ public class UserHandler {
                             PrettyPrinter.print(App.CS1);
                             PrettyPrinter.println(userInput);
                         }
+                    } else if(pendingInput != null) {
+                        userInput = pendingInput;
+                        pendingInput = null;
                     } else {
                         PrettyPrinter.print(App.CS1);
                         userInput = userScanner.nextLine();
@@ -149,32 +175,27 @@ public class UserHandler {
                         System.exit(0);
                     }
                 }
+                userCommand[0] = resolveCommand(userCommand[0]);
                 processingCode = processCommand(userCommand[0], userCommand[1]);
             } while (processingCode == ProcessingCode.ERROR && !fileMode() || userCommand[0].isEmpty());
             try {
-                if(fileMode() && serverResponseCode == ResponseCode.ERROR || processingCode == ProcessingCode.ERROR) {
+                if(fileMode() && (serverResponseCode == ResponseCode.ERROR || serverResponseCode == ResponseCode.LOADING) || processingCode == ProcessingCode.ERROR) {
                     throw new IncorrectScriptException("", new RuntimeException());
                 }
                 switch(processingCode) {
                     case OBJECT:
                         MusicBandRaw musicBandAddRaw = generateMusicBandAdd();
-                        return new Request(userCommand[0], userCommand[1], musicBandAddRaw);
+                        return new Request(CommandOpcode.byName(userCommand[0]), userCommand[1], musicBandAddRaw);
                     case UPDATE:
                         MusicBandRaw musicBandUpdateRaw = generateMusicBandUpdate();
-                        return new Request(userCommand[0], userCommand[1], musicBandUpdateRaw);
+                        return new Request(CommandOpcode.byName(userCommand[0]), userCommand[1], musicBandUpdateRaw);
+                    case OBJECT_BATCH:
+                        return new Request(CommandOpcode.ADD_BATCH, userCommand[1], generateMusicBandAddBatch(Integer.parseInt(userCommand[1])));
+                    case UPDATE_BATCH:
+                        return new Request(CommandOpcode.UPDATE_BATCH, userCommand[1], generateMusicBandUpdateBatch(userCommand[1].split("\\s+")));
                     case SCRIPT:
-                        File scriptFile = new File(userCommand[1]);
-                        if(!scriptFile.exists()) {
-                            throw new FileNotFoundException();
-                        }
-                        if(!scriptStack.empty() && scriptStack.search(scriptFile) != -1) {
-                            throw new RecursionException("Execution error: Please debug your script.", new RuntimeException());
-                        }
-                        scannerStack.push(userScanner);
-                        scriptStack.push(scriptFile);
-                        userScanner = new Scanner(scriptFile);
-                        PrettyPrinter.println("Executing script '" + scriptFile.getName() + "' right now...");
-                        break;
+                        pushScript(userCommand[1]);
+                        return new Request(CommandOpcode.EXECUTE_SCRIPT, userCommand[1], collectScript());
                 }
             } catch (FileNotFoundException e) {
                 PrettyPrinter.printError("Script file not found.\nIf there is one, then try changing the permission of the file.\nMaybe chmod 777, idk.");
@@ -191,26 +212,128 @@ public class UserHandler {
             scriptStack.clear();
             return new Request();
         }
-        return new Request(userCommand[0], userCommand[1]);
+        return new Request(CommandOpcode.byName(userCommand[0]), userCommand[1]);
+    }
+
+    /**
+     * This method is used to ask the user whether the next page of a paged response should be shown.
+     * An empty line requests the next page; anything else stops the paging and is taken as the next command.
+     * @return true if the next page should be requested, <p>false otherwise.
+     */
+    public boolean requestNextPage() {
+        PrettyPrinter.println("Press Enter for the next page or type the next command.");
+        PrettyPrinter.print(App.CS1);
+        if(!userScanner.hasNextLine()) {
+            return false;
+        }
+        String userInput = userScanner.nextLine();
+        if(userInput.isBlank()) {
+            return true;
+        }
+        pendingInput = userInput;
+        return false;
+    }
+
+    /**
+     * This method is used to start reading commands from a script file.
+     * @param fileName the script's file name.
+     * @throws FileNotFoundException if the script file doesn't exist.
+     * @throws RecursionException    if the script is already being executed.
+     */
+    private void pushScript(String fileName) throws FileNotFoundException, RecursionException {
+        File scriptFile = new File(fileName);
+        if(!scriptFile.exists()) {
+            throw new FileNotFoundException();
+        }
+        if(!scriptStack.empty() && scriptStack.search(scriptFile) != -1) {
+            throw new RecursionException("Execution error: Please debug your script.", new RuntimeException());
+        }
+        scannerStack.push(userScanner);
+        scriptStack.push(scriptFile);
+        userScanner = new Scanner(scriptFile);
+        PrettyPrinter.println("Executing script '" + scriptFile.getName() + "' right now...");
+    }
+
+    /**
+     * This method is used to parse the whole script (including the nested ones) into requests, so the server can execute it as a single batch.
+     * Parsing stops after an 'exit' command, since nothing after it would be executed.
+     * @return the script's requests in their order.
+     * @throws RecursionException       if a nested script is already being executed.
+     * @throws IncorrectScriptException if a command of the script is invalid.
+     */
+    private ArrayList<Request> collectScript() throws RecursionException {
+        ArrayList<Request> batch = new ArrayList<>();
+        while(fileMode()) {
+            if(!userScanner.hasNextLine()) {
+                userScanner.close();
+                userScanner = scannerStack.pop();
+                PrettyPrinter.println("Returning from script '" + scriptStack.pop().getName() + "'...");
+                continue;
+            }
+            String userInput = userScanner.nextLine();
+            if(userInput.trim().isEmpty()) {
+                continue;
+            }
+            PrettyPrinter.print(App.CS1);
+            PrettyPrinter.println(userInput);
+            String[] userCommand = (userInput.trim() + " ").split(" ", 2);
+            userCommand[0] = resolveCommand(userCommand[0]);
+            userCommand[1] = userCommand[1].trim();
+            switch(processCommand(userCommand[0], userCommand[1])) {
+                case ERROR -> throw new IncorrectScriptException("Execution error: Please debug your script.", new RuntimeException());
+                case OBJECT -> batch.add(new Request(CommandOpcode.ADD, userCommand[1], generateMusicBandAdd()));
+                case UPDATE -> batch.add(new Request(CommandOpcode.UPDATE, userCommand[1], generateMusicBandUpdate()));
+                case OBJECT_BATCH -> batch.add(new Request(CommandOpcode.ADD_BATCH, userCommand[1], generateMusicBandAddBatch(Integer.parseInt(userCommand[1]))));
+                case UPDATE_BATCH -> batch.add(new Request(CommandOpcode.UPDATE_BATCH, userCommand[1], generateMusicBandUpdateBatch(userCommand[1].split("\\s+"))));
+                case SCRIPT -> {
+                    try {
+                        pushScript(userCommand[1]);
+                    } catch (FileNotFoundException e) {
+                        PrettyPrinter.printError("Script file not found.\nIf there is one, then try changing the permission of the file.\nMaybe chmod 777, idk.");
+                    }
+                }
+                default -> {
+                    CommandOpcode opcode = CommandOpcode.byName(userCommand[0]);
+                    batch.add(new Request(opcode, userCommand[1]));
+                    if(opcode == CommandOpcode.EXIT) {
+                        while(fileMode()) {
+                            userScanner.close();
+                            userScanner = scannerStack.pop();
+                        }
+                        scriptStack.clear();
+                    }
+                }
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * This method is used to resolve a shorthand or a typo into the actual command name, which is then sent to the server as an opcode.
+     * @param command the command as it was typed.
+     * @return the actual command name, <p>the input itself if it cannot be resolved.
+     */
+    private String resolveCommand(String command) {
+        if(shortHandCommandMap.containsKey(command)) {
+            command = shortHandCommandMap.get(command);
+        }
+        if(Pattern.matches(".*\\p{InCyrillic}.*", command) && typoTranscript(command) != null) {
+            command = typoTranscript(command);
+        }
+        if(shortHandCommandMap.containsKey(command)) {
+            command = shortHandCommandMap.get(command);
+        }
+        return command;
     }
 
     /**
      * This method is used to interpret and validate user inputs.
-     * @param command    the command's name.
+     * @param command    the command's resolved name.
      * @param commandArg the command's argument.
      * @return processing code which determines the console app's output.
      */
     private ProcessingCode processCommand(String command, String commandArg) {
         try {
-            if(shortHandCommandMap.containsKey(command)) {
-                command = shortHandCommandMap.get(command);
-            }
-            if(Pattern.matches(".*\\p{InCyrillic}.*", command)) {
-                command = typoTranscript(command);
-            }
-            if(shortHandCommandMap.containsKey(command)) {
-                command = shortHandCommandMap.get(command);
-            }
             CommandType commandType = commandTypeMap.get(command);
             if(commandType == null) {
                 PrettyPrinter.println("Command '" + command + "' not found. Use command 'help' for advice.");
@@ -239,6 +362,34 @@ public class UserHandler {
                                 if(commandArg.isEmpty()) throw new CommandUsageException("<number_of_participants>", new RuntimeException());
                                 yield ProcessingCode.OK;
                             }
+                            case "query" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<expression>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "remove_where" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<condition>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "find_by_name" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<name_part>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "within_box" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<min_x> <min_y> <max_x> <max_y>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "within_radius" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<x> <y> <radius>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "nearest" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<k> <x> <y>", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
+                            case "sample" -> {
+                                if(commandArg.isEmpty()) throw new CommandUsageException("<k> [seed]", new RuntimeException());
+                                yield ProcessingCode.OK;
+                            }
                             case "execute_script" -> {
                                 if(commandArg.isEmpty()) throw new CommandUsageException("<file_name>", new RuntimeException());
                                 yield ProcessingCode.SCRIPT;
@@ -247,6 +398,21 @@ public class UserHandler {
                         yield ProcessingCode.OK;
                     }
                     case WITH_ARGS_FORM -> {
+                        switch (command) {
+                            case "add_batch" -> {
+                                if (!commandArg.matches("\\d{1,5}") || Integer.parseInt(commandArg) < 1 || Integer.parseInt(commandArg) > MusicBandRaw.MAX_BATCH_SIZE) {
+                                    throw new CommandUsageException("<count> {element} ... (count from 1 to " + MusicBandRaw.MAX_BATCH_SIZE + ")", new RuntimeException());
+                                }
+                                yield ProcessingCode.OBJECT_BATCH;
+                            }
+                            case "update_batch" -> {
+                                String[] ids = commandArg.split("\\s+");
+                                if (commandArg.isEmpty() || ids.length > MusicBandRaw.MAX_BATCH_SIZE || !Arrays.stream(ids).allMatch(id -> id.matches("\\d{1,9}"))) {
+                                    throw new CommandUsageException("<id> ... {element} ...", new RuntimeException());
+                                }
+                                yield ProcessingCode.UPDATE_BATCH;
+                            }
+                        }
                         if (commandArg.isEmpty()) {
                             throw new CommandUsageException("<id> {element}", new RuntimeException());
                         }
@@ -325,6 +491,38 @@ public class UserHandler {
         );
     }
 
+    /**
+     * This method generates several MusicBands to be sent to the server in a single add_batch request. Each one is validated as it is entered.
+     * @param count the amount of music bands.
+     * @return Music Bands in serializable form.
+     */
+    private MusicBandRaw[] generateMusicBandAddBatch(int count) {
+        MusicBandRaw[] musicBandRaws = new MusicBandRaw[count];
+        for (int i = 0; i < count; i++) {
+            if(!fileMode()) {
+                PrettyPrinter.println("Music band " + (i + 1) + " of " + count + ":");
+            }
+            musicBandRaws[i] = generateMusicBandAdd();
+        }
+        return musicBandRaws;
+    }
+
+    /**
+     * This method generates several updates to be sent to the server in a single update_batch request, one for each ID.
+     * @param ids the IDs of the music bands to be updated.
+     * @return updates in serializable form.
+     */
+    private MusicBandRaw[] generateMusicBandUpdateBatch(String[] ids) {
+        MusicBandRaw[] musicBandRaws = new MusicBandRaw[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            if(!fileMode()) {
+                PrettyPrinter.println("Music band with ID " + ids[i] + ":");
+            }
+            musicBandRaws[i] = generateMusicBandUpdate();
+        }
+        return musicBandRaws;
+    }
+
     /**
      * This method determines whether the input is received from a file or not.
      * @return true if the input is from a file (script),<p>and false if the input is from a keyboard.
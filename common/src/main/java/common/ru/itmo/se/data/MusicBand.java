@@ -1,6 +1,6 @@
 package common.ru.itmo.se.data;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
@@ -11,11 +11,8 @@ import java.io.Serializable;
 
 /**
  * This class represents the primary composite data type which describes a music band.
- * -- CONSTRUCTOR --
- * Constructs a MusicBand with the specified fields.
  */
 @Getter
-@AllArgsConstructor
 public class MusicBand implements Comparable<MusicBand>, Serializable {
     /**
      * This field holds the value for SerialVersion, which is a good practice when you're trying to serialize an object.
@@ -70,6 +67,46 @@ public class MusicBand implements Comparable<MusicBand>, Serializable {
      * Getter method for the studio of the music band.
      */
     private Studio studio;
+    /**
+     * This field holds the encoded record of the music band, <p>null until it is needed. The band never changes, so the record stays valid.
+     */
+    @Getter(AccessLevel.NONE)
+    private transient volatile byte[] encodedRecord;
+
+    /**
+     * Constructs a MusicBand with the specified fields.
+     * @param id                   the ID.
+     * @param name                 the name.
+     * @param coordinates          the coordinates.
+     * @param creationDate         the creation date.
+     * @param numberOfParticipants the number of participants.
+     * @param establishmentDate    the establishment date.
+     * @param musicGenre           the genre.
+     * @param studio               the studio.
+     */
+    public MusicBand(Integer id, String name, Coordinates coordinates, Date creationDate, Long numberOfParticipants, LocalDateTime establishmentDate, MusicGenre musicGenre, Studio studio) {
+        this.id = id;
+        this.name = name;
+        this.coordinates = coordinates;
+        this.creationDate = creationDate;
+        this.numberOfParticipants = numberOfParticipants;
+        this.establishmentDate = establishmentDate;
+        this.musicGenre = musicGenre;
+        this.studio = studio;
+    }
+
+    /**
+     * This method is used to get the encoded record of the music band, which is sent in responses instead of the object itself. It is encoded on the first call.
+     * @return the record.
+     */
+    public byte[] getRecord() {
+        byte[] record = encodedRecord;
+        if (record == null) {
+            record = MusicBandRecord.encode(this);
+            encodedRecord = record;
+        }
+        return record;
+    }
 
     /**
      * This method is a custom implementation of a compareTo method from the interface Comparable. It compares the music bands' ID values.
@@ -98,16 +135,16 @@ public class MusicBand implements Comparable<MusicBand>, Serializable {
      */
     @Override
     public String toString() {
-        String output = "";
-        output += "MusicBand №" + id;
-        output += " (added " + creationDate + ")";
-        output += "\n   Name: " + name;
-        output += "\n   Coordinates: " + coordinates;
-        output += "\n   Number of participants: " + numberOfParticipants;
-        output += "\n   Establishment date: " + establishmentDate;
-        output += "\n   Musical genre: " + musicGenre;
-        output += "\n   Studio: " + studio;
-        return output;
+        return new StringBuilder(256)
+                .append("MusicBand №").append(id)
+                .append(" (added ").append(creationDate).append(")")
+                .append("\n   Name: ").append(name)
+                .append("\n   Coordinates: ").append(coordinates)
+                .append("\n   Number of participants: ").append(numberOfParticipants)
+                .append("\n   Establishment date: ").append(establishmentDate)
+                .append("\n   Musical genre: ").append(musicGenre)
+                .append("\n   Studio: ").append(studio)
+                .toString();
     }
 
     /**
@@ -0,0 +1,177 @@
+package common.ru.itmo.se.data;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Class used for encoding music bands into compact binary records for responses, instead of serializing every band as an object graph.
+ * A music band never changes (an update replaces it with a new instance), so its record is encoded once and kept by the band itself;
+ * a list of bands is then sent as the concatenation of their records.
+ */
+public final class MusicBandRecord {
+    /**
+     * This field holds the marker of a null value.
+     */
+    private static final byte NULL = 0;
+    /**
+     * This field holds the marker of a present value.
+     */
+    private static final byte PRESENT = 1;
+
+    /**
+     * Constructs nothing: the class only has static methods.
+     */
+    private MusicBandRecord() {
+    }
+
+    /**
+     * This record represents several encoded music bands: the concatenation of their records.
+     * @param count the amount of music bands.
+     * @param bytes the records.
+     */
+    public record Block(int count, byte[] bytes) {
+        /**
+         * This method is used to decode the music bands of the block.
+         * @return the music bands in their order.
+         */
+        public List<MusicBand> decode() {
+            ArrayList<MusicBand> musicBands = new ArrayList<>(count);
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                for (int i = 0; i < count; i++) {
+                    musicBands.add(read(in));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return musicBands;
+        }
+    }
+
+    /**
+     * This method is used to concatenate the records of music bands. A band is encoded only the first time its record is needed.
+     * @param musicBands the music bands.
+     * @return the block of their records.
+     */
+    public static Block encodeAll(Collection<MusicBand> musicBands) {
+        byte[][] records = new byte[musicBands.size()][];
+        int length = 0;
+        int count = 0;
+        for (MusicBand musicBand : musicBands) {
+            records[count] = musicBand.getRecord();
+            length += records[count++].length;
+        }
+        byte[] bytes = new byte[length];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(records[i], 0, bytes, position, records[i].length);
+            position += records[i].length;
+        }
+        return new Block(count, bytes);
+    }
+
+    /**
+     * This method is used to encode a music band.
+     * @param musicBand the music band.
+     * @return the record.
+     */
+    static byte[] encode(MusicBand musicBand) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            if (writePresence(out, musicBand.getId())) {
+                out.writeInt(musicBand.getId());
+            }
+            writeString(out, musicBand.getName());
+            if (writePresence(out, musicBand.getCoordinates())) {
+                out.writeFloat(musicBand.getCoordinates().getX());
+                out.writeFloat(musicBand.getCoordinates().getY());
+            }
+            if (writePresence(out, musicBand.getCreationDate())) {
+                out.writeLong(musicBand.getCreationDate().getTime());
+            }
+            if (writePresence(out, musicBand.getNumberOfParticipants())) {
+                out.writeLong(musicBand.getNumberOfParticipants());
+            }
+            if (writePresence(out, musicBand.getEstablishmentDate())) {
+                out.writeLong(musicBand.getEstablishmentDate().toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(musicBand.getEstablishmentDate().getNano());
+            }
+            out.writeByte(musicBand.getMusicGenre() == null ? -1 : musicBand.getMusicGenre().ordinal());
+            if (writePresence(out, musicBand.getStudio())) {
+                writeString(out, musicBand.getStudio().getAddress());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This method is used to decode a music band.
+     * @param in the stream positioned at the record.
+     * @return the music band.
+     * @throws IOException if the record is broken.
+     */
+    static MusicBand read(DataInput in) throws IOException {
+        Integer id = in.readByte() == NULL ? null : in.readInt();
+        String name = readString(in);
+        Coordinates coordinates = in.readByte() == NULL ? null : new Coordinates(in.readFloat(), in.readFloat());
+        Date creationDate = in.readByte() == NULL ? null : new Date(in.readLong());
+        Long numberOfParticipants = in.readByte() == NULL ? null : in.readLong();
+        LocalDateTime establishmentDate = in.readByte() == NULL ? null : LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        int genre = in.readByte();
+        MusicGenre musicGenre = genre < 0 ? null : MusicGenre.values()[genre];
+        Studio studio = in.readByte() == NULL ? null : new Studio(readString(in));
+        return new MusicBand(id, name, coordinates, creationDate, numberOfParticipants, establishmentDate, musicGenre, studio);
+    }
+
+    /**
+     * This method is used to write whether a value is present.
+     * @param out   the stream.
+     * @param value the value.
+     * @return true if the value is present (and has to be written), <p>false if it is null.
+     * @throws IOException if the stream fails.
+     */
+    private static boolean writePresence(DataOutput out, Object value) throws IOException {
+        out.writeByte(value == null ? NULL : PRESENT);
+        return value != null;
+    }
+
+    /**
+     * This method is used to write a string of any length as UTF-8 (writeUTF is limited to 64 KiB).
+     * @param out   the stream.
+     * @param value the string.
+     * @throws IOException if the stream fails.
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * This method is used to read a string written by writeString().
+     * @param in the stream.
+     * @return the string.
+     * @throws IOException if the stream fails.
+     */
+    private static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
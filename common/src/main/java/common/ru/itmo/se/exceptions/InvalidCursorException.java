@@ -0,0 +1,27 @@
+package common.ru.itmo.se.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception for page cursors that are malformed, belong to another query or point to a snapshot which has already been discarded.
+ */
+@Getter
+public class InvalidCursorException extends RuntimeException {
+    /**
+     * This field holds the exception's message.
+     * -- GETTER --
+     * Getter method for the exception's message.
+     */
+    private final String message;
+
+    /**
+     * Constructs a InvalidCursorException with the specified message and cause.
+     *
+     * @param message the specified message.
+     * @param cause   the specified Throwable object.
+     */
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+        this.message = message;
+    }
+}
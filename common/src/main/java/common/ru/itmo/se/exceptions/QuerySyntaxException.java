@@ -0,0 +1,27 @@
+package common.ru.itmo.se.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception for query expressions that cannot be parsed.
+ */
+@Getter
+public class QuerySyntaxException extends RuntimeException {
+    /**
+     * This field holds the exception's message.
+     * -- GETTER --
+     * Getter method for the exception's message.
+     */
+    private final String message;
+
+    /**
+     * Constructs a QuerySyntaxException with the specified message and cause.
+     *
+     * @param message the specified message.
+     * @param cause   the specified Throwable object.
+     */
+    public QuerySyntaxException(String message, Throwable cause) {
+        super(message, cause);
+        this.message = message;
+    }
+}
@@ -0,0 +1,26 @@
+package common.ru.itmo.se.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception class for responses whose encoded data exceeds the maximum size of a frame.
+ */
+@Getter
+public class ResponseTooLargeException extends RuntimeException {
+    /**
+     * This field holds the exception's message.
+     * -- GETTER --
+     * Getter method for the exception's message.
+     */
+    private final String message;
+    /**
+     * Constructs a ResponseTooLargeException with the specified message and cause.
+     *
+     * @param message the specified message.
+     * @param cause   the specified Throwable object.
+     */
+    public ResponseTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+        this.message = message;
+    }
+}
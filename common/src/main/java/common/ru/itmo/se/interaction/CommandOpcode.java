@@ -0,0 +1,197 @@
+package common.ru.itmo.se.interaction;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This enum represents the numeric codes via which commands are sent over the network.
+ * The codes are part of the protocol: they must never be changed or reused, new commands get new codes.
+ */
+@Getter
+public enum CommandOpcode {
+    /**
+     * This value represents a blank request.
+     */
+    NONE(0, ""),
+    /**
+     * This value represents the command add.
+     */
+    ADD(1, "add"),
+    /**
+     * This value represents the command clear.
+     */
+    CLEAR(2, "clear"),
+    /**
+     * This value represents the command execute_script.
+     */
+    EXECUTE_SCRIPT(3, "execute_script"),
+    /**
+     * This value represents the command exit.
+     */
+    EXIT(4, "exit"),
+    /**
+     * This value represents the command filter_less_than_number_of_participants.
+     */
+    FILTER_LESS_THAN_NUMBER_OF_PARTICIPANTS(5, "filter_less_than_number_of_participants"),
+    /**
+     * This value represents the command group_counting_by_establishment_date.
+     */
+    GROUP_COUNTING_BY_ESTABLISHMENT_DATE(6, "group_counting_by_establishment_date"),
+    /**
+     * This value represents the command help.
+     */
+    HELP(7, "help"),
+    /**
+     * This value represents the command history.
+     */
+    HISTORY(8, "history"),
+    /**
+     * This value represents the command info.
+     */
+    INFO(9, "info"),
+    /**
+     * This value represents the command print_field_descending_establishment_date.
+     */
+    PRINT_FIELD_DESCENDING_ESTABLISHMENT_DATE(10, "print_field_descending_establishment_date"),
+    /**
+     * This value represents the command remove_at.
+     */
+    REMOVE_AT(11, "remove_at"),
+    /**
+     * This value represents the command remove_by_id.
+     */
+    REMOVE_BY_ID(12, "remove_by_id"),
+    /**
+     * This value represents the command save.
+     */
+    SAVE(13, "save"),
+    /**
+     * This value represents the command server_exit.
+     */
+    SERVER_EXIT(14, "server_exit"),
+    /**
+     * This value represents the command show.
+     */
+    SHOW(15, "show"),
+    /**
+     * This value represents the command shuffle.
+     */
+    SHUFFLE(16, "shuffle"),
+    /**
+     * This value represents the command update.
+     */
+    UPDATE(17, "update"),
+    /**
+     * This value represents the command query.
+     */
+    QUERY(18, "query"),
+    /**
+     * This value represents the command within_box.
+     */
+    WITHIN_BOX(19, "within_box"),
+    /**
+     * This value represents the command within_radius.
+     */
+    WITHIN_RADIUS(20, "within_radius"),
+    /**
+     * This value represents the command nearest.
+     */
+    NEAREST(21, "nearest"),
+    /**
+     * This value represents the command find_by_name.
+     */
+    FIND_BY_NAME(22, "find_by_name"),
+    /**
+     * This value represents the command sample.
+     */
+    SAMPLE(23, "sample"),
+    /**
+     * This value represents the command add_batch.
+     */
+    ADD_BATCH(24, "add_batch"),
+    /**
+     * This value represents the command update_batch.
+     */
+    UPDATE_BATCH(25, "update_batch"),
+    /**
+     * This value represents the command remove_where.
+     */
+    REMOVE_WHERE(26, "remove_where");
+
+    /**
+     * This field holds all the opcodes indexed by their codes.
+     */
+    private static final CommandOpcode[] BY_CODE;
+    /**
+     * This structure maps command names to their opcodes.
+     */
+    private static final Map<String, CommandOpcode> BY_NAME = new HashMap<>();
+
+    static {
+        int maxCode = 0;
+        for (CommandOpcode opcode : values()) {
+            maxCode = Math.max(maxCode, opcode.code);
+        }
+        BY_CODE = new CommandOpcode[maxCode + 1];
+        for (CommandOpcode opcode : values()) {
+            BY_CODE[opcode.code] = opcode;
+            BY_NAME.put(opcode.commandName, opcode);
+        }
+    }
+
+    /**
+     * This field holds the command's code.
+     */
+    private final int code;
+    /**
+     * This field holds the command's name as it is typed by the user.
+     */
+    private final String commandName;
+
+    /**
+     * Constructs a CommandOpcode with the specified code and command name.
+     * @param code        the command's code.
+     * @param commandName the command's name.
+     */
+    CommandOpcode(int code, String commandName) {
+        this.code = code;
+        this.commandName = commandName;
+    }
+
+    /**
+     * This method is used to find an opcode by its code.
+     * @param code the command's code.
+     * @return the corresponding opcode, <p>null if the code is unknown.
+     */
+    public static CommandOpcode byCode(int code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+
+    /**
+     * This method is used to find an opcode by the command's name.
+     * @param commandName the command's name.
+     * @return the corresponding opcode, <p>null if the name is unknown.
+     */
+    public static CommandOpcode byName(String commandName) {
+        return BY_NAME.get(commandName);
+    }
+
+    /**
+     * This method is used to check whether the command returns a list which can be requested page by page.
+     * @return true for show, filter_less_than_number_of_participants, print_field_descending_establishment_date, query, within_box and within_radius, <p>false otherwise.
+     */
+    public boolean isPaged() {
+        return this == SHOW || this == FILTER_LESS_THAN_NUMBER_OF_PARTICIPANTS || this == PRINT_FIELD_DESCENDING_ESTABLISHMENT_DATE || this == QUERY
+                || this == WITHIN_BOX || this == WITHIN_RADIUS;
+    }
+
+    /**
+     * This method is used to get the size of a table indexed by codes.
+     * @return the greatest code + 1.
+     */
+    public static int tableSize() {
+        return BY_CODE.length;
+    }
+}
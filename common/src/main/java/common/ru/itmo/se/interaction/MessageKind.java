@@ -0,0 +1,62 @@
+package common.ru.itmo.se.interaction;
+
+import lombok.Getter;
+
+/**
+ * This enum represents all the kinds of plain messages a response body may contain. The client decides how every kind is rendered.
+ * A body is a sequence of messages, each of which starts with its kind's marker and ends with the message separator.
+ */
+@Getter
+public enum MessageKind {
+    /**
+     * This value represents a message which is not followed by a line break.
+     */
+    INLINE('i'),
+    /**
+     * This value represents a message which is followed by a line break.
+     */
+    LINE('l'),
+    /**
+     * This value represents an error message.
+     */
+    ERROR('e'),
+    /**
+     * This value represents a row of a table, whose cells are divided by the cell separator.
+     */
+    TABLE_ROW('t');
+
+    /**
+     * This field holds the char which ends every message (ASCII record separator).
+     */
+    public static final char MESSAGE_SEPARATOR = '\u001E';
+    /**
+     * This field holds the char which divides the cells of a table row (ASCII unit separator).
+     */
+    public static final char CELL_SEPARATOR = '\u001F';
+    /**
+     * This field holds the char with which a message of this kind starts.
+     */
+    private final char marker;
+
+    /**
+     * Constructs a MessageKind with the specified marker.
+     * @param marker the marker char.
+     */
+    MessageKind(char marker) {
+        this.marker = marker;
+    }
+
+    /**
+     * This method is used to find the kind of message by its marker.
+     * @param marker the marker char.
+     * @return the corresponding kind, <p>LINE if the marker is unknown.
+     */
+    public static MessageKind fromMarker(char marker) {
+        for (MessageKind kind : values()) {
+            if (kind.marker == marker) {
+                return kind;
+            }
+        }
+        return LINE;
+    }
+}
@@ -18,6 +18,10 @@ import java.util.Objects;
 @Getter
 @AllArgsConstructor
 public class MusicBandRaw implements Serializable {
+    /**
+     * This field holds the greatest amount of music bands which can be sent in a single add_batch or update_batch request.
+     */
+    public static final int MAX_BATCH_SIZE = 10_000;
     /**
      * This field holds the value of the name of a music band.
      * -- GETTER --
@@ -0,0 +1,43 @@
+package common.ru.itmo.se.interaction;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+
+/**
+ * This class represents a request for a single page of a list-producing command (show, filters, print_field_descending_establishment_date).
+ * It travels as the command's object argument. The cursor is opaque to the client: it is taken from the previous page and sent back as it is.
+ * --CONSTRUCTOR--
+ * Constructs a PageRequest with the specified fields.
+ */
+@Getter
+@AllArgsConstructor
+public class PageRequest implements Serializable {
+    /**
+     * This field holds the maximum amount of elements in a page.
+     */
+    private final int pageSize;
+    /**
+     * This field holds the cursor which points to the page, <p>null for the first page.
+     */
+    private final String cursor;
+
+    /**
+     * This method is used to request the page which follows the current one.
+     * @param nextCursor the cursor which has been sent with the current page.
+     * @return request for the next page of the same size.
+     */
+    public PageRequest next(String nextCursor) {
+        return new PageRequest(pageSize, nextCursor);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in PageRequest.
+     * @return values of a PageRequest parsed to String data type.
+     */
+    @Override
+    public String toString() {
+        return "PageRequest[size=" + pageSize + "; cursor=" + cursor + "]";
+    }
+}
@@ -13,9 +13,9 @@ import lombok.Getter;
 @AllArgsConstructor
 public class Request implements Serializable {
     /**
-     * This field holds the command's name.
+     * This field holds the command's numeric code (see CommandOpcode).
      */
-    private String commandName;
+    private int opcode;
     /**
      * This field holds the command's string argument.
      */
@@ -24,20 +24,39 @@ public class Request implements Serializable {
      * This field holds the command's object argument.
      */
     private Serializable commandObjArg;
+    /**
+     * Constructs a Request with the specified command, string argument and object argument.
+     * @param opcode the command's opcode.
+     * @param commandStrArg the command's string argument.
+     * @param commandObjArg the command's object argument.
+     */
+    public Request(CommandOpcode opcode, String commandStrArg, Serializable commandObjArg) {
+        this(opcode.getCode(), commandStrArg, commandObjArg);
+    }
+
     /**
      * Constructs a Request without an object argument.
-     * @param commandName the command name.
+     * @param opcode the command's opcode.
      * @param commandStrArg the command's string argument.
      */
-    public Request(String commandName, String commandStrArg) {
-        this(commandName, commandStrArg, null);
+    public Request(CommandOpcode opcode, String commandStrArg) {
+        this(opcode, commandStrArg, null);
     }
 
     /**
      * Constructs a blank Request.
      */
     public Request() {
-        this("", "");
+        this(CommandOpcode.NONE, "");
+    }
+
+    /**
+     * This method is used to get the command's name, e.g. for logging.
+     * @return command's name, <p>"#code" if the code is unknown.
+     */
+    public String getCommandName() {
+        CommandOpcode commandOpcode = CommandOpcode.byCode(opcode);
+        return commandOpcode == null ? "#" + opcode : commandOpcode.getCommandName();
     }
 
     /**
@@ -45,7 +64,7 @@ public class Request implements Serializable {
      * @return true if the request is blank,<p>and false if the request isn't.
      */
     public boolean isEmpty() {
-        return commandName.isEmpty() && commandStrArg.isEmpty() && commandObjArg == null;
+        return opcode == CommandOpcode.NONE.getCode() && commandStrArg.isEmpty() && commandObjArg == null;
     }
 
     /**
@@ -54,6 +73,6 @@ public class Request implements Serializable {
      */
     @Override
     public String toString() {
-        return "Request[" + commandName + " " + commandStrArg + " {" + commandObjArg + "}]";
+        return "Request[" + getCommandName() + " " + commandStrArg + " {" + commandObjArg + "}]";
     }
 }
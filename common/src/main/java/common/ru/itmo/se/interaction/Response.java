@@ -17,15 +17,29 @@ public class Response implements Serializable {
      */
     private ResponseCode responseCode;
     /**
-     * This field holds the response body.
+     * This field holds the response body: plain messages divided by MessageKind markers.
      */
     private String responseBody;
+    /**
+     * This field holds the typed data of the response, <p>null if the response consists of messages only.
+     */
+    private ResponsePayload payload;
+
+    /**
+     * Constructs a Response which consists of messages only.
+     * @param responseCode the response code.
+     * @param responseBody the response body.
+     */
+    public Response(ResponseCode responseCode, String responseBody) {
+        this(responseCode, responseBody, null);
+    }
+
     /**
      * This method is a custom implementation of the toString() method in Response.
      * @return values of a Response parsed to String data type.
      */
     @Override
     public String toString() {
-        return "Response[" + responseCode + "; " + responseBody + "]";
+        return "Response[" + responseCode + "; " + responseBody + "; " + payload + "]";
     }
 }
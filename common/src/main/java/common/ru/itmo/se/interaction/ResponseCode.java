@@ -12,6 +12,10 @@ public enum ResponseCode {
      * This value represents cases where something went wrong.
      */
     ERROR,
+    /**
+     * This value represents cases where the collection is still being loaded, so the request should be retried later.
+     */
+    LOADING,
     /**
      * This value represents a special case where the command server_exit is invoked.
      */
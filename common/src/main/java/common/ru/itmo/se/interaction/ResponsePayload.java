@@ -0,0 +1,194 @@
+package common.ru.itmo.se.interaction;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.data.MusicBandRecord;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * This class represents the typed part of a response: music band records, count maps, scalar info fields, rows of selected fields and the result codes of a script batch.
+ * The server sends the data as it is and the client decides how to render it, so no formatting travels over the wire.
+ * Music bands travel as the concatenation of their cached binary records (see MusicBandRecord) rather than as serialized objects.
+ */
+@Getter
+public class ResponsePayload implements Serializable {
+    /**
+     * This field holds the music bands of the response, <p>null if the response doesn't contain any band list.
+     */
+    private transient ArrayList<MusicBand> musicBands;
+    /**
+     * This field holds the music bands of the response which have been added already encoded, <p>null if there are none.
+     */
+    @Getter(AccessLevel.NONE)
+    private transient MusicBandRecord.Block encodedMusicBands;
+    /**
+     * This field holds the counted values of the response in their order, <p>null if the response doesn't contain any counts.
+     */
+    private LinkedHashMap<String, Long> counts;
+    /**
+     * This field holds the named scalar values of the response in their order, <p>null if the response doesn't contain any fields.
+     */
+    private LinkedHashMap<String, String> fields;
+    /**
+     * This field holds the result codes of the commands of a script batch in their order, <p>null if the response isn't a batch.
+     */
+    private ArrayList<ResponseCode> resultCodes;
+    /**
+     * This field holds the column names of the selected fields, <p>null if the response doesn't contain any rows.
+     */
+    private ArrayList<String> columns;
+    /**
+     * This field holds the rows of the selected fields in their order, <p>null if the response doesn't contain any rows.
+     */
+    private ArrayList<String[]> rows;
+    /**
+     * This field holds the cursor of the next page, <p>null if the response is not paged or its page is the last one.
+     */
+    private String nextCursor;
+
+    /**
+     * This method is used to add music bands to the response. An empty collection still marks the response as a band list.
+     * @param musicBands the music bands to be added.
+     */
+    public void addMusicBands(Collection<MusicBand> musicBands) {
+        if (encodedMusicBands != null) {
+            this.musicBands = new ArrayList<>(encodedMusicBands.decode());
+            encodedMusicBands = null;
+        }
+        if (this.musicBands == null) {
+            this.musicBands = new ArrayList<>(musicBands.size());
+        }
+        this.musicBands.addAll(musicBands);
+    }
+
+    /**
+     * This method is used to add music bands which have already been encoded, e.g. a cached rendering of the whole collection. They are sent as they are.
+     * @param block the records of the music bands.
+     */
+    public void addMusicBands(MusicBandRecord.Block block) {
+        if (musicBands == null && encodedMusicBands == null) {
+            encodedMusicBands = block;
+        } else {
+            addMusicBands(block.decode());
+        }
+    }
+
+    /**
+     * This method is used to add a counted value to the response.
+     * @param key   the value which has been counted.
+     * @param count the amount of occurrences.
+     */
+    public void putCount(Object key, long count) {
+        if (counts == null) {
+            counts = new LinkedHashMap<>();
+        }
+        counts.put(String.valueOf(key), count);
+    }
+
+    /**
+     * This method is used to add a named scalar value to the response.
+     * @param name  the field's name.
+     * @param value the field's value.
+     */
+    public void putField(String name, Object value) {
+        if (fields == null) {
+            fields = new LinkedHashMap<>();
+        }
+        fields.put(name, String.valueOf(value));
+    }
+
+    /**
+     * This method is used to add the result code of a command of a script batch.
+     * @param resultCode the command's result code.
+     */
+    public void addResultCode(ResponseCode resultCode) {
+        if (resultCodes == null) {
+            resultCodes = new ArrayList<>();
+        }
+        resultCodes.add(resultCode);
+    }
+
+    /**
+     * This method is used to add rows of selected fields to the response.
+     * @param columns the column names.
+     * @param rows    the rows, each of them with a value per column.
+     */
+    public void addRows(List<String> columns, Collection<String[]> rows) {
+        if (this.rows == null) {
+            this.columns = new ArrayList<>(columns);
+            this.rows = new ArrayList<>(rows.size());
+        }
+        this.rows.addAll(rows);
+    }
+
+    /**
+     * This method is used to tell the client that more pages follow the current one.
+     * @param nextCursor the cursor of the next page.
+     */
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * This method is used to check whether the payload holds any data.
+     * @return true if nothing has been added, <p>false otherwise.
+     */
+    public boolean isEmpty() {
+        return musicBands == null && encodedMusicBands == null && counts == null && fields == null && resultCodes == null && rows == null && nextCursor == null;
+    }
+
+    /**
+     * This method is used to serialize the payload. The music bands are written as the amount of them and the block of their records.
+     * @param out the stream.
+     * @throws IOException if the stream fails.
+     */
+    @Serial
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        MusicBandRecord.Block block = encodedMusicBands != null ? encodedMusicBands
+                : musicBands != null ? MusicBandRecord.encodeAll(musicBands) : null;
+        if (block == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(block.count());
+        out.writeInt(block.bytes().length);
+        out.write(block.bytes());
+    }
+
+    /**
+     * This method is used to deserialize the payload. The music bands are decoded from their records.
+     * @param in the stream.
+     * @throws IOException            if the stream fails.
+     * @throws ClassNotFoundException if a class of the payload is unknown.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int count = in.readInt();
+        if (count >= 0) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            musicBands = new ArrayList<>(new MusicBandRecord.Block(count, bytes).decode());
+        }
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in ResponsePayload.
+     * @return values of a ResponsePayload parsed to String data type.
+     */
+    @Override
+    public String toString() {
+        return "ResponsePayload[bands=" + (musicBands != null ? musicBands.size() : encodedMusicBands != null ? encodedMusicBands.count() : "-") + "; counts=" + counts + "; fields=" + fields + "; results=" + resultCodes + "; rows=" + (rows == null ? "-" : rows.size()) + "; next=" + nextCursor + "]";
+    }
+}
@@ -0,0 +1,545 @@
+package common.ru.itmo.se.utility;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Class used for storing a set of non-negative ints (e.g. IDs or row numbers) as a compressed bitmap.
+ * Every block of 65536 values gets its own container, which is either a sorted array (for sparse blocks) or a plain bitset (for dense blocks).
+ * A dense block of 65536 values costs 8 KB, so 10 million sequential values fit into roughly 1.2 MB.
+ * Bitmaps can be intersected and united container by container.
+ */
+public class CompressedBitmap {
+    /**
+     * This field holds the amount of low bits that are stored inside a container.
+     */
+    private static final int CONTAINER_BITS = 16;
+    /**
+     * This field holds the cardinality after which an array container is converted into a bitmap container.
+     */
+    private static final int ARRAY_CONTAINER_LIMIT = 4096;
+    /**
+     * This field holds all the containers indexed by the high 16 bits of a value. Empty blocks are represented by null.
+     */
+    private Container[] containers = new Container[0];
+    /**
+     * This field holds the amount of stored values.
+     */
+    private int cardinality;
+
+    /**
+     * This method is used to add a value.
+     * @param value the value to be added.
+     * @return true if the value was absent, <p>false if it was already present.
+     */
+    public boolean add(int value) {
+        checkRange(value);
+        int high = value >>> CONTAINER_BITS;
+        if (high >= containers.length) {
+            containers = Arrays.copyOf(containers, high + 1);
+        }
+        Container container = containers[high];
+        if (container == null) {
+            container = new ArrayContainer();
+            containers[high] = container;
+        }
+        if (!container.add((char) value)) {
+            return false;
+        }
+        if (container instanceof ArrayContainer arrayContainer && arrayContainer.size > ARRAY_CONTAINER_LIMIT) {
+            containers[high] = arrayContainer.toBitmap();
+        }
+        cardinality++;
+        return true;
+    }
+
+    /**
+     * This method is used to check whether a value is present.
+     * @param value the value to be checked.
+     * @return true if the value is present, <p>false if it isn't.
+     */
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int high = value >>> CONTAINER_BITS;
+        return high < containers.length && containers[high] != null && containers[high].contains((char) value);
+    }
+
+    /**
+     * This method is used to remove a value.
+     * @param value the value to be removed.
+     * @return true if the value was present, <p>false if it wasn't.
+     */
+    public boolean remove(int value) {
+        if (!contains(value)) {
+            return false;
+        }
+        int high = value >>> CONTAINER_BITS;
+        Container container = containers[high];
+        container.remove((char) value);
+        if (container.size() == 0) {
+            containers[high] = null;
+        } else if (container instanceof BitmapContainer bitmapContainer && bitmapContainer.size <= ARRAY_CONTAINER_LIMIT / 2) {
+            containers[high] = bitmapContainer.toArray();
+        }
+        cardinality--;
+        return true;
+    }
+
+    /**
+     * This method is used to get the greatest value.
+     * @return the greatest value, <p>0 if the bitmap is empty.
+     */
+    public int max() {
+        for (int high = containers.length - 1; high >= 0; high--) {
+            if (containers[high] != null) {
+                return (high << CONTAINER_BITS) | containers[high].max();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method is technically a getter for the amount of stored values.
+     * @return amount of stored values.
+     */
+    public int size() {
+        return cardinality;
+    }
+
+    /**
+     * This method is used to check whether the bitmap is empty.
+     * @return true if no value is stored, <p>false otherwise.
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * This method is used to remove all the values.
+     */
+    public void clear() {
+        containers = new Container[0];
+        cardinality = 0;
+    }
+
+    /**
+     * This method is used to build the intersection of two bitmaps. Neither of them is changed.
+     * @param first  first bitmap.
+     * @param second second bitmap.
+     * @return bitmap of the values which are present in both.
+     */
+    public static CompressedBitmap and(CompressedBitmap first, CompressedBitmap second) {
+        CompressedBitmap result = new CompressedBitmap();
+        result.containers = new Container[Math.min(first.containers.length, second.containers.length)];
+        for (int high = 0; high < result.containers.length; high++) {
+            if (first.containers[high] != null && second.containers[high] != null) {
+                result.put(high, first.containers[high].and(second.containers[high]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to build the union of two bitmaps. Neither of them is changed.
+     * @param first  first bitmap.
+     * @param second second bitmap.
+     * @return bitmap of the values which are present in either.
+     */
+    public static CompressedBitmap or(CompressedBitmap first, CompressedBitmap second) {
+        CompressedBitmap result = new CompressedBitmap();
+        result.containers = new Container[Math.max(first.containers.length, second.containers.length)];
+        for (int high = 0; high < result.containers.length; high++) {
+            Container a = high < first.containers.length ? first.containers[high] : null;
+            Container b = high < second.containers.length ? second.containers[high] : null;
+            if (a != null && b != null) {
+                result.put(high, a.or(b));
+            } else if (a != null || b != null) {
+                result.put(high, (a != null ? a : b).copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to pass every value to a consumer in ascending order.
+     * @param consumer the consumer.
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int high = 0; high < containers.length; high++) {
+            if (containers[high] != null) {
+                containers[high].forEach(high << CONTAINER_BITS, consumer);
+            }
+        }
+    }
+
+    /**
+     * This method is used to store a container of a combined bitmap. Empty containers are dropped and big arrays become bitmaps.
+     * @param high      the high 16 bits of the container's values.
+     * @param container the container.
+     */
+    private void put(int high, Container container) {
+        if (container.size() == 0) {
+            return;
+        }
+        if (container instanceof ArrayContainer arrayContainer && arrayContainer.size > ARRAY_CONTAINER_LIMIT) {
+            container = arrayContainer.toBitmap();
+        } else if (container instanceof BitmapContainer bitmapContainer && bitmapContainer.size <= ARRAY_CONTAINER_LIMIT / 2) {
+            container = bitmapContainer.toArray();
+        }
+        containers[high] = container;
+        cardinality += container.size();
+    }
+
+    /**
+     * This method is used to estimate the memory that is occupied by the containers.
+     * @return approximate size in bytes.
+     */
+    public long sizeInBytes() {
+        long bytes = 4L * containers.length;
+        for (Container container : containers) {
+            if (container != null) {
+                bytes += container.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * This method is used to reject values that cannot be stored in the bitmap.
+     * @param value the value to be checked.
+     */
+    private static void checkRange(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+    }
+
+    /**
+     * A custom implementation of the toString() method in CompressedBitmap.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "CompressedBitmap (" + cardinality + " values, ~" + sizeInBytes() + " bytes)";
+    }
+
+    /**
+     * Interface for a block of 65536 values which share the same high 16 bits.
+     */
+    private interface Container {
+        /**
+         * Abstract method used for adding the low bits of a value.
+         * @param low the low 16 bits.
+         * @return true if the value was absent.
+         */
+        boolean add(char low);
+
+        /**
+         * Abstract method used for checking the low bits of a value.
+         * @param low the low 16 bits.
+         * @return true if the value is present.
+         */
+        boolean contains(char low);
+
+        /**
+         * Abstract method used for removing the low bits of a value.
+         * @param low the low 16 bits.
+         */
+        void remove(char low);
+
+        /**
+         * Abstract method used for returning the greatest stored value.
+         * @return the greatest low 16 bits.
+         */
+        int max();
+
+        /**
+         * Abstract method used for returning the amount of stored values.
+         * @return container's cardinality.
+         */
+        int size();
+
+        /**
+         * Abstract method used for estimating the container's memory usage.
+         * @return approximate size in bytes.
+         */
+        long sizeInBytes();
+
+        /**
+         * Abstract method used for intersecting two containers.
+         * @param other the other container.
+         * @return new container with the common values.
+         */
+        Container and(Container other);
+
+        /**
+         * Abstract method used for uniting two containers.
+         * @param other the other container.
+         * @return new container with the values of both.
+         */
+        Container or(Container other);
+
+        /**
+         * Abstract method used for copying the container.
+         * @return new container with the same values.
+         */
+        Container copy();
+
+        /**
+         * Abstract method used for passing the container's values to a consumer in ascending order.
+         * @param base     the high bits of the values, already shifted.
+         * @param consumer the consumer.
+         */
+        void forEach(int base, IntConsumer consumer);
+    }
+
+    /**
+     * Container which holds a sorted array of values. Used for sparse blocks.
+     */
+    private static final class ArrayContainer implements Container {
+        /**
+         * This field holds the sorted values.
+         */
+        private char[] values = new char[4];
+        /**
+         * This field holds the amount of used cells of the array.
+         */
+        private int size;
+
+        @Override
+        public boolean add(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_CONTAINER_LIMIT + 1));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = low;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        public void remove(char low) {
+            int index = Arrays.binarySearch(values, 0, size, low);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+        }
+
+        @Override
+        public int max() {
+            return values[size - 1];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16L + 2L * values.length;
+        }
+
+        @Override
+        public Container and(Container other) {
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size, 4)];
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i])) {
+                    result.values[result.size++] = values[i];
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer that = (ArrayContainer) other;
+            ArrayContainer result = new ArrayContainer();
+            result.values = new char[Math.max(size + that.size, 4)];
+            int i = 0;
+            int j = 0;
+            while (i < size || j < that.size) {
+                char next;
+                if (j >= that.size || i < size && values[i] < that.values[j]) {
+                    next = values[i++];
+                } else if (i >= size || that.values[j] < values[i]) {
+                    next = that.values[j++];
+                } else {
+                    next = values[i++];
+                    j++;
+                }
+                result.values[result.size++] = next;
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            ArrayContainer result = new ArrayContainer();
+            result.values = Arrays.copyOf(values, Math.max(size, 4));
+            result.size = size;
+            return result;
+        }
+
+        @Override
+        public void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < size; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        /**
+         * This method is used to convert the container into a bitmap one.
+         * @return the equivalent bitmap container.
+         */
+        BitmapContainer toBitmap() {
+            BitmapContainer bitmapContainer = new BitmapContainer();
+            for (int i = 0; i < size; i++) {
+                bitmapContainer.add(values[i]);
+            }
+            return bitmapContainer;
+        }
+    }
+
+    /**
+     * Container which holds a bitset of 65536 bits. Used for dense blocks.
+     */
+    private static final class BitmapContainer implements Container {
+        /**
+         * This field holds the bits.
+         */
+        private final long[] words = new long[1 << (CONTAINER_BITS - 6)];
+        /**
+         * This field holds the amount of set bits.
+         */
+        private int size;
+
+        @Override
+        public boolean add(char low) {
+            long mask = 1L << low;
+            int index = low >>> 6;
+            if ((words[index] & mask) != 0) {
+                return false;
+            }
+            words[index] |= mask;
+            size++;
+            return true;
+        }
+
+        @Override
+        public boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        public void remove(char low) {
+            long mask = 1L << low;
+            int index = low >>> 6;
+            if ((words[index] & mask) != 0) {
+                words[index] &= ~mask;
+                size--;
+            }
+        }
+
+        @Override
+        public int max() {
+            for (int i = words.length - 1; i >= 0; i--) {
+                if (words[i] != 0) {
+                    return (i << 6) + 63 - Long.numberOfLeadingZeros(words[i]);
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public long sizeInBytes() {
+            return 16L + 8L * words.length;
+        }
+
+        @Override
+        public Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer that = (BitmapContainer) other;
+            BitmapContainer result = new BitmapContainer();
+            for (int i = 0; i < words.length; i++) {
+                result.words[i] = words[i] & that.words[i];
+                result.size += Long.bitCount(result.words[i]);
+            }
+            return result;
+        }
+
+        @Override
+        public Container or(Container other) {
+            BitmapContainer result = (BitmapContainer) copy();
+            if (other instanceof BitmapContainer that) {
+                result.size = 0;
+                for (int i = 0; i < words.length; i++) {
+                    result.words[i] |= that.words[i];
+                    result.size += Long.bitCount(result.words[i]);
+                }
+            } else {
+                other.forEach(0, value -> result.add((char) value));
+            }
+            return result;
+        }
+
+        @Override
+        public Container copy() {
+            BitmapContainer result = new BitmapContainer();
+            System.arraycopy(words, 0, result.words, 0, words.length);
+            result.size = size;
+            return result;
+        }
+
+        @Override
+        public void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    consumer.accept(base | ((i << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        /**
+         * This method is used to convert the container into an array one.
+         * @return the equivalent array container.
+         */
+        ArrayContainer toArray() {
+            ArrayContainer arrayContainer = new ArrayContainer();
+            for (int i = 0; i < words.length; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    arrayContainer.add((char) ((i << 6) + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+            return arrayContainer;
+        }
+    }
+}
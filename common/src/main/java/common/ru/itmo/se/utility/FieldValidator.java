@@ -1,11 +1,10 @@
 package common.ru.itmo.se.utility;
 
+import common.ru.itmo.se.data.MusicBand;
 import common.ru.itmo.se.data.MusicGenre;
 
 import java.time.LocalDateTime;
 import java.util.Date;
-import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * Class which is responsible for objects' correctness.
@@ -15,34 +14,16 @@ public class FieldValidator {
      * This field stores the minimum allowed value for the abscissa (Coordinates.X) field.
      */
     static final float MIN_X = -584.0F;
-    /**
-     * This field stores all the values of ID's. Set is used here to ensure the IDs' uniqueness constraint.
-     */
-    private static final Set<Integer> IDset = new TreeSet<>();
     /**
      * This method is used to check whether an ID conforms to the required constraints.
+     * A valid ID is registered in the given registry, so the next occurrence of the same ID within the collection is rejected.
      *
      * @param ID the ID to be checked.
+     * @param idRegistry the registry of IDs that are already taken in the collection.
      * @return true if the ID doesn't meet the requirements, <p>false if it does.
      */
-    public static boolean checkID(Integer ID) {
-        return ID == null || ID <= 0 || checkUniqueID(ID);
-    }
-
-    /**
-     * This method is used to check whether an ID is unique or not.
-     * @param ID the ID to be checked.
-     * @return true if the ID is not unique, <p>false if it is.
-     */
-    private static boolean checkUniqueID(Integer ID) {
-        boolean unique;
-        if (IDset.contains(ID)) {
-            unique = true;
-        } else {
-            IDset.add(ID);
-            unique = false;
-        }
-        return unique;
+    public static boolean checkID(Integer ID, IDRegistry idRegistry) {
+        return ID == null || ID <= 0 || !idRegistry.add(ID);
     }
 
     /**
@@ -123,4 +104,19 @@ public class FieldValidator {
     public static boolean checkAddress(CharSequence address) {
         return address == null || address.isEmpty();
     }
+
+    /**
+     * This method is used to check all the fields of a music band which the user enters (not the ID and creation date, which the server assigns) in a single pass.
+     * @param musicBand the music band to be checked.
+     * @return the name of the first field which doesn't meet the requirements, <p>null if all of them do.
+     */
+    public static String checkMusicBand(MusicBand musicBand) {
+        if (checkName(musicBand.getName())) return "name";
+        if (musicBand.getCoordinates() == null || checkX(musicBand.getCoordinates().getX()) || checkY(musicBand.getCoordinates().getY())) return "coordinates";
+        if (checkNumberOfParticipants(musicBand.getNumberOfParticipants())) return "number of participants";
+        if (checkEstablishmentDate(musicBand.getEstablishmentDate())) return "establishment date";
+        if (checkMusicGenre(musicBand.getMusicGenre())) return "music genre";
+        if (musicBand.getStudio() == null || checkAddress(musicBand.getStudio().getAddress())) return "studio address";
+        return null;
+    }
 }
@@ -0,0 +1,90 @@
+package common.ru.itmo.se.utility;
+
+/**
+ * Class used for keeping track of the IDs that are taken within a single collection.
+ * The IDs are stored in a CompressedBitmap, so a space of 10 million sequential IDs fits into roughly 1.2 MB.
+ */
+public class IDRegistry {
+    /**
+     * This field holds the taken IDs.
+     */
+    private final CompressedBitmap ids = new CompressedBitmap();
+
+    /**
+     * This method is used to register an ID.
+     * @param id the ID to be registered.
+     * @return true if the ID was not registered before, <p>false if it already was.
+     */
+    public boolean add(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("ID cannot be negative: " + id);
+        }
+        return ids.add(id);
+    }
+
+    /**
+     * This method is used to check whether an ID is registered.
+     * @param id the ID to be checked.
+     * @return true if the ID is registered, <p>false if it isn't.
+     */
+    public boolean contains(int id) {
+        return ids.contains(id);
+    }
+
+    /**
+     * This method is used to release an ID, so it can be registered again.
+     * @param id the ID to be released.
+     * @return true if the ID was registered, <p>false if it wasn't.
+     */
+    public boolean remove(int id) {
+        return ids.remove(id);
+    }
+
+    /**
+     * This method is used to get the greatest registered ID.
+     * @return the greatest ID, <p>0 if no ID is registered.
+     */
+    public int max() {
+        return ids.max();
+    }
+
+    /**
+     * This method is technically a getter for the amount of registered IDs.
+     * @return amount of registered IDs.
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * This method is used to check whether the registry is empty.
+     * @return true if no ID is registered, <p>false otherwise.
+     */
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /**
+     * This method is used to release all the IDs.
+     */
+    public void clear() {
+        ids.clear();
+    }
+
+    /**
+     * This method is used to estimate the memory that is occupied by the registry.
+     * @return approximate size in bytes.
+     */
+    public long sizeInBytes() {
+        return ids.sizeInBytes();
+    }
+
+    /**
+     * A custom implementation of the toString() method in IDRegistry.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "IDRegistry (" + size() + " IDs, ~" + sizeInBytes() + " bytes)";
+    }
+}
@@ -0,0 +1,83 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.utility.IDRegistry;
+
+import java.util.*;
+
+/**
+ * Class used for comparing the hash functions of music bands on a real collection file, so the duplicate check of 'add' can be measured without the server.
+ * It shows how MusicBand.hashCode() (which includes the ID), the same sum without the ID and creation date (the content the duplicate check compares)
+ * and the content hash of the ContentHashIndex spread the collection over the buckets of a hash table, and times the duplicate check by a scan and by the index.
+ * It belongs to the 'benchmark' source set, so it isn't shipped in the server's jar.
+ * Usage: gradle :server:hashDistributionBenchmark --args='&lt;file&gt; [--storage=&lt;engine&gt;]'
+ */
+public class HashDistributionBenchmark {
+    /**
+     * This field holds the greatest amount of music bands which are looked up by a scan, since every scan reads the whole collection.
+     */
+    private static final int SCAN_SAMPLE = 1000;
+
+    /**
+     * This method is the entry point of the benchmark.
+     * @param args the collection file and optionally the storage engine.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: HashDistributionBenchmark <file> [" + StorageEngineFactory.OPTION_PREFIX + "<engine>]");
+            return;
+        }
+        String engineName = StorageEngineFactory.DEFAULT_ENGINE;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].startsWith(StorageEngineFactory.OPTION_PREFIX)) {
+                engineName = args[i].substring(StorageEngineFactory.OPTION_PREFIX.length());
+            }
+        }
+        StorageEngine storageEngine = StorageEngineFactory.create(engineName, args[0], -1);
+        List<MusicBand> musicBands = new ArrayList<>(new FileContentValidator(storageEngine).validateFileContent(new IDRegistry()));
+        storageEngine.close();
+        System.out.println("Music bands: " + musicBands.size());
+        System.out.println("MusicBand.hashCode():      " + ContentHashIndex.describeDistribution(musicBands, MusicBand::hashCode));
+        System.out.println("Same sum without the ID:   " + ContentHashIndex.describeDistribution(musicBands, HashDistributionBenchmark::legacyContentHash));
+        System.out.println("ContentHashIndex hash:     " + ContentHashIndex.describeDistribution(musicBands, musicBand -> {
+            long hash = ContentHashIndex.contentHash(musicBand, 0, 0);
+            return (int) (hash ^ (hash >>> 32));
+        }));
+
+        ContentHashIndex contentHashIndex = new ContentHashIndex();
+        long start = System.nanoTime();
+        contentHashIndex.rebuild(musicBands);
+        long buildTime = System.nanoTime() - start;
+        start = System.nanoTime();
+        int indexedDuplicates = 0;
+        for (MusicBand musicBand : musicBands) {
+            indexedDuplicates += contentHashIndex.findDuplicate(musicBand) == null ? 0 : 1;
+        }
+        long indexTime = System.nanoTime() - start;
+        LinkedList<MusicBand> linkedList = new LinkedList<>(musicBands);
+        List<MusicBand> sample = musicBands.subList(0, Math.min(SCAN_SAMPLE, musicBands.size()));
+        start = System.nanoTime();
+        int scannedDuplicates = 0;
+        for (MusicBand musicBand : sample) {
+            scannedDuplicates += linkedList.stream().anyMatch(candidate -> ContentHashIndex.sameContent(candidate, musicBand)) ? 1 : 0;
+        }
+        long scanTime = System.nanoTime() - start;
+        System.out.printf(Locale.ROOT, "Index build: %.2f ms%n", buildTime / 1e6);
+        System.out.printf(Locale.ROOT, "Duplicate check by the index: %.3f us per band (%d found)%n", indexTime / 1e3 / Math.max(1, musicBands.size()), indexedDuplicates);
+        System.out.printf(Locale.ROOT, "Duplicate check by a scan:    %.3f us per band (%d of %d found)%n", scanTime / 1e3 / Math.max(1, sample.size()), scannedDuplicates, sample.size());
+    }
+
+    /**
+     * This method is used to calculate the sum of MusicBand.hashCode() without the ID and creation date, i.e. what a hash consistent with the content would be with the old field hashes.
+     * @param musicBand the music band.
+     * @return the hash.
+     */
+    private static int legacyContentHash(MusicBand musicBand) {
+        return musicBand.getName().hashCode()
+                - musicBand.getCoordinates().hashCode()
+                - musicBand.getNumberOfParticipants().hashCode()
+                + musicBand.getEstablishmentDate().hashCode()
+                - musicBand.getMusicGenre().hashCode()
+                + musicBand.getStudio().hashCode();
+    }
+}
@@ -1,11 +1,15 @@
 package server.ru.itmo.se;
 
+import common.ru.itmo.se.exceptions.InvalidInputException;
 import common.ru.itmo.se.utility.PrettyPrinter;
 import server.ru.itmo.se.commands.*;
+import server.ru.itmo.se.utility.BloomFilter;
 import server.ru.itmo.se.utility.CollectionManager;
-import server.ru.itmo.se.utility.FileManager;
 import server.ru.itmo.se.utility.CommandManager;
+import server.ru.itmo.se.utility.CommandScheduler;
 import server.ru.itmo.se.utility.RequestHandler;
+import server.ru.itmo.se.utility.StorageEngine;
+import server.ru.itmo.se.utility.StorageEngineFactory;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
@@ -24,6 +28,22 @@ public class App {
      * The server's file name argument.
      */
     public static String cliArgument = null;
+    /**
+     * The server's storage engine name. It is selected with the optional '--storage=&lt;name&gt;' argument.
+     */
+    public static String storageEngineName = StorageEngineFactory.DEFAULT_ENGINE;
+    /**
+     * The compression level of the snapshots. It is selected with the optional '--compression-level=&lt;0-9&gt;' argument.
+     */
+    public static int compressionLevel = -1;
+    /**
+     * The amount of reads which may overtake a queued write. It is selected with the optional '--read-overtake-limit=&lt;n&gt;' argument.
+     */
+    public static int readOvertakeLimit = CommandScheduler.DEFAULT_READ_OVERTAKE_LIMIT;
+    /**
+     * The target false positive rate of the collection's Bloom filters (0 disables them). It is selected with the optional '--bloom-fpp=&lt;rate&gt;' argument.
+     */
+    public static double bloomFalsePositiveRate = BloomFilter.DEFAULT_FALSE_POSITIVE_RATE;
     /**
      * The server's logging utility. It records every action.
      */
@@ -31,7 +51,7 @@ public class App {
 
     /**
      * The driver method used to start the server.
-     * @param args arguments provided from the user. In this case it's the port and the file name.
+     * @param args arguments provided from the user. In this case it's the file name, the port and optionally the storage engine, compression level and read overtake limit.
      */
     public static void main(String[] args) {
         if(args.length == 0) {
@@ -45,6 +65,40 @@ public class App {
                 System.exit(1);
             }
             PORT = Integer.parseInt(args[1]);
+            for (int i = 2; i < args.length; i++) {
+                if (args[i].startsWith(StorageEngineFactory.OPTION_PREFIX)) {
+                    storageEngineName = args[i].substring(StorageEngineFactory.OPTION_PREFIX.length());
+                } else if (args[i].startsWith(StorageEngineFactory.COMPRESSION_LEVEL_OPTION_PREFIX)) {
+                    try {
+                        compressionLevel = Integer.parseInt(args[i].substring(StorageEngineFactory.COMPRESSION_LEVEL_OPTION_PREFIX.length()));
+                    } catch (NumberFormatException e) {
+                        PrettyPrinter.printError("Compression level must be a number.");
+                        System.exit(1);
+                    }
+                } else if (args[i].startsWith(CommandScheduler.OPTION_PREFIX)) {
+                    try {
+                        readOvertakeLimit = Integer.parseInt(args[i].substring(CommandScheduler.OPTION_PREFIX.length()));
+                    } catch (NumberFormatException e) {
+                        PrettyPrinter.printError("Read overtake limit must be a number.");
+                        System.exit(1);
+                    }
+                    if (readOvertakeLimit < 0) {
+                        PrettyPrinter.printError("Read overtake limit cannot be negative.");
+                        System.exit(1);
+                    }
+                } else if (args[i].startsWith(BloomFilter.OPTION_PREFIX)) {
+                    try {
+                        bloomFalsePositiveRate = Double.parseDouble(args[i].substring(BloomFilter.OPTION_PREFIX.length()));
+                    } catch (NumberFormatException e) {
+                        PrettyPrinter.printError("Bloom filter false positive rate must be a number.");
+                        System.exit(1);
+                    }
+                    if (!(bloomFalsePositiveRate >= 0 && bloomFalsePositiveRate < 1)) {
+                        PrettyPrinter.printError("Bloom filter false positive rate must be at least 0 (disabled) and less than 1.");
+                        System.exit(1);
+                    }
+                }
+            }
             if(!file.isFile()) {
                 try {
                     if(file.createNewFile()) {
@@ -59,28 +113,46 @@ public class App {
                 }
             }
         }
-        FileManager fileManager = new FileManager(cliArgument);
-        CollectionManager collectionManager = new CollectionManager(fileManager);
+        StorageEngine storageEngine = null;
+        try {
+            storageEngine = StorageEngineFactory.create(storageEngineName, cliArgument, compressionLevel);
+        } catch (InvalidInputException e) {
+            PrettyPrinter.printError(e.getMessage());
+            System.exit(1);
+        }
+        logger.log(Level.INFO, "Using the '" + storageEngine.getName() + "' storage engine.");
+        Runtime.getRuntime().addShutdownHook(new Thread(storageEngine::close));
+        CollectionManager collectionManager = new CollectionManager(storageEngine, bloomFalsePositiveRate);
         CommandManager commandManager = new CommandManager(){{
             addCommand("add", new Add(collectionManager));
+            addCommand("add_batch", new AddBatch(collectionManager));
             addCommand("clear", new Clear(collectionManager));
             addCommand("execute_script", new ExecuteScript());
             addCommand("exit", new Exit(collectionManager));
             addCommand("filter_less_than_number_of_participants", new FilterLessThanNumberOfParticipants(collectionManager));
+            addCommand("find_by_name", new FindByName(collectionManager));
             addCommand("group_counting_by_establishment_date", new GroupCountingByEstablishmentDate(collectionManager));
             addCommand("help", new Help(this));
             addCommand("history", new History(this));
             addCommand("info", new Info(collectionManager));
+            addCommand("nearest", new Nearest(collectionManager));
             addCommand("print_field_descending_establishment_date", new PrintFieldDescendingEstablishmentDate(collectionManager));
+            addCommand("query", new Query(collectionManager));
             addCommand("remove_at", new RemoveAt(collectionManager));
             addCommand("remove_by_id", new RemoveByID(collectionManager));
+            addCommand("remove_where", new RemoveWhere(collectionManager));
+            addCommand("sample", new Sample(collectionManager));
             addCommand("save", new Save(collectionManager));
             addCommand("show", new Show(collectionManager));
             addCommand("shuffle", new Shuffle(collectionManager));
             addCommand("update", new UpdateID(collectionManager));
+            addCommand("update_batch", new UpdateBatch(collectionManager));
+            addCommand("within_box", new WithinBox(collectionManager));
+            addCommand("within_radius", new WithinRadius(collectionManager));
         }};
-        RequestHandler requestHandler = new RequestHandler(commandManager);
+        RequestHandler requestHandler = new RequestHandler(commandManager, collectionManager, new CommandScheduler(readOvertakeLimit));
         Server server = new Server(PORT, requestHandler);
+        collectionManager.loadCollectionInBackground();
         server.run();
     }
 }
\ No newline at end of file
@@ -1,19 +1,29 @@
 package server.ru.itmo.se;
 
 import common.ru.itmo.se.exceptions.OpeningServerSocketException;
+import common.ru.itmo.se.exceptions.ResponseTooLargeException;
 import common.ru.itmo.se.interaction.Request;
 import common.ru.itmo.se.interaction.Response;
+import common.ru.itmo.se.interaction.ResponseCode;
 import common.ru.itmo.se.utility.PrettyPrinter;
+import server.ru.itmo.se.utility.BufferPool;
 import server.ru.itmo.se.utility.RequestHandler;
+import server.ru.itmo.se.utility.ResponseCache;
+import server.ru.itmo.se.utility.ResponseAppender;
 
 import java.io.*;
 import java.net.*;
 import java.nio.ByteBuffer;
 import java.nio.channels.*;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.*;
 
 /**
@@ -33,14 +43,37 @@ public class Server {
      * This field holds a Selector which enable the server to work with multiple clients simultaneously in a single thread.
      */
     private Selector serverSelector;
+
+    /**
+     * This field holds the maximum size of a single request. Script batches are the largest requests.
+     */
+    private static final int MAX_REQUEST_LENGTH = 16 * 1024 * 1024;
+    /**
+     * This field holds the maximum size of the serialized header of a response, which carries its typed payload.
+     * A larger payload is dropped and replaced with an error, just like a text body which is too long is truncated.
+     */
+    private static final int MAX_HEADER_LENGTH = 32 * 1024 * 1024;
     /**
-     * This field holds a request from the client-side.
+     * This field holds the space which is reserved for the header when a frame's buffer is taken from the pool. The buffer grows if the header needs more.
      */
-    private Request requestFromUser;
+    private static final int INITIAL_HEADER_CAPACITY = 4096;
     /**
-     * This field holds the request that's about to be sent to the client.
+     * This field holds the threads on which requests are handled. The scheduler decides which of them may run at the same time.
      */
-    private Response responseToUser;
+    private final ExecutorService workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "request-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    /**
+     * This field holds the actions which the selector thread has to perform for the responses the workers have finished.
+     */
+    private final Queue<Runnable> completedResponses = new ConcurrentLinkedQueue<>();
 
     /**
      * Constructs a Server with the specified port and request handler.
@@ -53,13 +86,18 @@ public class Server {
     }
     /**
      * This method acts as a driver to initiate a connection with the client.<p>
-     * It uses a set of selector keys to interact with the chosen clients, where each of them are granted READ, WRITE and ACCEPT permissions.
+     * It uses a set of selector keys to interact with the chosen clients, where each of them are granted READ, WRITE and ACCEPT permissions.<p>
+     * The selector thread only reads and writes; the requests themselves are handled by a pool of worker threads.
      */
     public void run() {
         try {
             openServerSocketChannel();
             while (true) {
                 serverSelector.select();
+                Runnable completedResponse;
+                while ((completedResponse = completedResponses.poll()) != null) {
+                    completedResponse.run();
+                }
                 Iterator<SelectionKey> selectedKeys = serverSelector.selectedKeys().iterator();
                 while (selectedKeys.hasNext()) {
                     SelectionKey key = selectedKeys.next();
@@ -76,47 +114,39 @@ public class Server {
                             }
                             if (key.isReadable()) {
                                 SocketChannel clientChannel = (SocketChannel) key.channel();
-                                clientChannel.configureBlocking(false);
-                                ByteBuffer clientData = ByteBuffer.allocate(4096);
-                                App.logger.log(Level.INFO, clientChannel.read(clientData) + " bytes has been received.");
-                                try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(clientData.array());
-                                     ObjectInputStream clientDataIn = new ObjectInputStream(byteArrayInputStream)) {
-                                    requestFromUser = (Request) clientDataIn.readObject();
+                                Request requestFromUser = null;
+                                try {
+                                    requestFromUser = readRequest(key, clientChannel);
                                 } catch (StreamCorruptedException e) {
-                                    e.printStackTrace();
                                     App.logger.log(Level.SEVERE, e.getMessage() + " " + Arrays.toString(e.getStackTrace()));
                                     key.cancel();
+                                    clientChannel.close();
                                 }
                                 if (requestFromUser != null) {
-                                    responseToUser = requestHandler.handle(requestFromUser);
-                                    App.logger.log(Level.INFO, "A new request: " + requestFromUser.getCommandName() + " " + requestFromUser.getCommandStrArg() + " " + requestFromUser.getCommandObjArg() + " has been successfully processed.");
-                                    clientChannel.register(serverSelector, SelectionKey.OP_WRITE);
+                                    key.interestOps(0);
+                                    dispatch(key, requestFromUser);
                                 }
                             }
-                            if (key.isWritable()) {
+                            if (key.isValid() && key.isWritable()) {
                                 SocketChannel clientChannel = (SocketChannel) key.channel();
-                                clientChannel.configureBlocking(false);
-                                try (ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-                                     ObjectOutputStream clientDataOut = new ObjectOutputStream(bytes)) {
-                                    clientDataOut.writeObject(responseToUser);
-
-                                    ByteBuffer clientData = ByteBuffer.wrap(bytes.toByteArray());
-                                    ByteBuffer dataLen = ByteBuffer.allocate(64).putInt(clientData.limit());
-                                    dataLen.flip();
-
-                                    clientChannel.write(dataLen);
-                                    App.logger.log(Level.INFO, "Response length: " + dataLen.limit());
-                                    clientChannel.write(clientData);
-                                    App.logger.log(Level.INFO, "Response has been successfully sent to the client.");
-                                    clientData.clear();
+                                ByteBuffer frame = (ByteBuffer) key.attachment();
+                                clientChannel.write(frame);
+                                if (!frame.hasRemaining()) {
+                                    App.logger.log(Level.INFO, "Response of " + frame.limit() + " bytes has been successfully sent to the client.");
+                                    BufferPool.releaseBytes(frame);
                                     PrettyPrinter.println("=".repeat(60));
+                                    key.attach(null);
+                                    key.interestOps(SelectionKey.OP_READ);
                                 }
-                                clientChannel.register(serverSelector, SelectionKey.OP_READ);
                             }
                         }
                     } catch (SocketException | CancelledKeyException e) {
                         App.logger.log(Level.WARNING, "The client '" + key.channel().toString() + "' has disconnected.");
+                        if (key.attachment() instanceof ByteBuffer frame) {
+                            BufferPool.releaseBytes(frame);
+                        }
                         key.cancel();
+                        key.channel().close();
                     }
                     selectedKeys.remove();
                 }
@@ -134,6 +164,143 @@ public class Server {
         }
     }
 
+    /**
+     * This method is used to handle a request on one of the worker threads. The key doesn't wait for anything while the request is handled,
+     * and once the response is encoded, the selector thread is woken up to start writing it.
+     * The responses of cacheable commands are kept encoded, so an identical request for the same version of the collection is answered with the cached frame.
+     * @param key     the client's key.
+     * @param request the client's request.
+     */
+    private void dispatch(SelectionKey key, Request request) {
+        workers.execute(() -> {
+            ResponseAppender responseAppender = ResponseAppender.acquire();
+            try {
+                ResponseCache.Key cacheKey = requestHandler.getCacheKey(request);
+                ByteBuffer cachedFrame = cacheKey == null ? null : requestHandler.findCachedFrame(request, cacheKey);
+                ByteBuffer frame;
+                if (cachedFrame != null) {
+                    App.logger.log(Level.INFO, "A new request: " + request.getCommandName() + " " + request.getCommandStrArg() + " has been answered from the cache.");
+                    frame = cachedFrame;
+                } else {
+                    ResponseCode responseCode = requestHandler.handle(request, responseAppender);
+                    App.logger.log(Level.INFO, "A new request: " + request.getCommandName() + " " + request.getCommandStrArg() + " " + request.getCommandObjArg() + " has been successfully processed.");
+                    frame = encodeFrame(responseCode, responseAppender);
+                    if (cacheKey != null && responseCode == ResponseCode.OK) {
+                        requestHandler.cacheFrame(cacheKey, frame);
+                    }
+                }
+                completedResponses.add(() -> {
+                    if (key.isValid()) {
+                        key.attach(frame);
+                        key.interestOps(SelectionKey.OP_WRITE);
+                    } else {
+                        BufferPool.releaseBytes(frame);
+                    }
+                });
+            } catch (IOException | RuntimeException | OutOfMemoryError e) {
+                App.logger.log(Level.SEVERE, "The request " + request + " cannot be handled: " + e);
+                completedResponses.add(() -> {
+                    key.cancel();
+                    try {
+                        key.channel().close();
+                    } catch (IOException ignored) {
+                    }
+                });
+            } finally {
+                responseAppender.release();
+            }
+            serverSelector.wakeup();
+        });
+    }
+
+    /**
+     * This method is used to read a request frame: its length followed by the serialized request.
+     * A request may arrive in several parts, so the part that has been read so far is kept as the key's attachment until the request is complete.
+     * @param key           the client's key.
+     * @param clientChannel the client's channel.
+     * @return the request, <p>null if it hasn't been received completely yet.
+     * @throws IOException            if the connection is broken or the frame is invalid.
+     * @throws ClassNotFoundException if the request cannot be deserialized.
+     */
+    private Request readRequest(SelectionKey key, SocketChannel clientChannel) throws IOException, ClassNotFoundException {
+        PendingRequest pendingRequest = (PendingRequest) key.attachment();
+        if (pendingRequest == null) {
+            pendingRequest = new PendingRequest();
+            key.attach(pendingRequest);
+        }
+        if (pendingRequest.body == null) {
+            if (clientChannel.read(pendingRequest.length) < 0) {
+                throw new SocketException("The connection has been closed by the client.");
+            }
+            if (pendingRequest.length.hasRemaining()) {
+                return null;
+            }
+            int requestLength = pendingRequest.length.getInt(0);
+            if (requestLength <= 0 || requestLength > MAX_REQUEST_LENGTH) {
+                throw new StreamCorruptedException("Invalid request length: " + requestLength);
+            }
+            pendingRequest.body = ByteBuffer.allocate(requestLength);
+        }
+        if (clientChannel.read(pendingRequest.body) < 0) {
+            throw new SocketException("The connection has been closed by the client.");
+        }
+        if (pendingRequest.body.hasRemaining()) {
+            return null;
+        }
+        key.attach(null);
+        App.logger.log(Level.INFO, pendingRequest.body.limit() + " bytes has been received.");
+        try (ObjectInputStream clientDataIn = new ObjectInputStream(new ByteArrayInputStream(pendingRequest.body.array()))) {
+            return (Request) clientDataIn.readObject();
+        }
+    }
+
+    /**
+     * This method is used to encode a response into a frame: its total length, the length of the serialized header (the response code and the typed payload), the header itself and the UTF-8 body.
+     * If the header exceeds MAX_HEADER_LENGTH, the payload is dropped and the response becomes an error which asks for a smaller result.
+     * @param responseCode     the response code.
+     * @param responseAppender the response of the request.
+     * @return the frame, ready to be written to the channel.
+     * @throws IOException if the header cannot be serialized.
+     */
+    private ByteBuffer encodeFrame(ResponseCode responseCode, ResponseAppender responseAppender) throws IOException {
+        try {
+            return writeFrame(new Response(responseCode, null, responseAppender.getPayload()), responseAppender);
+        } catch (ResponseTooLargeException e) {
+            App.logger.log(Level.WARNING, e.getMessage());
+            responseAppender.appendError("The response is too large to be sent (more than " + MAX_HEADER_LENGTH / (1024 * 1024) + " MiB of data). Please request it by pages or with a limit.");
+            return writeFrame(new Response(ResponseCode.ERROR, null, null), responseAppender);
+        }
+    }
+
+    /**
+     * This method is used to write a frame. Both the header and the body are written straight into a pooled byte buffer, so neither of them is copied through an intermediate array or string.
+     * @param header           the response's header.
+     * @param responseAppender the response of the request.
+     * @return the frame, ready to be written to the channel.
+     * @throws IOException                if the header cannot be serialized.
+     * @throws ResponseTooLargeException if the header exceeds MAX_HEADER_LENGTH.
+     */
+    private ByteBuffer writeFrame(Response header, ResponseAppender responseAppender) throws IOException {
+        FrameOutputStream frameOut = new FrameOutputStream(BufferPool.acquireBytes(2 * Integer.BYTES + INITIAL_HEADER_CAPACITY + responseAppender.maxEncodedLength()),
+                2 * Integer.BYTES + MAX_HEADER_LENGTH);
+        try {
+            frameOut.buffer.position(2 * Integer.BYTES);
+            try (ObjectOutputStream headerOut = new ObjectOutputStream(frameOut)) {
+                headerOut.writeObject(header);
+            }
+            int headerLength = frameOut.buffer.position() - 2 * Integer.BYTES;
+            ByteBuffer frame = frameOut.reserve(responseAppender.maxEncodedLength());
+            frame.putInt(Integer.BYTES, headerLength);
+            responseAppender.encodeTo(frame);
+            frame.putInt(0, frame.position() - Integer.BYTES);
+            frame.flip();
+            return frame;
+        } catch (IOException | RuntimeException e) {
+            BufferPool.releaseBytes(frameOut.buffer);
+            throw e;
+        }
+    }
+
     /**
      * This method is used to open a ServerSocketChannel connection.
      */
@@ -157,5 +324,93 @@ public class Server {
             throw new OpeningServerSocketException("The port '" + port + "' is outside the allowed range.", new RuntimeException());
         }
     }
-}
 
+    /**
+     * Output stream which writes into a pooled byte buffer. When the buffer is full, a larger one is taken from the pool, but never beyond the stream's limit.
+     */
+    private static final class FrameOutputStream extends OutputStream {
+        /**
+         * This field holds the buffer which is being written.
+         */
+        private ByteBuffer buffer;
+        /**
+         * This field holds the position beyond which nothing can be written through the stream.
+         */
+        private final int limit;
+
+        /**
+         * Constructs a FrameOutputStream over the specified buffer.
+         * @param buffer the buffer to be written, positioned where the stream starts.
+         * @param limit  the position beyond which nothing can be written.
+         */
+        FrameOutputStream(ByteBuffer buffer, int limit) {
+            this.buffer = buffer;
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureWritable(1);
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureWritable(len);
+            buffer.put(b, off, len);
+        }
+
+        /**
+         * This method is used to make room after the written bytes regardless of the limit.
+         * @param length the amount of bytes which are going to be written.
+         * @return the buffer with at least the given amount of bytes remaining.
+         */
+        ByteBuffer reserve(int length) {
+            if (buffer.remaining() < length) {
+                grow((long) buffer.position() + length);
+            }
+            return buffer;
+        }
+
+        /**
+         * This method is used to make room for the bytes which are going to be written through the stream.
+         * @param length the amount of bytes.
+         * @throws ResponseTooLargeException if the bytes would exceed the limit.
+         */
+        private void ensureWritable(int length) {
+            if (buffer.remaining() >= length) {
+                return;
+            }
+            long required = (long) buffer.position() + length;
+            if (required > limit) {
+                throw new ResponseTooLargeException("The response's header exceeds " + limit + " bytes.", new RuntimeException());
+            }
+            grow(Math.min(limit, Math.max(required, 2L * buffer.capacity())));
+        }
+
+        /**
+         * This method replaces the buffer with a larger one from the pool and returns the old one.
+         * @param capacity the required capacity.
+         */
+        private void grow(long capacity) {
+            ByteBuffer grown = BufferPool.acquireBytes(Math.toIntExact(capacity));
+            grown.put(buffer.flip());
+            BufferPool.releaseBytes(buffer);
+            buffer = grown;
+        }
+    }
+
+    /**
+     * Class which holds the part of a request that has been received so far.
+     */
+    private static final class PendingRequest {
+        /**
+         * This field holds the request's length.
+         */
+        private final ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        /**
+         * This field holds the serialized request, <p>null until its length has been read.
+         */
+        private ByteBuffer body;
+    }
+}
@@ -0,0 +1,36 @@
+package server.ru.itmo.se.commands;
+
+/**
+ * This enum represents the ways in which a command accesses the collection. The scheduler decides by it which commands may run at the same time.
+ */
+public enum AccessMode {
+    /**
+     * This value represents commands which only read the collection. They may run concurrently with each other.
+     */
+    READ,
+    /**
+     * This value represents commands which change the collection. They run exclusively.
+     */
+    WRITE,
+    /**
+     * This value represents administrative commands, e.g. saving the collection or stopping the server. They run exclusively.
+     */
+    ADMIN;
+
+    /**
+     * This method is used to combine two modes, e.g. for the commands of a script batch.
+     * @param other the other mode.
+     * @return the stricter of the two modes.
+     */
+    public AccessMode combine(AccessMode other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    /**
+     * This method is used to check whether commands of this mode must run alone.
+     * @return true for WRITE and ADMIN, <p>false for READ.
+     */
+    public boolean isExclusive() {
+        return this != READ;
+    }
+}
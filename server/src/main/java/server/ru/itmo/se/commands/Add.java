@@ -13,7 +13,7 @@ import java.time.Instant;
 import java.util.Date;
 
 /**
- * This class implements the command add. It adds a new element to the collection.
+ * This class implements the command add. It adds a new element to the collection, unless an element with the same content is already there.
  * -- TOSTRING --
  * This method is a custom implementation of the toString() method in the add class.
  */
@@ -38,16 +38,17 @@ public class Add extends CommandImpl {
      * This method is an implementation of the abstract apply() method for the add command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (necessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg == null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
             MusicBandRaw musicBandRaw = (MusicBandRaw) commandObjArg;
-            collectionManager.addToCollection(new MusicBand(
+            MusicBand musicBand = new MusicBand(
                     collectionManager.generateNextID(),
                     musicBandRaw.getName(),
                     musicBandRaw.getCoordinates(),
@@ -56,14 +57,22 @@ public class Add extends CommandImpl {
                     musicBandRaw.getEstablishmentDate(),
                     musicBandRaw.getMusicGenre(),
                     musicBandRaw.getStudio()
-            ));
-            ResponseAppender.appendln("\u001b[3m" + "\"A fine addition to my collection.\" — General Grievous" + "\u001b[0m");
-            collectionManager.saveCollection();
+            );
+            MusicBand duplicate = collectionManager.findDuplicate(musicBand);
+            if (duplicate != null) {
+                responseAppender.appendError("This music band is already in the collection (ID " + duplicate.getId() + ").");
+                return false;
+            }
+            collectionManager.addToCollection(musicBand);
+            responseAppender.appendln("\"A fine addition to my collection.\" — General Grievous");
+            if (!collectionManager.persistChanges()) {
+                responseAppender.appendError("The change cannot be saved. See the server's log for details.");
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         } catch (IncorrectScriptException e) {
-            ResponseAppender.appendError("Execution error: Please debug your script.");
+            responseAppender.appendError("Execution error: Please debug your script.");
         }
         return false;
     }
@@ -0,0 +1,99 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.MusicBandRaw;
+import common.ru.itmo.se.utility.FieldValidator;
+import lombok.ToString;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * This class implements the command add_batch. It adds many new elements sent in a single request, skipping the invalid ones and the ones already in the collection.
+ * The whole batch is applied under one lock acquisition, its IDs are taken from one block and the changes are persisted once, so an import doesn't pay a round trip and a save per element.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the add_batch class.
+ */
+@ToString
+public class AddBatch extends CommandImpl {
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Constructs an add_batch with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public AddBatch(CollectionManager collectionManager) {
+        super("add_batch", "<count> {element} ...", "Adds count new elements to the collection at once and outputs the result of each one", CommandType.WITH_ARGS_FORM);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the add_batch command.
+     * @param commandStrArg the command's string argument (the amount of elements).
+     * @param commandObjArg the command's object argument (necessary, an array of MusicBandRaw).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            if (!(commandObjArg instanceof MusicBandRaw[] musicBandRaws)) {
+                throw new InvalidArgumentCountException("You need elements here.", new RuntimeException());
+            }
+            if (musicBandRaws.length == 0 || musicBandRaws.length > MusicBandRaw.MAX_BATCH_SIZE) {
+                throw new ValueRangeException("A batch must contain between 1 and " + MusicBandRaw.MAX_BATCH_SIZE + " elements.", new RuntimeException());
+            }
+            int nextID = collectionManager.generateNextID();
+            int added = 0;
+            List<String[]> rows = new ArrayList<>(musicBandRaws.length);
+            for (int i = 0; i < musicBandRaws.length; i++) {
+                MusicBandRaw musicBandRaw = musicBandRaws[i];
+                MusicBand musicBand = musicBandRaw == null ? null : new MusicBand(
+                        nextID,
+                        musicBandRaw.getName(),
+                        musicBandRaw.getCoordinates(),
+                        Date.from(Instant.now()),
+                        musicBandRaw.getNumberOfParticipants(),
+                        musicBandRaw.getEstablishmentDate(),
+                        musicBandRaw.getMusicGenre(),
+                        musicBandRaw.getStudio()
+                );
+                String violation = musicBand == null ? "element" : FieldValidator.checkMusicBand(musicBand);
+                if (violation != null) {
+                    rows.add(new String[]{String.valueOf(i + 1), "", "invalid " + violation});
+                    continue;
+                }
+                MusicBand duplicate = collectionManager.findDuplicate(musicBand);
+                if (duplicate != null) {
+                    rows.add(new String[]{String.valueOf(i + 1), "", "duplicate of ID " + duplicate.getId()});
+                    continue;
+                }
+                collectionManager.addToCollection(musicBand);
+                rows.add(new String[]{String.valueOf(i + 1), String.valueOf(nextID++), "added"});
+                added++;
+            }
+            responseAppender.appendRows(List.of("item", "id", "result"), rows);
+            responseAppender.appendln(added + " of " + musicBandRaws.length + " music bands have been added.");
+            if (added > 0 && !collectionManager.persistChanges()) {
+                responseAppender.appendError("The changes cannot be saved. See the server's log for details.");
+            }
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (ValueRangeException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+}
@@ -34,10 +34,11 @@ public class Clear extends CommandImpl {
      *
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
@@ -46,12 +47,15 @@ public class Clear extends CommandImpl {
                 throw new EmptyCollectionException("Empty collection.", new RuntimeException());
             }
             collectionManager.clearCollection();
-            ResponseAppender.appendln("Collection successfully cleared.");
+            responseAppender.appendln("Collection successfully cleared.");
+            if (!collectionManager.commitChanges()) {
+                responseAppender.appendError("The change cannot be saved. See the server's log for details.");
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         }
         return false;
     }
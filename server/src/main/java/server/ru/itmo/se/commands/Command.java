@@ -1,5 +1,7 @@
 package server.ru.itmo.se.commands;
 
+import server.ru.itmo.se.utility.ResponseAppender;
+
 /**
  * Primordial interface used for all commands.
  * The interface follows the command design pattern.
@@ -22,7 +24,8 @@ public interface Command {
      * Abstract method used for executing a command.
      * @param commandStrArg command's string argument.
      * @param commandObjArg command's object argument.
+     * @param responseAppender response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
-    boolean apply(String commandStrArg, Object commandObjArg);
+    boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender);
 }
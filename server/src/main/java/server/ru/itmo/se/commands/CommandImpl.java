@@ -28,6 +28,31 @@ public abstract class CommandImpl implements Command {
      *
      */
     private final CommandType commandType;
+
+    /**
+     * This method determines whether the command needs the collection to be loaded before it can be executed.
+     * @return true by default, <p>false for commands that can be served while the collection is still loading.
+     */
+    public boolean requiresCollection() {
+        return true;
+    }
+
+    /**
+     * This method determines how the command accesses the collection, so the scheduler knows which commands may run at the same time.
+     * @return WRITE by default, <p>READ for commands which don't change anything, <p>ADMIN for commands which manage the server's state.
+     */
+    public AccessMode getAccessMode() {
+        return AccessMode.WRITE;
+    }
+
+    /**
+     * This method determines whether the command's response may be kept and sent again while the collection doesn't change.
+     * @return false by default, <p>true for read-only commands whose response depends on nothing but the collection and the argument.
+     */
+    public boolean isCacheable() {
+        return false;
+    }
+
     /**
      * This method is a custom implementation of the hashCode() method.
      * @return hash code of a command instance.
@@ -18,23 +18,42 @@ public class ExecuteScript extends CommandImpl {
     public ExecuteScript() {
         super("execute_script", "<file_name>", "Executes a script from a given file", CommandType.WITH_ARGS);
     }
+    /**
+     * This method tells that the command can be executed while the collection is still loading.
+     * @return false.
+     */
+    @Override
+    public boolean requiresCollection() {
+        return false;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the execute_script command.
      *
      * @param commandStrArg the command's string argument (necessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
             }
-            ResponseAppender.appendln("Executing script '" + commandStrArg + "' right now...");
+            responseAppender.appendln("Executing script '" + commandStrArg + "' right now...");
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         }
         return false;
     }
@@ -1,12 +1,18 @@
 package server.ru.itmo.se.commands;
 
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
 import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.PageRequest;
 import lombok.ToString;
 import common.ru.itmo.se.exceptions.EmptyCollectionException;
 import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
 import server.ru.itmo.se.utility.CollectionManager;
 import server.ru.itmo.se.utility.ResponseAppender;
 
+import java.util.List;
+
 /**
  * This class implements the command filter_less_than_number_of_participants (handful, I know). It outputs all the elements with a fewer number of participants than given.
  * -- TOSTRING --
@@ -29,16 +35,26 @@ public class FilterLessThanNumberOfParticipants extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the filter_less_than_number_of_participants command.
      * @param commandStrArg the command's string argument (necessary).
-     * @param commandObjArg the command's object argument (unnecessary).
+     * @param commandObjArg the command's object argument (unnecessary, a PageRequest if only a page is needed).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
-            if (commandStrArg.isEmpty() || commandObjArg != null) {
+            if (commandStrArg.isEmpty() || commandObjArg != null && !(commandObjArg instanceof PageRequest)) {
                 throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
             }
             if (collectionManager.collectionSize() == 0) {
@@ -48,19 +64,23 @@ public class FilterLessThanNumberOfParticipants extends CommandImpl {
             if (numberOfParticipants <= 0L) {
                 throw new IllegalArgumentException("Why are you expecting a negative number of participants?", new RuntimeException());
             }
-            String filteredInfo = collectionManager.musicBandParticipantsFilteredInfo(numberOfParticipants);
-            if (filteredInfo.isEmpty()) {
-                ResponseAppender.appendln("No music bands with less than " + numberOfParticipants + " participants has been found.");
+            List<MusicBand> filtered = commandObjArg instanceof PageRequest pageRequest
+                    ? collectionManager.page(getName() + " " + numberOfParticipants, pageRequest, () -> collectionManager.musicBandParticipantsFiltered(numberOfParticipants), responseAppender)
+                    : collectionManager.musicBandParticipantsFiltered(numberOfParticipants);
+            if (filtered.isEmpty()) {
+                responseAppender.appendln("No music bands with less than " + numberOfParticipants + " participants has been found.");
             } else {
-                ResponseAppender.appendln(filteredInfo);
+                responseAppender.appendMusicBands(filtered);
                 return true;
             }
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
+        } catch (ValueRangeException | InvalidCursorException e) {
+            responseAppender.appendError(e.getMessage());
         } catch (IllegalArgumentException e) {
-            ResponseAppender.appendError("Why are you expecting a negative number of participants?");
+            responseAppender.appendError("Why are you expecting a negative number of participants?");
         }
         return false;
     }
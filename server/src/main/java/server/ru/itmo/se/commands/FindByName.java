@@ -0,0 +1,76 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.interaction.CommandType;
+import lombok.ToString;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements the command find_by_name. It outputs the IDs and names of the elements whose names contain the given text (case-insensitive),
+ * the ones starting with it first, so it can answer search-as-you-type.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the find_by_name class.
+ */
+@ToString
+public class FindByName extends CommandImpl {
+    /**
+     * This field holds the greatest amount of matches which are output.
+     */
+    private static final int TOP_MATCHES = 20;
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Constructs a find_by_name with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public FindByName(CollectionManager collectionManager) {
+        super("find_by_name", "<name_part>", "Outputs the IDs of the first " + TOP_MATCHES + " elements whose names contain the text, the ones starting with it first", CommandType.WITH_ARGS);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the find_by_name command.
+     * @param commandStrArg the command's string argument (necessary).
+     * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            if (commandStrArg.isEmpty() || commandObjArg != null) {
+                throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
+            }
+            List<MusicBand> matches = collectionManager.getQueryPlanner().getNameIndex().search(commandStrArg, TOP_MATCHES);
+            if (matches.isEmpty()) {
+                responseAppender.appendln("No music bands with '" + commandStrArg + "' in their names have been found.");
+                return true;
+            }
+            List<String[]> rows = new ArrayList<>(matches.size());
+            matches.forEach(musicBand -> rows.add(new String[]{String.valueOf(musicBand.getId()), musicBand.getName()}));
+            responseAppender.appendRows(List.of("id", "name"), rows);
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        }
+        return false;
+    }
+}
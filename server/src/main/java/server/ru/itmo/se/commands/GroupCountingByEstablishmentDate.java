@@ -29,14 +29,33 @@ public class GroupCountingByEstablishmentDate extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method tells that the command's response only changes with the collection.
+     * @return true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the group_counting_by_establishment_date command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
@@ -44,12 +63,12 @@ public class GroupCountingByEstablishmentDate extends CommandImpl {
             if (collectionManager.collectionSize() == 0) {
                 throw new EmptyCollectionException("Empty collection.", new RuntimeException());
             }
-            collectionManager.groupCountingByEstablishmentDate();
+            collectionManager.groupCountingByEstablishmentDate(responseAppender);
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: " + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: " + getName() + " " + getUsage() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         }
         return false;
     }
@@ -26,24 +26,43 @@ public class Help extends CommandImpl {
         this.commandManager = commandManager;
     }
 
+    /**
+     * This method tells that the command can be executed while the collection is still loading.
+     * @return false.
+     */
+    @Override
+    public boolean requiresCollection() {
+        return false;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the Help command.
      *
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
-            ResponseAppender.appendTable("               COMMAND NAME", "    COMMAND ARGUMENT", "                            COMMAND SPECIFICATION");
-            commandManager.commandMap.values().forEach(command -> ResponseAppender.appendTable(command.getName(), command.getUsage(), command.getSpec()));
+            responseAppender.appendTable("               COMMAND NAME", "    COMMAND ARGUMENT", "                            COMMAND SPECIFICATION");
+            commandManager.commandMap.values().forEach(command -> responseAppender.appendTable(command.getName(), command.getUsage(), command.getSpec()));
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         }
         return false;
     }
@@ -26,30 +26,50 @@ public class History extends CommandImpl {
         super("history", "", "Outputs the 10 last used commands", CommandType.WITHOUT_ARGS);
         this.commandManager = commandManager;
     }
+    /**
+     * This method tells that the command can be executed while the collection is still loading.
+     * @return false.
+     */
+    @Override
+    public boolean requiresCollection() {
+        return false;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the History command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
-            if (commandManager.commandHistory[0] == null) {
+            String[] commandHistory = commandManager.getHistorySnapshot();
+            if (commandHistory[0] == null) {
                 throw new EmptyHistoryException("You just started this session, of course the history is empty.", new RuntimeException());
             }
-            ResponseAppender.appendln("Recently used 10 commands:");
-            for (String s : commandManager.commandHistory) {
-                if (s != null) ResponseAppender.appendln(" " + s);
+            responseAppender.appendln("Recently used 10 commands:");
+            for (String s : commandHistory) {
+                if (s != null) responseAppender.appendln(" " + s);
             }
             return true;
         } catch (EmptyHistoryException e) {
-            ResponseAppender.appendError("Not a single command was executed yet.");
+            responseAppender.appendError("Not a single command was executed yet.");
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
         }
         return false;
     }
@@ -30,14 +30,33 @@ public class Info extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command can be executed while the collection is still loading.
+     * @return false.
+     */
+    @Override
+    public boolean requiresCollection() {
+        return false;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the Info command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
@@ -46,14 +65,19 @@ public class Info extends CommandImpl {
             String strLastInitTime = (lastInitTime == null) ? "Initialization has not happened yet." : lastInitTime.toLocalDate().toString() + " " + lastInitTime.toLocalTime().toString();
             LocalDateTime lastSaveTime = collectionManager.getLastSaveTime();
             String strLastSaveTime = (lastSaveTime == null) ? "You haven't saved yet during this session." : lastSaveTime.toLocalDate().toString() + " " + lastSaveTime.toLocalTime().toString();
-            ResponseAppender.appendln("Information about this collection:");
-            ResponseAppender.appendln("Collection type: " + collectionManager.getCollectionType());
-            ResponseAppender.appendln("Number of elements: " + collectionManager.collectionSize());
-            ResponseAppender.appendln("Last saved: " + strLastSaveTime);
-            ResponseAppender.appendln("Last session: " + strLastInitTime);
+            responseAppender.appendln("Information about this collection:");
+            responseAppender.appendField("Loading", collectionManager.describeLoadProgress());
+            responseAppender.appendField("Collection type", collectionManager.getCollectionType());
+            responseAppender.appendField("Number of elements", collectionManager.collectionSize());
+            responseAppender.appendField("Storage engine", collectionManager.getStorageEngine().getName());
+            responseAppender.appendField("Storage metrics", collectionManager.getStorageEngine().describeMetrics());
+            responseAppender.appendField("Response cache", collectionManager.getResponseCache().describeMetrics());
+            collectionManager.describeFilters().forEach(responseAppender::appendField);
+            responseAppender.appendField("Last saved", strLastSaveTime);
+            responseAppender.appendField("Last session", strLastInitTime);
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: " + getName() + " " + getUsage() + "'");
+            responseAppender.appendln("Usage: " + getName() + " " + getUsage() + "'");
         }
         return false;
     }
@@ -0,0 +1,46 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import lombok.ToString;
+import server.ru.itmo.se.query.SpatialIndex;
+import server.ru.itmo.se.utility.CollectionManager;
+
+import java.util.List;
+
+/**
+ * This class implements the command nearest. It outputs the k elements nearest to a point, the nearest first.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the nearest class.
+ */
+@ToString
+public class Nearest extends SpatialCommand {
+    /**
+     * This field holds the greatest amount of music bands which can be requested at once.
+     */
+    private static final int MAX_K = 10000;
+
+    /**
+     * Constructs a nearest with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public Nearest(CollectionManager collectionManager) {
+        super("nearest", "<k> <x> <y>", "Outputs k elements nearest to the point, the nearest first", collectionManager);
+    }
+
+    /**
+     * This method is used to find the music bands nearest to the point.
+     * @param spatialIndex the index of the coordinates.
+     * @param arguments    the amount of music bands and the point's X and Y.
+     * @return the nearest music bands.
+     * @throws ValueRangeException if the amount isn't a whole number between 1 and 10000.
+     */
+    @Override
+    protected List<MusicBand> find(SpatialIndex spatialIndex, double[] arguments) throws ValueRangeException {
+        if (arguments[0] < 1 || arguments[0] > MAX_K || arguments[0] != Math.rint(arguments[0])) {
+            throw new ValueRangeException("k must be a whole number between 1 and " + MAX_K + ".", new RuntimeException());
+        }
+        return spatialIndex.nearest(arguments[1], arguments[2], (int) arguments[0]);
+    }
+}
@@ -1,12 +1,18 @@
 package server.ru.itmo.se.commands;
 
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
 import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.PageRequest;
 import lombok.ToString;
 import common.ru.itmo.se.exceptions.EmptyCollectionException;
 import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
 import server.ru.itmo.se.utility.CollectionManager;
 import server.ru.itmo.se.utility.ResponseAppender;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * This class implements the command print_field_descending_establishment_date. It outputs all element's establishment date by descending order.
  * -- TOSTRING --
@@ -29,27 +35,51 @@ public class PrintFieldDescendingEstablishmentDate extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method tells that the command's response only changes with the collection.
+     * @return true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the print_field_descending_establishment_date command.
      * @param commandStrArg the command's string argument (unnecessary).
-     * @param commandObjArg the command's object argument (unnecessary).
+     * @param commandObjArg the command's object argument (unnecessary, a PageRequest if only a page is needed).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
-            if (!commandStrArg.isEmpty() || commandObjArg != null) {
+            if (!commandStrArg.isEmpty() || commandObjArg != null && !(commandObjArg instanceof PageRequest)) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
             if (collectionManager.collectionSize() == 0) {
                 throw new EmptyCollectionException("Empty collection.", new RuntimeException());
             }
-            collectionManager.printFieldDescendingEstablishmentDate();
+            List<LocalDateTime> establishmentDates = commandObjArg instanceof PageRequest pageRequest
+                    ? collectionManager.page(getName(), pageRequest, collectionManager::establishmentDatesDescending, responseAppender)
+                    : collectionManager.establishmentDatesDescending();
+            responseAppender.appendln(establishmentDates.toString().trim());
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + " " + getSpec() +  "'");
+            responseAppender.appendln("Usage: '" + getName() + " " + getSpec() +  "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
+        } catch (ValueRangeException | InvalidCursorException e) {
+            responseAppender.appendError(e.getMessage());
         }
         return false;
     }
@@ -0,0 +1,137 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.QuerySyntaxException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.PageRequest;
+import lombok.ToString;
+import server.ru.itmo.se.query.AccessPath;
+import server.ru.itmo.se.query.IndexCondition;
+import server.ru.itmo.se.query.QueryPlan;
+import server.ru.itmo.se.query.QueryPlanCache;
+import server.ru.itmo.se.query.QueryPlanner;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class implements the command query. It outputs the elements which match a query expression (where / order by / limit / select).
+ * The candidates are found by the access path the QueryPlanner chooses; 'explain' outputs that path instead of the results.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the query class.
+ */
+@ToString
+public class Query extends CommandImpl {
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+    /**
+     * This field holds the compiled plans of the recent queries.
+     */
+    private final QueryPlanCache queryPlanCache = new QueryPlanCache();
+
+    /**
+     * Constructs a query with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public Query(CollectionManager collectionManager) {
+        super("query", "<expression>", "Outputs elements matching [explain] [where <condition>] [order by <field> [desc]] [limit <n>] [select <fields>]", CommandType.WITH_ARGS);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the query command.
+     * @param commandStrArg the command's string argument (necessary).
+     * @param commandObjArg the command's object argument (unnecessary, a PageRequest if only a page is needed).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            if (commandStrArg.isEmpty() || commandObjArg != null && !(commandObjArg instanceof PageRequest)) {
+                throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
+            }
+            QueryPlan queryPlan = queryPlanCache.compile(commandStrArg);
+            if (queryPlan.isExplained()) {
+                explain(queryPlan, responseAppender);
+                return true;
+            }
+            List<MusicBand> result = commandObjArg instanceof PageRequest pageRequest
+                    ? collectionManager.page(getName() + " " + queryPlan.getText(), pageRequest, () -> execute(queryPlan), responseAppender)
+                    : execute(queryPlan);
+            if (result.isEmpty()) {
+                responseAppender.appendln("No music bands match the query.");
+            } else if (queryPlan.isProjected()) {
+                responseAppender.appendRows(queryPlan.columns(), queryPlan.project(result));
+            } else {
+                responseAppender.appendMusicBands(result);
+            }
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (QuerySyntaxException e) {
+            responseAppender.appendError("Invalid query: " + e.getMessage());
+        } catch (ValueRangeException | InvalidCursorException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * This method is used to execute a query by the access path which the planner has chosen.
+     * @param queryPlan the compiled query.
+     * @return the query's results.
+     */
+    private List<MusicBand> execute(QueryPlan queryPlan) {
+        QueryPlanner queryPlanner = collectionManager.getQueryPlanner();
+        AccessPath accessPath = queryPlanner.choose(queryPlan, collectionManager.collectionSize());
+        return queryPlan.execute(accessPath.candidates(collectionManager.getMusicBandCollection()));
+    }
+
+    /**
+     * This method is used to output the chosen access path with its estimates and to compare them to the actual amounts of rows.
+     * @param queryPlan        the compiled query.
+     * @param responseAppender the response of the current request.
+     */
+    private void explain(QueryPlan queryPlan, ResponseAppender responseAppender) {
+        QueryPlanner queryPlanner = collectionManager.getQueryPlanner();
+        int collectionSize = collectionManager.collectionSize();
+        AccessPath accessPath = queryPlanner.choose(queryPlan, collectionSize);
+        Collection<MusicBand> candidates = accessPath.candidates(collectionManager.getMusicBandCollection());
+        long actualRows = candidates.stream().filter(queryPlan.getPredicate()).count();
+        responseAppender.appendln("Query plan:");
+        responseAppender.appendField("Query", queryPlan.getText());
+        responseAppender.appendField("Access path", accessPath);
+        responseAppender.appendField("Estimated cost", String.format(Locale.ROOT, "%.1f (full scan: %.1f)", accessPath.getCost(), (double) collectionSize));
+        for (IndexCondition condition : queryPlan.getIndexConditions()) {
+            responseAppender.appendField("Estimated rows for " + condition, String.format(Locale.ROOT, "%.1f", queryPlanner.estimate(condition, collectionSize)));
+        }
+        responseAppender.appendField("Estimated rows", String.format(Locale.ROOT, "%.1f", accessPath.getEstimatedRows()));
+        responseAppender.appendField("Examined rows", candidates.size());
+        responseAppender.appendField("Actual rows", actualRows);
+        Map<String, String> statistics = queryPlanner.describeStatistics();
+        for (IndexCondition condition : queryPlan.getIndexConditions()) {
+            String column = condition.field().getColumnName();
+            responseAppender.appendField("Statistics of " + column, statistics.get(column));
+        }
+    }
+}
@@ -36,10 +36,11 @@ public class RemoveAt extends CommandImpl {
      * This method is an implementation of the abstract apply() method for the remove_at command.
      * @param commandStrArg the command's string argument (necessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
@@ -47,18 +48,29 @@ public class RemoveAt extends CommandImpl {
             if (collectionManager.collectionSize() == 0) {
                 throw new EmptyCollectionException("Empty collection.", new RuntimeException());
             }
-            MusicBand musicBandToRemove = collectionManager.getByIndex(Integer.parseInt(commandStrArg));
-            collectionManager.removeFromCollection(musicBandToRemove);
-            ResponseAppender.appendln("Music band successfully removed.");
+            int index;
+            try {
+                index = Integer.parseInt(commandStrArg.trim());
+            } catch (NumberFormatException e) {
+                throw new InvalidInputException("The index must be an integer.", new RuntimeException());
+            }
+            MusicBand removedMusicBand = collectionManager.removeAt(index);
+            if (removedMusicBand == null) {
+                throw new NullMusicBandException("No music band with given index.", new RuntimeException());
+            }
+            responseAppender.appendln("Music band successfully removed.");
+            if (!collectionManager.commitChanges()) {
+                responseAppender.appendError("The change cannot be saved. See the server's log for details.");
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         } catch (NullMusicBandException e) {
-            ResponseAppender.appendError("No music band with given index.");
+            responseAppender.appendError("No music band with given index.");
         } catch (InvalidInputException e) {
-            ResponseAppender.appendError("What am I supposed to remove? Please enter an index.");
+            responseAppender.appendError("What am I supposed to remove? Please enter an index.");
         }
         return false;
     }
@@ -36,10 +36,11 @@ public class RemoveByID extends CommandImpl {
      * This method is an implementation of the abstract apply() method for the remove_by_id command.
      * @param commandStrArg the command's string argument (necessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
@@ -52,16 +53,19 @@ public class RemoveByID extends CommandImpl {
                 throw new NullMusicBandException("There's no such music band with this ID.", new RuntimeException());
             }
             collectionManager.removeFromCollection(musicBandToRemove);
-            ResponseAppender.appendln("Music band successfully deleted.");
+            responseAppender.appendln("Music band successfully deleted.");
+            if (!collectionManager.commitChanges()) {
+                responseAppender.appendError("The change cannot be saved. See the server's log for details.");
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         } catch (NullMusicBandException e) {
-            ResponseAppender.appendError("There's no such music band with this ID.");
+            responseAppender.appendError("There's no such music band with this ID.");
         } catch (InvalidInputException e) {
-            ResponseAppender.appendError("What am I supposed to remove? Give me an ID");
+            responseAppender.appendError("What am I supposed to remove? Give me an ID");
         }
         return false;
     }
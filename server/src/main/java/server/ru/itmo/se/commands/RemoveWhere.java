@@ -0,0 +1,82 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.EmptyCollectionException;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.QuerySyntaxException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import lombok.ToString;
+import server.ru.itmo.se.query.AccessPath;
+import server.ru.itmo.se.query.QueryParser;
+import server.ru.itmo.se.query.QueryPlan;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class implements the command remove_where. It removes all the elements which match a condition of the query language (the 'where' clause of query).
+ * The matches are found by the access path the QueryPlanner chooses and removed in a single compaction pass over the collection.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the remove_where class.
+ */
+@ToString
+public class RemoveWhere extends CommandImpl {
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Constructs a remove_where with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public RemoveWhere(CollectionManager collectionManager) {
+        super("remove_where", "<condition>", "Removes all the elements matching the condition (as in 'query where <condition>') and outputs their amount", CommandType.WITH_ARGS);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the remove_where command.
+     * @param commandStrArg the command's string argument (necessary).
+     * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            if (commandStrArg.isBlank() || commandObjArg != null) {
+                throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
+            }
+            String condition = commandStrArg.strip();
+            QueryPlan queryPlan = QueryParser.parse(condition.toLowerCase(Locale.ROOT).startsWith("where ") ? condition : "where " + condition);
+            if (queryPlan.isExplained() || queryPlan.getComparator() != null || queryPlan.getLimit() != Integer.MAX_VALUE || queryPlan.isProjected()) {
+                throw new QuerySyntaxException("remove_where takes only a condition.", new RuntimeException());
+            }
+            if (collectionManager.collectionSize() == 0) {
+                throw new EmptyCollectionException("Empty collection.", new RuntimeException());
+            }
+            AccessPath accessPath = collectionManager.getQueryPlanner().choose(queryPlan, collectionManager.collectionSize());
+            List<MusicBand> matches = queryPlan.execute(accessPath.candidates(collectionManager.getMusicBandCollection()));
+            int removed = collectionManager.removeAll(matches);
+            responseAppender.appendln(removed == 0 ? "No music bands match the condition." : removed + " music band(s) successfully deleted.");
+            if (!collectionManager.commitChanges()) {
+                responseAppender.appendError("The changes cannot be saved. See the server's log for details.");
+            }
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (EmptyCollectionException e) {
+            responseAppender.appendError("Empty collection.");
+        } catch (QuerySyntaxException e) {
+            responseAppender.appendError("Invalid condition: " + e.getMessage());
+        } catch (ValueRangeException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.exceptions.EmptyCollectionException;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import lombok.ToString;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * This class implements the command sample. It outputs k music bands picked uniformly at random, without shuffling the collection.
+ * With a seed, the same collection always gives the same sample.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the sample class.
+ */
+@ToString
+public class Sample extends CommandImpl {
+    /**
+     * This field holds the greatest amount of music bands which can be picked at once.
+     */
+    private static final int MAX_K = 10000;
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Constructs a sample with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public Sample(CollectionManager collectionManager) {
+        super("sample", "<k> [seed]", "Outputs k random elements of the collection (the same ones for the same seed)", CommandType.WITH_ARGS);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the sample command.
+     * @param commandStrArg the command's string argument (necessary).
+     * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            String[] tokens = commandStrArg.trim().split("\\s+");
+            if (commandStrArg.isBlank() || tokens.length > 2 || commandObjArg != null) {
+                throw new InvalidArgumentCountException("You need 1 or 2 arguments here.", new RuntimeException());
+            }
+            if (collectionManager.collectionSize() == 0) {
+                throw new EmptyCollectionException("Empty collection.", new RuntimeException());
+            }
+            int k = Integer.parseInt(tokens[0]);
+            if (k < 1 || k > MAX_K) {
+                throw new ValueRangeException("k must be a whole number between 1 and " + MAX_K + ".", new RuntimeException());
+            }
+            RandomGenerator random = tokens.length == 2 ? new SplittableRandom(Long.parseLong(tokens[1])) : ThreadLocalRandom.current();
+            responseAppender.appendMusicBands(collectionManager.sample(k, random));
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (EmptyCollectionException e) {
+            responseAppender.appendError("Empty collection.");
+        } catch (NumberFormatException e) {
+            responseAppender.appendError("k and the seed must be whole numbers.");
+        } catch (ValueRangeException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+}
@@ -28,23 +28,36 @@ public class Save extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command is administrative, since the collection is written into the storage.
+     * @return ADMIN.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.ADMIN;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the Save command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
-            collectionManager.saveCollection();
-            ResponseAppender.appendln("File may be successfully saved. If there's an error message above this, then your changes have not been saved.");
+            if (!collectionManager.saveCollection()) {
+                responseAppender.appendError("The collection cannot be saved. See the server's log for details.");
+                return false;
+            }
+            responseAppender.appendln("File has been successfully saved.");
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
         }
         return false;
     }
@@ -1,6 +1,9 @@
 package server.ru.itmo.se.commands;
 
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
 import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.PageRequest;
 import lombok.ToString;
 import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
 import server.ru.itmo.se.utility.CollectionManager;
@@ -27,22 +30,47 @@ public class Show extends CommandImpl {
         this.collectionManager = collectionManager;
     }
 
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method tells that the command's response only changes with the collection.
+     * @return true.
+     */
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * This method is an implementation of the abstract apply() method for the Show command.
      * @param commandStrArg the command's string argument (unnecessary)..
-     * @param commandObjArg the command's object argument (unnecessary).
+     * @param commandObjArg the command's object argument (unnecessary, a PageRequest if only a page is needed).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
-            if (!commandStrArg.isEmpty() || commandObjArg != null) {
+            if (!commandStrArg.isEmpty() || commandObjArg != null && !(commandObjArg instanceof PageRequest)) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
             }
-            ResponseAppender.appendln(collectionManager);
+            if (commandObjArg instanceof PageRequest pageRequest) {
+                responseAppender.appendMusicBands(collectionManager.page(getName(), pageRequest, collectionManager::getOrderedCollection, responseAppender));
+            } else {
+                responseAppender.appendMusicBands(collectionManager.renderCollection());
+            }
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
+        } catch (ValueRangeException | InvalidCursorException e) {
+            responseAppender.appendError(e.getMessage());
         }
         return false;
     }
@@ -33,10 +33,11 @@ public class Shuffle extends CommandImpl {
      * This method is an implementation of the abstract apply() method for the Shuffle command.
      * @param commandStrArg the command's string argument (unnecessary).
      * @param commandObjArg the command's object argument (unnecessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (!commandStrArg.isEmpty() || commandObjArg != null) {
                 throw new InvalidArgumentCountException("You don't need an argument here.", new RuntimeException());
@@ -46,12 +47,12 @@ public class Shuffle extends CommandImpl {
             }
             collectionManager.shuffleCollection();
             // collectionManager.saveCollection();
-            ResponseAppender.appendln("Collection successfully scrambled.");
+            responseAppender.appendln("Collection successfully scrambled.");
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         }
         return false;
     }
@@ -0,0 +1,105 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.EmptyCollectionException;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.PageRequest;
+import server.ru.itmo.se.query.SpatialIndex;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.List;
+
+/**
+ * Abstract parent class for the commands which look music bands up by their coordinates. They take a fixed amount of numeric arguments and are answered by the SpatialIndex.
+ */
+public abstract class SpatialCommand extends CommandImpl {
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    protected final CollectionManager collectionManager;
+    /**
+     * This field holds the amount of numeric arguments the command takes.
+     */
+    private final int argumentCount;
+
+    /**
+     * Constructs a spatial command with the specified name, usage, specification and CollectionManager.
+     * @param name              the command's name.
+     * @param usage             the command's arguments.
+     * @param spec              the command's specification.
+     * @param collectionManager the specified CollectionManager.
+     */
+    protected SpatialCommand(String name, String usage, String spec, CollectionManager collectionManager) {
+        super(name, usage, spec, CommandType.WITH_ARGS);
+        this.collectionManager = collectionManager;
+        this.argumentCount = usage.split(" ").length;
+    }
+
+    /**
+     * This method tells that the command only reads the collection.
+     * @return READ.
+     */
+    @Override
+    public AccessMode getAccessMode() {
+        return AccessMode.READ;
+    }
+
+    /**
+     * This method is used to find the music bands by the command's arguments.
+     * @param spatialIndex the index of the coordinates.
+     * @param arguments    the command's numeric arguments.
+     * @return the music bands found.
+     * @throws ValueRangeException if the arguments don't describe a valid area.
+     */
+    protected abstract List<MusicBand> find(SpatialIndex spatialIndex, double[] arguments) throws ValueRangeException;
+
+    /**
+     * This method is an implementation of the abstract apply() method for the spatial commands.
+     * @param commandStrArg the command's string argument (necessary).
+     * @param commandObjArg the command's object argument (unnecessary, a PageRequest if only a page is needed).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            String[] tokens = commandStrArg.trim().split("\\s+");
+            if (commandStrArg.isBlank() || tokens.length != argumentCount || commandObjArg != null && !(commandObjArg instanceof PageRequest)) {
+                throw new InvalidArgumentCountException("You need " + argumentCount + " arguments here.", new RuntimeException());
+            }
+            if (collectionManager.collectionSize() == 0) {
+                throw new EmptyCollectionException("Empty collection.", new RuntimeException());
+            }
+            double[] arguments = new double[argumentCount];
+            for (int i = 0; i < argumentCount; i++) {
+                arguments[i] = Double.parseDouble(tokens[i]);
+                if (!Double.isFinite(arguments[i])) {
+                    throw new NumberFormatException();
+                }
+            }
+            SpatialIndex spatialIndex = collectionManager.getSpatialIndex();
+            List<MusicBand> found = commandObjArg instanceof PageRequest pageRequest
+                    ? collectionManager.page(getName() + " " + String.join(" ", tokens), pageRequest, () -> find(spatialIndex, arguments), responseAppender)
+                    : find(spatialIndex, arguments);
+            if (found.isEmpty()) {
+                responseAppender.appendln("No music bands have been found there.");
+            } else {
+                responseAppender.appendMusicBands(found);
+            }
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (EmptyCollectionException e) {
+            responseAppender.appendError("Empty collection.");
+        } catch (NumberFormatException e) {
+            responseAppender.appendError("The arguments must be numbers.");
+        } catch (ValueRangeException | InvalidCursorException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,93 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.InvalidArgumentCountException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.CommandType;
+import common.ru.itmo.se.interaction.MusicBandRaw;
+import common.ru.itmo.se.utility.FieldValidator;
+import lombok.ToString;
+import server.ru.itmo.se.utility.CollectionManager;
+import server.ru.itmo.se.utility.ResponseAppender;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class implements the command update_batch. It updates many elements sent in a single request, each one by its ID, like update does, and skips the invalid ones.
+ * The whole batch is applied under one lock acquisition and the changes are persisted once.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the update_batch class.
+ */
+@ToString
+public class UpdateBatch extends CommandImpl {
+    /**
+     * This field holds an instance of a CollectionManager which is responsible for operations with the collection.
+     */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Constructs an update_batch with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public UpdateBatch(CollectionManager collectionManager) {
+        super("update_batch", "<id> ... {element} ...", "Updates the elements with the given IDs at once and outputs the result of each one", CommandType.WITH_ARGS_FORM);
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * This method is an implementation of the abstract apply() method for the update_batch command.
+     * @param commandStrArg the command's string argument (the IDs, separated by spaces).
+     * @param commandObjArg the command's object argument (necessary, an array of MusicBandRaw, one per ID).
+     * @param responseAppender the response of the current request.
+     * @return true if the command was successfully executed, <p>false if the command encountered an error.
+     */
+    @Override
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        try {
+            String[] ids = commandStrArg.trim().split("\\s+");
+            if (commandStrArg.isBlank() || !(commandObjArg instanceof MusicBandRaw[] musicBandRaws) || musicBandRaws.length != ids.length) {
+                throw new InvalidArgumentCountException("You need an element for every ID here.", new RuntimeException());
+            }
+            if (musicBandRaws.length > MusicBandRaw.MAX_BATCH_SIZE) {
+                throw new ValueRangeException("A batch must contain between 1 and " + MusicBandRaw.MAX_BATCH_SIZE + " elements.", new RuntimeException());
+            }
+            int updated = 0;
+            List<String[]> rows = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                MusicBand musicBandToUpdate;
+                try {
+                    musicBandToUpdate = collectionManager.getByID(Integer.parseInt(ids[i]));
+                } catch (NumberFormatException e) {
+                    rows.add(new String[]{String.valueOf(i + 1), ids[i], "invalid ID"});
+                    continue;
+                }
+                if (musicBandToUpdate == null) {
+                    rows.add(new String[]{String.valueOf(i + 1), ids[i], "no such music band"});
+                    continue;
+                }
+                MusicBand musicBand = musicBandRaws[i] == null ? null : UpdateID.updated(musicBandToUpdate, musicBandRaws[i]);
+                String violation = musicBand == null ? "element" : FieldValidator.checkMusicBand(musicBand);
+                if (violation != null) {
+                    rows.add(new String[]{String.valueOf(i + 1), ids[i], "invalid " + violation});
+                    continue;
+                }
+                collectionManager.replaceInCollection(musicBandToUpdate, musicBand);
+                rows.add(new String[]{String.valueOf(i + 1), ids[i], "updated"});
+                updated++;
+            }
+            responseAppender.appendRows(List.of("item", "id", "result"), rows);
+            responseAppender.appendln(updated + " of " + ids.length + " music bands have been updated.");
+            if (updated > 0 && !collectionManager.persistChanges()) {
+                responseAppender.appendError("The changes cannot be saved. See the server's log for details.");
+            }
+            return true;
+        } catch (InvalidArgumentCountException e) {
+            responseAppender.appendln("Usage: '" + getName() + " " + getUsage() + "'");
+        } catch (ValueRangeException e) {
+            responseAppender.appendError(e.getMessage());
+        }
+        return false;
+    }
+}
@@ -38,10 +38,11 @@ public class UpdateID extends CommandImpl {
      * This method is an implementation of the abstract apply() method for the update command.
      * @param commandStrArg the command's string argument (necessary).
      * @param commandObjArg the command's object argument (necessary).
+     * @param responseAppender the response of the current request.
      * @return true if the command was successfully executed, <p>false if the command encountered an error.
      */
     @Override
-    public boolean apply(String commandStrArg, Object commandObjArg) {
+    public boolean apply(String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
         try {
             if (commandStrArg.isEmpty() || commandObjArg == null) {
                 throw new InvalidArgumentCountException("You need an argument here.", new RuntimeException());
@@ -51,41 +52,50 @@ public class UpdateID extends CommandImpl {
             }
             Integer id = Integer.parseInt(commandStrArg);
             MusicBand musicBandToUpdate = collectionManager.getByID(id);
-            if (collectionManager.collectionContains(musicBandToUpdate)) {
-                MusicBandRaw musicBandRaw = (MusicBandRaw) commandObjArg;
-                String name = musicBandRaw.getName() == null ? musicBandToUpdate.getName() : musicBandRaw.getName();
-                Coordinates coordinates = musicBandRaw.getCoordinates() == null ? musicBandToUpdate.getCoordinates() : musicBandRaw.getCoordinates();
-                Date creationDate = musicBandToUpdate.getCreationDate();
-                Long numberOfParticipants = musicBandRaw.getNumberOfParticipants() == null ? musicBandToUpdate.getNumberOfParticipants() : musicBandRaw.getNumberOfParticipants() ;
-                LocalDateTime establishmentDate = musicBandRaw.getEstablishmentDate() == null ? musicBandToUpdate.getEstablishmentDate() : musicBandRaw.getEstablishmentDate();
-                MusicGenre musicGenre = musicBandRaw.getMusicGenre() == null ? musicBandToUpdate.getMusicGenre() : musicBandRaw.getMusicGenre();
-                Studio studio = musicBandRaw.getStudio() == null ? musicBandToUpdate.getStudio() : musicBandRaw.getStudio();
-                collectionManager.removeFromCollection(musicBandToUpdate);
-                collectionManager.addToCollection(new MusicBand(
-                        id, name,
-                        coordinates,
-                        creationDate,
-                        numberOfParticipants,
-                        establishmentDate,
-                        musicGenre, studio
-                ));
-                collectionManager.saveCollection();
+            if (musicBandToUpdate != null && collectionManager.replaceInCollection(musicBandToUpdate, updated(musicBandToUpdate, (MusicBandRaw) commandObjArg))) {
+                if (!collectionManager.persistChanges()) {
+                    responseAppender.appendError("The change cannot be saved. See the server's log for details.");
+                }
             } else {
                 throw new NullMusicBandException("There's no such music band.", new RuntimeException());
             }
-            ResponseAppender.appendln("Music band has been successfully updated.");
+            responseAppender.appendln("Music band has been successfully updated.");
             return true;
         } catch (InvalidArgumentCountException e) {
-            ResponseAppender.appendln("Usage: '" + getName() + "'");
+            responseAppender.appendln("Usage: '" + getName() + "'");
         } catch (EmptyCollectionException e) {
-            ResponseAppender.appendError("Empty collection.");
+            responseAppender.appendError("Empty collection.");
         } catch (NumberFormatException e) {
-            ResponseAppender.appendError("Negative number of participants???");
+            responseAppender.appendError("Negative number of participants???");
         } catch (NullMusicBandException e) {
-            ResponseAppender.appendError("No such music band with given ID.");
+            responseAppender.appendError("No such music band with given ID.");
         } catch (ClassCastException e) {
-            ResponseAppender.appendError("Invalid object type from the client.");
+            responseAppender.appendError("Invalid object type from the client.");
         }
         return false;
     }
+
+    /**
+     * This method is used to build the new version of a music band from an update. The fields the user hasn't changed (null in the update) are kept, as are the ID and creation date.
+     * @param musicBand    the music band to be updated.
+     * @param musicBandRaw the update.
+     * @return the updated music band.
+     */
+    static MusicBand updated(MusicBand musicBand, MusicBandRaw musicBandRaw) {
+        String name = musicBandRaw.getName() == null ? musicBand.getName() : musicBandRaw.getName();
+        Coordinates coordinates = musicBandRaw.getCoordinates() == null ? musicBand.getCoordinates() : musicBandRaw.getCoordinates();
+        Date creationDate = musicBand.getCreationDate();
+        Long numberOfParticipants = musicBandRaw.getNumberOfParticipants() == null ? musicBand.getNumberOfParticipants() : musicBandRaw.getNumberOfParticipants();
+        LocalDateTime establishmentDate = musicBandRaw.getEstablishmentDate() == null ? musicBand.getEstablishmentDate() : musicBandRaw.getEstablishmentDate();
+        MusicGenre musicGenre = musicBandRaw.getMusicGenre() == null ? musicBand.getMusicGenre() : musicBandRaw.getMusicGenre();
+        Studio studio = musicBandRaw.getStudio() == null ? musicBand.getStudio() : musicBandRaw.getStudio();
+        return new MusicBand(
+                musicBand.getId(), name,
+                coordinates,
+                creationDate,
+                numberOfParticipants,
+                establishmentDate,
+                musicGenre, studio
+        );
+    }
 }
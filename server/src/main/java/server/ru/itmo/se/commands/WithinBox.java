@@ -0,0 +1,41 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import lombok.ToString;
+import server.ru.itmo.se.query.SpatialIndex;
+import server.ru.itmo.se.utility.CollectionManager;
+
+import java.util.List;
+
+/**
+ * This class implements the command within_box. It outputs the elements whose coordinates are inside a bounding box.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the within_box class.
+ */
+@ToString
+public class WithinBox extends SpatialCommand {
+    /**
+     * Constructs a within_box with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public WithinBox(CollectionManager collectionManager) {
+        super("within_box", "<min_x> <min_y> <max_x> <max_y>", "Outputs elements whose coordinates are inside the bounding box", collectionManager);
+    }
+
+    /**
+     * This method is used to find the music bands inside the bounding box.
+     * @param spatialIndex the index of the coordinates.
+     * @param arguments    the box's least X, least Y, greatest X and greatest Y.
+     * @return the music bands inside the box.
+     * @throws ValueRangeException if the least coordinates are greater than the greatest ones.
+     */
+    @Override
+    protected List<MusicBand> find(SpatialIndex spatialIndex, double[] arguments) throws ValueRangeException {
+        if (arguments[0] > arguments[2] || arguments[1] > arguments[3]) {
+            throw new ValueRangeException("The least coordinates of the box must not be greater than the greatest ones.", new RuntimeException());
+        }
+        return spatialIndex.withinBox(arguments[0], arguments[1], arguments[2], arguments[3]);
+    }
+}
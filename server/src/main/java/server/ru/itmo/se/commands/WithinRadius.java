@@ -0,0 +1,41 @@
+package server.ru.itmo.se.commands;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import lombok.ToString;
+import server.ru.itmo.se.query.SpatialIndex;
+import server.ru.itmo.se.utility.CollectionManager;
+
+import java.util.List;
+
+/**
+ * This class implements the command within_radius. It outputs the elements within a distance of a point, the nearest first.
+ * -- TOSTRING --
+ * This method is a custom implementation of the toString() method in the within_radius class.
+ */
+@ToString
+public class WithinRadius extends SpatialCommand {
+    /**
+     * Constructs a within_radius with the specified CollectionManager.
+     *
+     * @param collectionManager the specified CollectionManager.
+     */
+    public WithinRadius(CollectionManager collectionManager) {
+        super("within_radius", "<x> <y> <radius>", "Outputs elements within the radius of the point, the nearest first", collectionManager);
+    }
+
+    /**
+     * This method is used to find the music bands within the radius.
+     * @param spatialIndex the index of the coordinates.
+     * @param arguments    the point's X and Y and the radius.
+     * @return the music bands within the radius.
+     * @throws ValueRangeException if the radius is negative.
+     */
+    @Override
+    protected List<MusicBand> find(SpatialIndex spatialIndex, double[] arguments) throws ValueRangeException {
+        if (arguments[2] < 0) {
+            throw new ValueRangeException("The radius must not be negative.", new RuntimeException());
+        }
+        return spatialIndex.withinRadius(arguments[0], arguments[1], arguments[2]);
+    }
+}
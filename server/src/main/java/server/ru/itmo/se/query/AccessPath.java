@@ -0,0 +1,107 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.utility.CompressedBitmap;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * This class represents the way the planner has chosen to find the candidates of a query: a full scan, a scan of a single index or an intersection of several indexes.
+ * The candidates are always filtered by the whole 'where' clause afterwards, so an access path only has to return a superset of the results.
+ * --CONSTRUCTOR--
+ * Constructs an AccessPath with the specified fields.
+ */
+@Getter
+@AllArgsConstructor
+public class AccessPath {
+    /**
+     * This field holds the indexed conditions in the order they are applied (the most selective first), <p>an empty list for a full scan.
+     */
+    private final List<IndexCondition> conditions;
+    /**
+     * This field holds the indexes which answer the conditions, in the same order.
+     */
+    private final List<FieldIndex> indexes;
+    /**
+     * This field holds the estimated cost of the path, in rows read.
+     */
+    private final double cost;
+    /**
+     * This field holds the estimated amount of rows which the 'where' clause selects.
+     */
+    private final double estimatedRows;
+
+    /**
+     * This method is used to check whether the path reads the whole collection.
+     * @return true for a full scan, <p>false otherwise.
+     */
+    public boolean isFullScan() {
+        return conditions.isEmpty();
+    }
+
+    /**
+     * This method is used to find the candidates of the query.
+     * The bitmaps of all the bitmap-indexed conditions are intersected first and materialized in a single pass; the result is then intersected with the other indexes' candidates.
+     * @param collection the whole collection, which is returned for a full scan.
+     * @return music bands which may satisfy the query.
+     */
+    public Collection<MusicBand> candidates(Collection<MusicBand> collection) {
+        if (isFullScan()) {
+            return collection;
+        }
+        Collection<MusicBand> candidates = null;
+        CompressedBitmap rows = null;
+        BitmapFieldIndex bitmapIndex = null;
+        List<Set<MusicBand>> others = new ArrayList<>(conditions.size());
+        for (int i = 0; i < conditions.size(); i++) {
+            IndexCondition condition = conditions.get(i);
+            if (indexes.get(i) instanceof BitmapFieldIndex bitmapFieldIndex) {
+                CompressedBitmap matching = bitmapFieldIndex.rows(condition.operator(), condition.value());
+                rows = rows == null ? matching : CompressedBitmap.and(rows, matching);
+                bitmapIndex = bitmapFieldIndex;
+            } else if (candidates == null) {
+                candidates = indexes.get(i).candidates(condition.operator(), condition.value());
+            } else {
+                Set<MusicBand> matching = Collections.newSetFromMap(new IdentityHashMap<>());
+                matching.addAll(indexes.get(i).candidates(condition.operator(), condition.value()));
+                others.add(matching);
+            }
+        }
+        if (bitmapIndex != null) {
+            Collection<MusicBand> materialized = bitmapIndex.materialize(rows);
+            if (candidates == null) {
+                candidates = materialized;
+            } else {
+                Set<MusicBand> matching = Collections.newSetFromMap(new IdentityHashMap<>());
+                matching.addAll(materialized);
+                others.add(matching);
+            }
+        }
+        if (others.isEmpty()) {
+            return candidates;
+        }
+        ArrayList<MusicBand> intersection = new ArrayList<>();
+        for (MusicBand musicBand : candidates) {
+            if (others.stream().allMatch(matching -> matching.contains(musicBand))) {
+                intersection.add(musicBand);
+            }
+        }
+        return intersection;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in AccessPath.
+     * @return description of the path.
+     */
+    @Override
+    public String toString() {
+        if (isFullScan()) {
+            return "full scan";
+        }
+        StringJoiner joiner = new StringJoiner(", ");
+        conditions.forEach(condition -> joiner.add(condition.toString()));
+        return (conditions.size() == 1 ? "index scan on " : "index intersection on ") + joiner;
+    }
+}
@@ -0,0 +1,250 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.data.MusicGenre;
+import common.ru.itmo.se.utility.CompressedBitmap;
+
+import java.util.Collection;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Class used for indexing a low-cardinality field with a compressed bitmap of rows per key.
+ * A key is either a single value (e.g. a genre) or a bucket of values (e.g. a range of participant counts); a condition selects the union of the keys it may match,
+ * and conditions on several bitmap indexes are intersected with bitwise AND before any music band is touched.
+ * Bucketed keys may select a few rows that don't satisfy the condition, which the 'where' clause filters out afterwards.
+ */
+public class BitmapFieldIndex implements FieldIndex {
+    /**
+     * This field holds the greatest participant count which gets a key of its own. Greater counts share a key per power of two.
+     */
+    private static final int EXACT_PARTICIPANTS = 16;
+    /**
+     * This field holds the indexed field.
+     */
+    private final QueryField field;
+    /**
+     * This field holds the rows of the collection which the bitmaps refer to.
+     */
+    private final RowTable rowTable;
+    /**
+     * This field holds the function which maps a value to its key.
+     */
+    private final ToIntFunction<Comparable<?>> keyOf;
+    /**
+     * This field holds the function which returns the least value of a key.
+     */
+    private final IntFunction<Comparable<?>> lowerBound;
+    /**
+     * This field holds the function which returns the greatest value of a key.
+     */
+    private final IntFunction<Comparable<?>> upperBound;
+    /**
+     * This field holds the bitmaps of rows indexed by their keys.
+     */
+    private final CompressedBitmap[] bitmaps;
+    /**
+     * This field holds the amount of indexed music bands.
+     */
+    private int size;
+
+    /**
+     * Constructs a BitmapFieldIndex with the specified field, row table and keys.
+     * @param field      the field to be indexed.
+     * @param rowTable   the rows of the collection.
+     * @param keyCount   the amount of keys.
+     * @param keyOf      the function which maps a value to its key.
+     * @param lowerBound the function which returns the least value of a key.
+     * @param upperBound the function which returns the greatest value of a key.
+     */
+    private BitmapFieldIndex(QueryField field, RowTable rowTable, int keyCount, ToIntFunction<Comparable<?>> keyOf, IntFunction<Comparable<?>> lowerBound, IntFunction<Comparable<?>> upperBound) {
+        this.field = field;
+        this.rowTable = rowTable;
+        this.keyOf = keyOf;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.bitmaps = new CompressedBitmap[keyCount];
+        for (int key = 0; key < keyCount; key++) {
+            bitmaps[key] = new CompressedBitmap();
+        }
+    }
+
+    /**
+     * This method is used to build a bitmap index on the music band's genre: one key per genre.
+     * @param rowTable the rows of the collection.
+     * @return the index.
+     */
+    public static BitmapFieldIndex byGenre(RowTable rowTable) {
+        MusicGenre[] genres = MusicGenre.values();
+        return new BitmapFieldIndex(QueryField.MUSIC_GENRE, rowTable, genres.length,
+                value -> ((MusicGenre) value).ordinal(), key -> genres[key], key -> genres[key]);
+    }
+
+    /**
+     * This method is used to build a bitmap index on the number of participants: one key per count up to 16, then one key per power of two.
+     * @param rowTable the rows of the collection.
+     * @return the index.
+     */
+    public static BitmapFieldIndex byParticipantBuckets(RowTable rowTable) {
+        return new BitmapFieldIndex(QueryField.NUMBER_OF_PARTICIPANTS, rowTable, participantKey(Long.MAX_VALUE) + 1,
+                value -> participantKey((Long) value), BitmapFieldIndex::participantLowerBound, BitmapFieldIndex::participantUpperBound);
+    }
+
+    /**
+     * This method is used to find the key of a participant count.
+     * @param participants the participant count.
+     * @return the count itself up to 16, <p>16 + the position of the highest bit - 3 otherwise.
+     */
+    private static int participantKey(long participants) {
+        if (participants <= EXACT_PARTICIPANTS) {
+            return (int) Math.max(0, participants);
+        }
+        return EXACT_PARTICIPANTS + (63 - Long.numberOfLeadingZeros(participants)) - 3;
+    }
+
+    /**
+     * This method is used to find the least participant count of a key.
+     * @param key the key.
+     * @return the least count.
+     */
+    private static Comparable<?> participantLowerBound(int key) {
+        if (key <= EXACT_PARTICIPANTS) {
+            return (long) key;
+        }
+        return key == EXACT_PARTICIPANTS + 1 ? EXACT_PARTICIPANTS + 1L : 1L << (key - EXACT_PARTICIPANTS + 3);
+    }
+
+    /**
+     * This method is used to find the greatest participant count of a key.
+     * @param key the key.
+     * @return the greatest count.
+     */
+    private static Comparable<?> participantUpperBound(int key) {
+        if (key <= EXACT_PARTICIPANTS) {
+            return (long) key;
+        }
+        int bit = key - EXACT_PARTICIPANTS + 3;
+        return bit >= 62 ? Long.MAX_VALUE : (1L << (bit + 1)) - 1;
+    }
+
+    @Override
+    public QueryField getField() {
+        return field;
+    }
+
+    @Override
+    public void add(MusicBand musicBand, int row) {
+        Comparable<?> value = field.extract(musicBand);
+        if (value != null && bitmaps[keyOf.applyAsInt(value)].add(row)) {
+            size++;
+        }
+    }
+
+    @Override
+    public void remove(MusicBand musicBand, int row) {
+        Comparable<?> value = field.extract(musicBand);
+        if (value != null && row >= 0 && bitmaps[keyOf.applyAsInt(value)].remove(row)) {
+            size--;
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (CompressedBitmap bitmap : bitmaps) {
+            bitmap.clear();
+        }
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * This method is used to find the rows which may satisfy a condition: the union of the bitmaps of all the keys the condition may match.
+     * @param operator the condition's operator. It must be sargable.
+     * @param value    the condition's value.
+     * @return the rows.
+     */
+    public CompressedBitmap rows(ComparisonOperator operator, Comparable<?> value) {
+        CompressedBitmap rows = new CompressedBitmap();
+        for (int key = 0; key < bitmaps.length; key++) {
+            if (!bitmaps[key].isEmpty() && mayMatch(key, operator, value)) {
+                rows = CompressedBitmap.or(rows, bitmaps[key]);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * This method is used to turn rows into music bands.
+     * @param rows the rows.
+     * @return the music bands of the rows.
+     */
+    public Collection<MusicBand> materialize(CompressedBitmap rows) {
+        return rowTable.materialize(rows);
+    }
+
+    @Override
+    public Collection<MusicBand> candidates(ComparisonOperator operator, Comparable<?> value) {
+        return materialize(rows(operator, value));
+    }
+
+    /**
+     * This method is used to estimate how many music bands satisfy a condition. The cardinalities of the bitmaps are exact, so only bucketed keys are overestimated.
+     * @param operator the condition's operator.
+     * @param value    the condition's value.
+     * @return estimated amount of music bands.
+     */
+    @Override
+    public double estimate(ComparisonOperator operator, Comparable<?> value) {
+        long rows = 0;
+        for (int key = 0; key < bitmaps.length; key++) {
+            if (mayMatch(key, operator, value)) {
+                rows += bitmaps[key].size();
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * This method is used to check whether some value of a key satisfies a condition.
+     * @param key      the key.
+     * @param operator the condition's operator.
+     * @param value    the condition's value.
+     * @return true if the key's bitmap has to be included, <p>false otherwise.
+     */
+    private boolean mayMatch(int key, ComparisonOperator operator, Comparable<?> value) {
+        int toLower = ComparisonOperator.compareValues(lowerBound.apply(key), value);
+        int toUpper = ComparisonOperator.compareValues(upperBound.apply(key), value);
+        return switch (operator) {
+            case EQUAL -> toLower <= 0 && toUpper >= 0;
+            case NOT_EQUAL -> toLower != 0 || toUpper != 0;
+            case LESS -> toLower < 0;
+            case LESS_OR_EQUAL -> toLower <= 0;
+            case GREATER -> toUpper > 0;
+            case GREATER_OR_EQUAL -> toUpper >= 0;
+        };
+    }
+
+    @Override
+    public String describeStatistics() {
+        int usedKeys = 0;
+        long bytes = 0;
+        for (CompressedBitmap bitmap : bitmaps) {
+            usedKeys += bitmap.isEmpty() ? 0 : 1;
+            bytes += bitmap.sizeInBytes();
+        }
+        return size + " rows, " + usedKeys + "/" + bitmaps.length + " keys used, ~" + bytes + " bytes of bitmaps";
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in BitmapFieldIndex.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "BitmapFieldIndex (" + field.getColumnName() + ")";
+    }
+}
@@ -0,0 +1,96 @@
+package server.ru.itmo.se.query;
+
+import lombok.Getter;
+
+/**
+ * This enum represents the comparison operators of the query language (except '~', which doesn't compare values).
+ */
+@Getter
+public enum ComparisonOperator {
+    /**
+     * This value represents the '=' operator.
+     */
+    EQUAL("="),
+    /**
+     * This value represents the '!=' operator.
+     */
+    NOT_EQUAL("!="),
+    /**
+     * This value represents the '&lt;' operator.
+     */
+    LESS("<"),
+    /**
+     * This value represents the '&lt;=' operator.
+     */
+    LESS_OR_EQUAL("<="),
+    /**
+     * This value represents the '&gt;' operator.
+     */
+    GREATER(">"),
+    /**
+     * This value represents the '&gt;=' operator.
+     */
+    GREATER_OR_EQUAL(">=");
+
+    /**
+     * This field holds the operator as it is typed in a query.
+     */
+    private final String symbol;
+
+    /**
+     * Constructs a ComparisonOperator with the specified symbol.
+     * @param symbol the operator's symbol.
+     */
+    ComparisonOperator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * This method is used to find an operator by its symbol.
+     * @param symbol the operator's symbol.
+     * @return the corresponding operator, <p>null if the symbol is unknown.
+     */
+    public static ComparisonOperator bySymbol(String symbol) {
+        for (ComparisonOperator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method is used to check whether the result of compareTo() satisfies the operator.
+     * @param comparison result of comparing the field's value to the query's value.
+     * @return true if the comparison holds, <p>false otherwise.
+     */
+    public boolean matches(int comparison) {
+        return switch (this) {
+            case EQUAL -> comparison == 0;
+            case NOT_EQUAL -> comparison != 0;
+            case LESS -> comparison < 0;
+            case LESS_OR_EQUAL -> comparison <= 0;
+            case GREATER -> comparison > 0;
+            case GREATER_OR_EQUAL -> comparison >= 0;
+        };
+    }
+
+    /**
+     * This method is used to check whether a condition with the operator can be answered by an index, i.e. whether it selects a single range of values.
+     * @return false for '!=', <p>true otherwise.
+     */
+    public boolean isSargable() {
+        return this != NOT_EQUAL;
+    }
+
+    /**
+     * This method is used to compare two values of the same field.
+     * @param first  first value.
+     * @param second second value.
+     * @return result of compareTo().
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static int compareValues(Comparable first, Comparable second) {
+        return first.compareTo(second);
+    }
+}
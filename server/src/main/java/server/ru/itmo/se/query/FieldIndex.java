@@ -0,0 +1,64 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+
+import java.util.Collection;
+
+/**
+ * Interface for secondary indexes on a music band's field. The indexes are kept up to date by the CollectionManager and read by the QueryPlanner.
+ * Music bands whose field isn't set are not indexed, since no comparison holds for them.
+ */
+public interface FieldIndex {
+    /**
+     * Abstract method used for getting the indexed field.
+     * @return the field.
+     */
+    QueryField getField();
+
+    /**
+     * Abstract method used for indexing a music band.
+     * @param musicBand the music band which has been added to the collection.
+     * @param row       the music band's row in the RowTable.
+     */
+    void add(MusicBand musicBand, int row);
+
+    /**
+     * Abstract method used for removing a music band from the index.
+     * @param musicBand the music band which has been removed from the collection.
+     * @param row       the music band's freed row in the RowTable, <p>-1 if it had none.
+     */
+    void remove(MusicBand musicBand, int row);
+
+    /**
+     * Abstract method used for removing all the music bands from the index.
+     */
+    void clear();
+
+    /**
+     * Abstract method used for getting the amount of indexed music bands.
+     * @return amount of indexed music bands.
+     */
+    int size();
+
+    /**
+     * Abstract method used for finding the music bands which satisfy a condition.
+     * @param operator the condition's operator. It must be sargable.
+     * @param value    the condition's value.
+     * @return matching music bands in the order of the index.
+     */
+    Collection<MusicBand> candidates(ComparisonOperator operator, Comparable<?> value);
+
+    /**
+     * Abstract method used for estimating how many music bands satisfy a condition, without finding them.
+     * @param operator the condition's operator.
+     * @param value    the condition's value.
+     * @return estimated amount of music bands.
+     */
+    double estimate(ComparisonOperator operator, Comparable<?> value);
+
+    /**
+     * Abstract method used for describing the statistics of the index.
+     * @return statistics parsed to String data type.
+     */
+    String describeStatistics();
+}
@@ -0,0 +1,175 @@
+package server.ru.itmo.se.query;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * Class used for estimating how many rows a range condition selects. It is an equi-depth histogram: every bucket holds roughly the same amount of rows,
+ * so dense ranges of values get narrow buckets. A value is never split between two buckets.
+ */
+final class Histogram {
+    /**
+     * This field holds the desired amount of buckets.
+     */
+    static final int BUCKETS = 32;
+    /**
+     * This field holds the least value of every bucket.
+     */
+    private final Comparable<?>[] lowerBounds;
+    /**
+     * This field holds the greatest value of every bucket.
+     */
+    private final Comparable<?>[] upperBounds;
+    /**
+     * This field holds the amount of rows of every bucket.
+     */
+    private final long[] rows;
+    /**
+     * This field holds the amount of distinct values of every bucket.
+     */
+    private final long[] distinct;
+    /**
+     * This field holds the amount of used buckets.
+     */
+    private final int bucketCount;
+
+    /**
+     * Constructs a Histogram of the specified index entries.
+     * @param entries   the index's values in ascending order, each with its rows.
+     * @param totalRows the amount of rows of the index.
+     */
+    Histogram(NavigableMap<Comparable<?>, ? extends Collection<?>> entries, long totalRows) {
+        lowerBounds = new Comparable<?>[BUCKETS];
+        upperBounds = new Comparable<?>[BUCKETS];
+        rows = new long[BUCKETS];
+        distinct = new long[BUCKETS];
+        long rowsPerBucket = Math.max(1, (totalRows + BUCKETS - 1) / BUCKETS);
+        int bucket = 0;
+        for (Map.Entry<Comparable<?>, ? extends Collection<?>> entry : entries.entrySet()) {
+            if (rows[bucket] >= rowsPerBucket && bucket < BUCKETS - 1) {
+                bucket++;
+            }
+            if (lowerBounds[bucket] == null) {
+                lowerBounds[bucket] = entry.getKey();
+            }
+            upperBounds[bucket] = entry.getKey();
+            rows[bucket] += entry.getValue().size();
+            distinct[bucket]++;
+        }
+        bucketCount = entries.isEmpty() ? 0 : bucket + 1;
+    }
+
+    /**
+     * This method is used to estimate the amount of rows which satisfy a condition.
+     * @param operator the condition's operator.
+     * @param value    the condition's value.
+     * @return estimated amount of rows.
+     */
+    double estimate(ComparisonOperator operator, Comparable<?> value) {
+        return switch (operator) {
+            case EQUAL -> estimateEqual(value);
+            case NOT_EQUAL -> total() - estimateEqual(value);
+            case LESS -> estimateBelow(value, false);
+            case LESS_OR_EQUAL -> estimateBelow(value, true);
+            case GREATER -> total() - estimateBelow(value, true);
+            case GREATER_OR_EQUAL -> total() - estimateBelow(value, false);
+        };
+    }
+
+    /**
+     * This method is used to estimate the amount of rows with the given value, assuming the values of a bucket are equally frequent.
+     * @param value the value.
+     * @return estimated amount of rows.
+     */
+    private double estimateEqual(Comparable<?> value) {
+        for (int i = 0; i < bucketCount; i++) {
+            if (ComparisonOperator.compareValues(value, lowerBounds[i]) >= 0 && ComparisonOperator.compareValues(value, upperBounds[i]) <= 0) {
+                return (double) rows[i] / distinct[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * This method is used to estimate the amount of rows below the given value. Inside a bucket the values are assumed to be spread evenly.
+     * @param value     the value.
+     * @param inclusive true if the value itself is counted.
+     * @return estimated amount of rows.
+     */
+    private double estimateBelow(Comparable<?> value, boolean inclusive) {
+        double estimate = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            int toUpper = ComparisonOperator.compareValues(value, upperBounds[i]);
+            if (toUpper > 0 || toUpper == 0 && inclusive) {
+                estimate += rows[i];
+                continue;
+            }
+            int toLower = ComparisonOperator.compareValues(value, lowerBounds[i]);
+            if (toLower > 0 || toLower == 0 && inclusive) {
+                double fraction = interpolate(lowerBounds[i], upperBounds[i], value);
+                estimate += rows[i] * fraction + (inclusive ? (double) rows[i] / distinct[i] : 0);
+            }
+            break;
+        }
+        return Math.min(estimate, total());
+    }
+
+    /**
+     * This method is used to get the amount of rows of the histogram.
+     * @return amount of rows.
+     */
+    private long total() {
+        long total = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            total += rows[i];
+        }
+        return total;
+    }
+
+    /**
+     * This method is used to find the relative position of a value between two bounds.
+     * @param lower the lower bound.
+     * @param upper the upper bound.
+     * @param value the value.
+     * @return position from 0 to 1, <p>0.5 if the values cannot be turned into numbers.
+     */
+    private static double interpolate(Comparable<?> lower, Comparable<?> upper, Comparable<?> value) {
+        double from = toNumber(lower);
+        double to = toNumber(upper);
+        double at = toNumber(value);
+        if (Double.isNaN(from) || Double.isNaN(to) || Double.isNaN(at) || to <= from) {
+            return 0.5;
+        }
+        return Math.max(0, Math.min(1, (at - from) / (to - from)));
+    }
+
+    /**
+     * This method is used to turn a value into a number for interpolation.
+     * @param value the value.
+     * @return the number, <p>NaN if the value isn't numeric.
+     */
+    private static double toNumber(Comparable<?> value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.ordinal();
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in Histogram.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return bucketCount + " buckets";
+    }
+}
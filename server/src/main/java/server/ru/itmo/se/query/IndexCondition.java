@@ -0,0 +1,18 @@
+package server.ru.itmo.se.query;
+
+/**
+ * This record represents a comparison of the 'where' clause which every result has to satisfy, so it can be answered by an index instead of a scan.
+ * @param field    the compared field.
+ * @param operator the comparison operator.
+ * @param value    the value the field is compared to.
+ */
+public record IndexCondition(QueryField field, ComparisonOperator operator, Comparable<?> value) {
+    /**
+     * This method is a custom implementation of the toString() method in IndexCondition.
+     * @return the condition as it would be typed in a query.
+     */
+    @Override
+    public String toString() {
+        return field.getColumnName() + " " + operator.getSymbol() + " " + value;
+    }
+}
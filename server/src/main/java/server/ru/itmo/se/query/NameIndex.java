@@ -0,0 +1,219 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.utility.CompressedBitmap;
+
+import java.util.*;
+
+/**
+ * Class used for searching the music bands by a part of their names, case-insensitively.
+ * Prefixes are answered by a sorted map of the lower-cased names, which is walked from the prefix on (a prefix tree flattened into a balanced tree).
+ * Other substrings are answered by a trigram index: every 3 consecutive characters of a name map to the bitmap of the rows whose names contain them,
+ * so the rows containing all the trigrams of the searched text are found by intersecting bitmaps, and only those names are checked.
+ */
+public class NameIndex {
+    /**
+     * This field holds the length of the indexed n-grams.
+     */
+    private static final int GRAM_LENGTH = 3;
+    /**
+     * This field holds the rows of the collection which the trigram bitmaps refer to.
+     */
+    private final RowTable rowTable;
+    /**
+     * This structure maps the lower-cased names to the music bands which have them.
+     */
+    private final TreeMap<String, ArrayList<MusicBand>> names = new TreeMap<>();
+    /**
+     * This structure maps the trigrams (3 characters packed into a long) to the rows whose names contain them.
+     */
+    private final HashMap<Long, CompressedBitmap> trigrams = new HashMap<>();
+
+    /**
+     * Constructs a NameIndex over the specified rows.
+     * @param rowTable the rows of the collection.
+     */
+    public NameIndex(RowTable rowTable) {
+        this.rowTable = rowTable;
+    }
+
+    /**
+     * This method is used to index a music band which has been added to the collection.
+     * @param musicBand the music band.
+     * @param row       the music band's row in the RowTable.
+     */
+    public void add(MusicBand musicBand, int row) {
+        String name = normalize(musicBand.getName());
+        if (name == null) {
+            return;
+        }
+        names.computeIfAbsent(name, key -> new ArrayList<>(1)).add(musicBand);
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            trigrams.computeIfAbsent(trigram(name, i), key -> new CompressedBitmap()).add(row);
+        }
+    }
+
+    /**
+     * This method is used to remove a music band which has been removed from the collection.
+     * @param musicBand the music band.
+     * @param row       the music band's freed row in the RowTable, <p>-1 if it had none.
+     */
+    public void remove(MusicBand musicBand, int row) {
+        String name = normalize(musicBand.getName());
+        ArrayList<MusicBand> musicBands = name == null ? null : names.get(name);
+        if (musicBands == null || !musicBands.remove(musicBand)) {
+            return;
+        }
+        if (musicBands.isEmpty()) {
+            names.remove(name);
+        }
+        if (row < 0) {
+            return;
+        }
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            Long key = trigram(name, i);
+            CompressedBitmap rows = trigrams.get(key);
+            if (rows != null && rows.remove(row) && rows.isEmpty()) {
+                trigrams.remove(key);
+            }
+        }
+    }
+
+    /**
+     * This method is used to empty the index.
+     */
+    public void clear() {
+        names.clear();
+        trigrams.clear();
+    }
+
+    /**
+     * This method is used to find the music bands whose names start with a text, in the alphabetical order of the names.
+     * @param prefix the text.
+     * @param limit  the greatest amount of music bands to be found.
+     * @return at most limit music bands.
+     */
+    public List<MusicBand> startingWith(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        ArrayList<MusicBand> result = new ArrayList<>(Math.min(limit, 64));
+        for (Map.Entry<String, ArrayList<MusicBand>> entry : names.tailMap(normalized, true).entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            for (MusicBand musicBand : entry.getValue()) {
+                if (result.size() < limit) {
+                    result.add(musicBand);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to find the music bands whose names contain a text anywhere.
+     * @param text  the text.
+     * @param limit the greatest amount of music bands to be found.
+     * @return at most limit music bands.
+     */
+    public List<MusicBand> containing(String text, int limit) {
+        ArrayList<MusicBand> result = new ArrayList<>(Math.min(limit, 64));
+        collectContaining(normalize(text), limit, false, result);
+        return result;
+    }
+
+    /**
+     * This method is used to find the best matches of a text for search-as-you-type: the names starting with it in alphabetical order, then the names containing it elsewhere.
+     * @param text  the text.
+     * @param limit the greatest amount of music bands to be found.
+     * @return at most limit music bands.
+     */
+    public List<MusicBand> search(String text, int limit) {
+        ArrayList<MusicBand> result = new ArrayList<>(startingWith(text, limit));
+        collectContaining(normalize(text), limit, true, result);
+        return result;
+    }
+
+    /**
+     * This method is used to add the music bands whose names contain a text to a list until it is full.
+     * Texts shorter than a trigram are looked for name by name, which stops as soon as the list is full.
+     * @param text         the lower-cased text.
+     * @param limit        the greatest size of the list.
+     * @param skipPrefixed true if the names starting with the text have to be skipped.
+     * @param result       the list.
+     */
+    private void collectContaining(String text, int limit, boolean skipPrefixed, List<MusicBand> result) {
+        if (result.size() >= limit) {
+            return;
+        }
+        if (text.length() < GRAM_LENGTH) {
+            for (Map.Entry<String, ArrayList<MusicBand>> entry : names.entrySet()) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (entry.getKey().contains(text) && !(skipPrefixed && entry.getKey().startsWith(text))) {
+                    entry.getValue().stream().limit(limit - result.size()).forEach(result::add);
+                }
+            }
+            return;
+        }
+        candidateRows(text).forEach(row -> {
+            if (result.size() < limit) {
+                MusicBand musicBand = rowTable.get(row);
+                String name = normalize(musicBand.getName());
+                if (name.contains(text) && !(skipPrefixed && name.startsWith(text))) {
+                    result.add(musicBand);
+                }
+            }
+        });
+    }
+
+    /**
+     * This method is used to find the rows whose names contain all the trigrams of a text. The bitmaps are intersected from the smallest one, which keeps every intermediate result small.
+     * @param text the lower-cased text, at least 3 characters long.
+     * @return the candidate rows.
+     */
+    private CompressedBitmap candidateRows(String text) {
+        ArrayList<CompressedBitmap> bitmaps = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            CompressedBitmap rows = trigrams.get(trigram(text, i));
+            if (rows == null) {
+                return new CompressedBitmap();
+            }
+            bitmaps.add(rows);
+        }
+        bitmaps.sort(Comparator.comparingInt(CompressedBitmap::size));
+        CompressedBitmap result = bitmaps.get(0);
+        for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+            result = CompressedBitmap.and(result, bitmaps.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to pack the trigram at a position of a text into a long.
+     * @param text     the text.
+     * @param position the position of the trigram's first character.
+     * @return the packed trigram.
+     */
+    private static long trigram(String text, int position) {
+        return (long) text.charAt(position) << 32 | (long) text.charAt(position + 1) << 16 | text.charAt(position + 2);
+    }
+
+    /**
+     * This method is used to bring a name to the form it is indexed in.
+     * @param name the name.
+     * @return the lower-cased name, <p>null if the name is null.
+     */
+    private static String normalize(String name) {
+        return name == null ? null : name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in NameIndex.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "NameIndex (" + names.size() + " distinct names, " + trigrams.size() + " trigrams)";
+    }
+}
@@ -0,0 +1,144 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.data.MusicGenre;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * This enum represents the music band's fields which can be used in a query: in conditions, in ordering and in projections.
+ */
+public enum QueryField {
+    /**
+     * This value represents the music band's ID.
+     */
+    ID(MusicBand::getId, Integer::valueOf, "id"),
+    /**
+     * This value represents the music band's name.
+     */
+    NAME(MusicBand::getName, value -> value, "name"),
+    /**
+     * This value represents the music band's X coordinate.
+     */
+    X(musicBand -> musicBand.getCoordinates().getX(), Float::valueOf, "x"),
+    /**
+     * This value represents the music band's Y coordinate.
+     */
+    Y(musicBand -> musicBand.getCoordinates().getY(), Float::valueOf, "y"),
+    /**
+     * This value represents the music band's creation date.
+     */
+    CREATION_DATE(musicBand -> LocalDateTime.ofInstant(musicBand.getCreationDate().toInstant(), ZoneId.systemDefault()), QueryField::parseDateTime, "creation_date", "created"),
+    /**
+     * This value represents the music band's number of participants.
+     */
+    NUMBER_OF_PARTICIPANTS(MusicBand::getNumberOfParticipants, Long::valueOf, "participants", "number_of_participants"),
+    /**
+     * This value represents the music band's establishment date.
+     */
+    ESTABLISHMENT_DATE(MusicBand::getEstablishmentDate, QueryField::parseDateTime, "establishment_date", "established"),
+    /**
+     * This value represents the music band's genre.
+     */
+    MUSIC_GENRE(MusicBand::getMusicGenre, value -> MusicGenre.valueOf(value.toUpperCase(Locale.ROOT)), "genre", "music_genre"),
+    /**
+     * This value represents the address of the music band's studio.
+     */
+    STUDIO(musicBand -> musicBand.getStudio() == null ? null : musicBand.getStudio().getAddress(), value -> value, "studio");
+
+    /**
+     * This structure maps all the names of the fields to the fields themselves.
+     */
+    private static final Map<String, QueryField> BY_NAME = new HashMap<>();
+
+    static {
+        for (QueryField queryField : values()) {
+            for (String name : queryField.names) {
+                BY_NAME.put(name, queryField);
+            }
+        }
+    }
+
+    /**
+     * This field holds the function which reads the field's value from a music band.
+     */
+    private final Function<MusicBand, Comparable<?>> extractor;
+    /**
+     * This field holds the function which turns a literal of a query into a value of the field's type.
+     */
+    private final Function<String, Comparable<?>> parser;
+    /**
+     * This field holds the names via which the field is referred to. The first one is used as a column header.
+     */
+    private final String[] names;
+    /**
+     * This field holds the name which is used as a column header.
+     * -- GETTER --
+     * Getter method for the field's column name.
+     */
+    @Getter
+    private final String columnName;
+
+    /**
+     * Constructs a QueryField with the specified extractor, literal parser and names.
+     * @param extractor the function which reads the value.
+     * @param parser    the function which parses a literal.
+     * @param names     the field's names.
+     */
+    QueryField(Function<MusicBand, Comparable<?>> extractor, Function<String, Comparable<?>> parser, String... names) {
+        this.extractor = extractor;
+        this.parser = parser;
+        this.names = names;
+        this.columnName = names[0];
+    }
+
+    /**
+     * This method is used to find a field by any of its names.
+     * @param name the field's name (case-insensitive).
+     * @return the corresponding field, <p>null if the name is unknown.
+     */
+    public static QueryField byName(String name) {
+        return BY_NAME.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * This method is used to read the field's value from a music band.
+     * @param musicBand the music band.
+     * @return the value, <p>null if the field isn't set.
+     */
+    public Comparable<?> extract(MusicBand musicBand) {
+        return extractor.apply(musicBand);
+    }
+
+    /**
+     * This method is used to turn a literal of a query into a value of the field's type.
+     * @param literal the literal.
+     * @return the parsed value.
+     * @throws IllegalArgumentException if the literal doesn't fit the field's type.
+     */
+    public Comparable<?> parse(String literal) {
+        return parser.apply(literal);
+    }
+
+    /**
+     * This method is used to parse a date literal: either a date (yyyy-MM-dd) or a date and a time (yyyy-MM-ddTHH:mm[:ss]).
+     * @param literal the literal.
+     * @return the parsed date and time.
+     * @throws IllegalArgumentException if the literal is not a date.
+     */
+    private static LocalDateTime parseDateTime(String literal) {
+        try {
+            return literal.indexOf('T') >= 0 ? LocalDateTime.parse(literal) : LocalDate.parse(literal).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("'" + literal + "' is not a date.", e);
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.exceptions.QuerySyntaxException;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Class used for compiling the text of a query into a QueryPlan. The grammar is:
+ * <pre>
+ * query      := [explain] [where condition] [order by field [asc|desc] {, field [asc|desc]}] [limit number] [select field {, field}]
+ * condition  := term {or term}
+ * term       := factor {and factor}
+ * factor     := not factor | ( condition ) | field operator literal
+ * operator   := = | != | &lt; | &lt;= | &gt; | &gt;= | ~ (contains, case-insensitive)
+ * </pre>
+ * The comparisons which are joined by 'and' at the top level of the condition are also kept separately, so the planner can answer them with indexes.
+ * Keywords are case-insensitive. A literal is either a bare word (e.g. POP, 5, 2015-09-11) or a quoted string.
+ */
+public final class QueryParser {
+    /**
+     * This field holds the characters which a bare word consists of.
+     */
+    private static final String WORD_CHARACTERS = "_.-:+";
+    /**
+     * This field holds the tokens of the query.
+     */
+    private final List<Token> tokens;
+    /**
+     * This field holds the comparisons which every result has to satisfy.
+     */
+    private final List<IndexCondition> indexConditions = new ArrayList<>();
+    /**
+     * This field holds the position of the current token.
+     */
+    private int position;
+
+    /**
+     * Constructs a QueryParser with the specified tokens.
+     * @param tokens the tokens of the query.
+     */
+    private QueryParser(List<Token> tokens) {
+        this.tokens = tokens;
+    }
+
+    /**
+     * This method is used to compile a query.
+     * @param text the query's text.
+     * @return compiled plan.
+     * @throws QuerySyntaxException if the query is invalid.
+     */
+    public static QueryPlan parse(String text) {
+        QueryParser queryParser = new QueryParser(tokenize(text));
+        return queryParser.parseQuery(text.strip());
+    }
+
+    /**
+     * This method is used to parse the clauses of a query. Every clause may appear at most once.
+     * @param text the query's text.
+     * @return compiled plan.
+     */
+    private QueryPlan parseQuery(String text) {
+        Predicate<MusicBand> predicate = null;
+        Comparator<MusicBand> comparator = null;
+        Integer limit = null;
+        List<QueryField> projection = null;
+        boolean explained = acceptKeyword("explain");
+        while (position < tokens.size()) {
+            Token keyword = next();
+            switch (keyword.text().toLowerCase(Locale.ROOT)) {
+                case "where" -> {
+                    checkDuplicate(predicate, keyword);
+                    predicate = parseCondition(indexConditions);
+                }
+                case "order" -> {
+                    checkDuplicate(comparator, keyword);
+                    expectKeyword("by");
+                    comparator = parseOrder();
+                }
+                case "limit" -> {
+                    checkDuplicate(limit, keyword);
+                    limit = parseLimit();
+                }
+                case "select" -> {
+                    checkDuplicate(projection, keyword);
+                    projection = parseProjection();
+                }
+                default -> throw error("Expected 'where', 'order by', 'limit' or 'select' but found '" + keyword.text() + "'.");
+            }
+        }
+        return new QueryPlan(text, predicate == null ? musicBand -> true : predicate, comparator,
+                limit == null ? Integer.MAX_VALUE : limit, projection == null ? List.of() : List.copyOf(projection), List.copyOf(indexConditions), explained);
+    }
+
+    /**
+     * This method is used to parse a disjunction. Once a disjunction is met, none of its comparisons is required for every result.
+     * @param conjuncts the list to which the required comparisons are added, <p>null if they aren't collected.
+     * @return compiled condition.
+     */
+    private Predicate<MusicBand> parseCondition(List<IndexCondition> conjuncts) {
+        Predicate<MusicBand> predicate = parseTerm(conjuncts);
+        while (acceptKeyword("or")) {
+            if (conjuncts != null) {
+                conjuncts.clear();
+                conjuncts = null;
+            }
+            predicate = predicate.or(parseTerm(null));
+        }
+        return predicate;
+    }
+
+    /**
+     * This method is used to parse a conjunction.
+     * @param conjuncts the list to which the required comparisons are added, <p>null if they aren't collected.
+     * @return compiled condition.
+     */
+    private Predicate<MusicBand> parseTerm(List<IndexCondition> conjuncts) {
+        Predicate<MusicBand> predicate = parseFactor(conjuncts);
+        while (acceptKeyword("and")) {
+            predicate = predicate.and(parseFactor(conjuncts));
+        }
+        return predicate;
+    }
+
+    /**
+     * This method is used to parse a negation, a parenthesized condition or a comparison.
+     * @param conjuncts the list to which a required comparison is added, <p>null if it isn't collected.
+     * @return compiled condition.
+     */
+    private Predicate<MusicBand> parseFactor(List<IndexCondition> conjuncts) {
+        if (acceptKeyword("not")) {
+            return parseFactor(null).negate();
+        }
+        if (acceptSymbol("(")) {
+            Predicate<MusicBand> predicate = parseCondition(null);
+            if (!acceptSymbol(")")) {
+                throw error("Expected ')'.");
+            }
+            return predicate;
+        }
+        QueryField queryField = parseField();
+        Token operator = next();
+        Token literal = next();
+        if (operator.quoted() || !operator.symbol()) {
+            throw error("Expected a comparison operator but found '" + operator.text() + "'.");
+        }
+        if (literal.symbol()) {
+            throw error("Expected a value but found '" + literal.text() + "'.");
+        }
+        if (operator.text().equals("~")) {
+            String needle = literal.text().toLowerCase(Locale.ROOT);
+            return musicBand -> {
+                Object value = queryField.extract(musicBand);
+                return value != null && value.toString().toLowerCase(Locale.ROOT).contains(needle);
+            };
+        }
+        ComparisonOperator comparisonOperator = ComparisonOperator.bySymbol(operator.text());
+        if (comparisonOperator == null) {
+            throw error("Unknown operator '" + operator.text() + "'.");
+        }
+        Comparable<?> expected;
+        try {
+            expected = queryField.parse(literal.text());
+        } catch (IllegalArgumentException e) {
+            throw error("'" + literal.text() + "' is not a valid value of " + queryField.getColumnName() + ".");
+        }
+        if (conjuncts != null && comparisonOperator.isSargable()) {
+            conjuncts.add(new IndexCondition(queryField, comparisonOperator, expected));
+        }
+        return musicBand -> {
+            Comparable<?> value = queryField.extract(musicBand);
+            return value != null && comparisonOperator.matches(ComparisonOperator.compareValues(value, expected));
+        };
+    }
+
+    /**
+     * This method is used to parse an 'order by' list into a comparator chain. Unset values go last.
+     * @return compiled comparator.
+     */
+    private Comparator<MusicBand> parseOrder() {
+        Comparator<MusicBand> comparator = null;
+        do {
+            QueryField queryField = parseField();
+            Comparator<MusicBand> fieldComparator = Comparator.comparing(queryField::extract, Comparator.nullsLast(ComparisonOperator::compareValues));
+            if (acceptKeyword("desc")) {
+                fieldComparator = fieldComparator.reversed();
+            } else {
+                acceptKeyword("asc");
+            }
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        } while (acceptSymbol(","));
+        return comparator;
+    }
+
+    /**
+     * This method is used to parse the value of a 'limit' clause.
+     * @return the limit.
+     */
+    private int parseLimit() {
+        Token token = next();
+        try {
+            int limit = Integer.parseInt(token.text());
+            if (limit < 0 || token.quoted()) {
+                throw new NumberFormatException();
+            }
+            return limit;
+        } catch (NumberFormatException e) {
+            throw error("Expected a non-negative number after 'limit' but found '" + token.text() + "'.");
+        }
+    }
+
+    /**
+     * This method is used to parse a 'select' list.
+     * @return the selected fields in their order.
+     */
+    private List<QueryField> parseProjection() {
+        ArrayList<QueryField> projection = new ArrayList<>();
+        do {
+            projection.add(parseField());
+        } while (acceptSymbol(","));
+        return projection;
+    }
+
+    /**
+     * This method is used to parse a field's name.
+     * @return the field.
+     */
+    private QueryField parseField() {
+        Token token = next();
+        QueryField queryField = token.quoted() || token.symbol() ? null : QueryField.byName(token.text());
+        if (queryField == null) {
+            throw error("Unknown field '" + token.text() + "'. Available fields: " + availableFields() + ".");
+        }
+        return queryField;
+    }
+
+    /**
+     * This method is used to take the current token.
+     * @return the token.
+     */
+    private Token next() {
+        if (position >= tokens.size()) {
+            throw error("Unexpected end of the query.");
+        }
+        return tokens.get(position++);
+    }
+
+    /**
+     * This method is used to skip a keyword if it is the current token.
+     * @param keyword the keyword.
+     * @return true if the keyword has been skipped, <p>false otherwise.
+     */
+    private boolean acceptKeyword(String keyword) {
+        if (position < tokens.size() && !tokens.get(position).quoted() && tokens.get(position).text().equalsIgnoreCase(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method is used to skip a symbol if it is the current token.
+     * @param symbol the symbol.
+     * @return true if the symbol has been skipped, <p>false otherwise.
+     */
+    private boolean acceptSymbol(String symbol) {
+        if (position < tokens.size() && tokens.get(position).symbol() && tokens.get(position).text().equals(symbol)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method is used to require a keyword.
+     * @param keyword the keyword.
+     */
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected '" + keyword + "'.");
+        }
+    }
+
+    /**
+     * This method is used to reject a clause which appears for the second time.
+     * @param clause  the clause's value parsed so far.
+     * @param keyword the clause's keyword.
+     */
+    private void checkDuplicate(Object clause, Token keyword) {
+        if (clause != null) {
+            throw error("The clause '" + keyword.text() + "' appears more than once.");
+        }
+    }
+
+    /**
+     * This method is used to build a syntax error which points to the current token.
+     * @param message the error's description.
+     * @return the exception to be thrown.
+     */
+    private QuerySyntaxException error(String message) {
+        return new QuerySyntaxException(message + " (token " + position + ")", new RuntimeException());
+    }
+
+    /**
+     * This method is used to list the names of all the fields.
+     * @return comma-separated field names.
+     */
+    private static String availableFields() {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (QueryField queryField : QueryField.values()) {
+            joiner.add(queryField.getColumnName());
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * This method is used to split the text of a query into words, quoted strings and symbols.
+     * @param text the query's text.
+     * @return the tokens.
+     * @throws QuerySyntaxException if a quoted string isn't closed or an unknown character is met.
+     */
+    private static List<Token> tokenize(String text) {
+        ArrayList<Token> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, i + 1);
+                if (end < 0) {
+                    throw new QuerySyntaxException("The quoted string at position " + i + " isn't closed.", new RuntimeException());
+                }
+                tokens.add(new Token(text.substring(i + 1, end), true, false));
+                i = end + 1;
+            } else if (Character.isLetterOrDigit(c) || WORD_CHARACTERS.indexOf(c) >= 0) {
+                int start = i;
+                while (i < text.length() && (Character.isLetterOrDigit(text.charAt(i)) || WORD_CHARACTERS.indexOf(text.charAt(i)) >= 0)) {
+                    i++;
+                }
+                tokens.add(new Token(text.substring(start, i), false, false));
+            } else if ((c == '!' || c == '<' || c == '>') && i + 1 < text.length() && text.charAt(i + 1) == '=') {
+                tokens.add(new Token(text.substring(i, i + 2), false, true));
+                i += 2;
+            } else if ("=<>~(),".indexOf(c) >= 0) {
+                tokens.add(new Token(String.valueOf(c), false, true));
+                i++;
+            } else {
+                throw new QuerySyntaxException("Unexpected character '" + c + "' at position " + i + ".", new RuntimeException());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * This record represents a token of a query.
+     * @param text   the token's text (without quotes).
+     * @param quoted true if the token is a quoted string.
+     * @param symbol true if the token is an operator, a parenthesis or a comma.
+     */
+    private record Token(String text, boolean quoted, boolean symbol) {
+    }
+}
@@ -0,0 +1,134 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * This class represents a compiled query: a predicate, an optional comparator chain, a limit, an optional projection and the conditions an index can answer.
+ * The plan doesn't decide how the music bands are found: the QueryPlanner chooses the access path on every execution, since the statistics change with the collection.
+ * A plan is immutable, so a cached plan can be executed by several requests at the same time.
+ * --CONSTRUCTOR--
+ * Constructs a QueryPlan with the specified fields.
+ */
+@Getter
+@AllArgsConstructor
+public class QueryPlan {
+    /**
+     * This field holds the normalized text of the query.
+     */
+    private final String text;
+    /**
+     * This field holds the compiled 'where' clause (always true if there is none).
+     */
+    private final Predicate<MusicBand> predicate;
+    /**
+     * This field holds the compiled 'order by' clause, <p>null if the order of the collection is kept.
+     */
+    private final Comparator<MusicBand> comparator;
+    /**
+     * This field holds the maximum amount of results (Integer.MAX_VALUE if there is no 'limit' clause).
+     */
+    private final int limit;
+    /**
+     * This field holds the fields of the 'select' clause, <p>an empty list if whole music bands are returned.
+     */
+    private final List<QueryField> projection;
+    /**
+     * This field holds the comparisons which every result has to satisfy. The planner may answer them with indexes.
+     */
+    private final List<IndexCondition> indexConditions;
+    /**
+     * This field determines whether the plan is only explained instead of returning its results.
+     */
+    private final boolean explained;
+
+    /**
+     * This method is used to execute the plan in a single pass over the collection or over the candidates found by the planner.
+     * Without ordering the pass stops as soon as the limit is reached; with ordering and a limit only the best elements are kept in a bounded heap.
+     * @param musicBands the collection or the candidates.
+     * @return matching music bands in their order.
+     */
+    public List<MusicBand> execute(Collection<MusicBand> musicBands) {
+        if (comparator == null) {
+            ArrayList<MusicBand> result = new ArrayList<>();
+            for (MusicBand musicBand : musicBands) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (predicate.test(musicBand)) {
+                    result.add(musicBand);
+                }
+            }
+            return result;
+        }
+        if (limit == Integer.MAX_VALUE) {
+            ArrayList<MusicBand> result = new ArrayList<>();
+            for (MusicBand musicBand : musicBands) {
+                if (predicate.test(musicBand)) {
+                    result.add(musicBand);
+                }
+            }
+            result.sort(comparator);
+            return result;
+        }
+        PriorityQueue<MusicBand> best = new PriorityQueue<>(Math.min(limit, 1024) + 1, comparator.reversed());
+        for (MusicBand musicBand : musicBands) {
+            if (predicate.test(musicBand)) {
+                best.add(musicBand);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        }
+        ArrayList<MusicBand> result = new ArrayList<>(best);
+        result.sort(comparator);
+        return result;
+    }
+
+    /**
+     * This method is used to check whether the plan returns selected fields instead of whole music bands.
+     * @return true if there is a 'select' clause, <p>false otherwise.
+     */
+    public boolean isProjected() {
+        return !projection.isEmpty();
+    }
+
+    /**
+     * This method is used to get the headers of the selected fields.
+     * @return column names in the order of the 'select' clause.
+     */
+    public List<String> columns() {
+        return projection.stream().map(QueryField::getColumnName).toList();
+    }
+
+    /**
+     * This method is used to turn music bands into rows of the selected fields.
+     * @param musicBands the music bands.
+     * @return one row per music band.
+     */
+    public List<String[]> project(List<MusicBand> musicBands) {
+        ArrayList<String[]> rows = new ArrayList<>(musicBands.size());
+        for (MusicBand musicBand : musicBands) {
+            String[] row = new String[projection.size()];
+            for (int i = 0; i < row.length; i++) {
+                Object value = projection.get(i).extract(musicBand);
+                row[i] = value == null ? "" : value.toString();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in QueryPlan.
+     * @return values of a QueryPlan parsed to String data type.
+     */
+    @Override
+    public String toString() {
+        return "QueryPlan[" + text + "]";
+    }
+}
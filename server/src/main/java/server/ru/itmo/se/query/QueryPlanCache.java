@@ -0,0 +1,66 @@
+package server.ru.itmo.se.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class used for keeping compiled plans by the text of their queries, so a query which is repeated (e.g. by a dashboard) is parsed only once.
+ * The least recently used plan is discarded first. Queries which fail to compile are not cached.
+ */
+public class QueryPlanCache {
+    /**
+     * This field holds the amount of plans that are kept at the same time.
+     */
+    private static final int CAPACITY = 128;
+    /**
+     * This structure maps the normalized texts of queries to their compiled plans.
+     */
+    private final Map<String, QueryPlan> plans = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, QueryPlan> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+    /**
+     * This field holds the amount of queries whose plans have been found in the cache.
+     */
+    private long hits;
+    /**
+     * This field holds the amount of queries which have been compiled.
+     */
+    private long misses;
+
+    /**
+     * This method is used to get the plan of a query, compiling it if it isn't cached yet.
+     * @param text the query's text.
+     * @return compiled plan.
+     * @throws common.ru.itmo.se.exceptions.QuerySyntaxException if the query is invalid.
+     */
+    public QueryPlan compile(String text) {
+        String key = text.strip();
+        synchronized (plans) {
+            QueryPlan queryPlan = plans.get(key);
+            if (queryPlan != null) {
+                hits++;
+                return queryPlan;
+            }
+        }
+        QueryPlan queryPlan = QueryParser.parse(key);
+        synchronized (plans) {
+            misses++;
+            plans.putIfAbsent(key, queryPlan);
+        }
+        return queryPlan;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in QueryPlanCache.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        synchronized (plans) {
+            return "QueryPlanCache (" + plans.size() + "/" + CAPACITY + " plans, " + hits + " hits, " + misses + " misses)";
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import lombok.Getter;
+
+import java.util.*;
+
+/**
+ * Class used for keeping the secondary indexes of the collection and choosing the access path of every query.
+ * The choice is cost-based: the selectivity of every indexed condition is estimated from the index's statistics,
+ * and the cheapest of a full scan, a scan of the most selective index and an intersection of the most selective indexes is taken.
+ * Low-cardinality fields (genre, participants) are kept in bitmap indexes over the rows of a RowTable, whose entries are far cheaper to read and intersect.
+ * The NameIndex of find_by_name is kept here as well, since its trigram bitmaps refer to the same rows.
+ */
+public class QueryPlanner {
+    /**
+     * This field holds the cost of reading an index entry, relative to the cost of filtering a row.
+     */
+    private static final double INDEX_ENTRY_COST = 0.2;
+    /**
+     * This field holds the cost of reading a row of a bitmap index, relative to the cost of filtering a row.
+     */
+    private static final double BITMAP_ENTRY_COST = 0.01;
+    /**
+     * This field holds the cost of filtering a row by the whole 'where' clause.
+     */
+    private static final double ROW_COST = 1.0;
+    /**
+     * This field holds the fields which are indexed in sorted indexes.
+     */
+    private static final QueryField[] SORTED_FIELDS = {QueryField.ID, QueryField.ESTABLISHMENT_DATE};
+    /**
+     * This field holds the rows of the collection which the bitmap indexes refer to.
+     */
+    private final RowTable rowTable = new RowTable();
+    /**
+     * This field holds the index of the music bands' names, which shares the rows of the bitmap indexes.
+     * -- GETTER --
+     * Getter method for the NameIndex instance.
+     */
+    @Getter
+    private final NameIndex nameIndex = new NameIndex(rowTable);
+    /**
+     * This structure maps the indexed fields to their indexes.
+     */
+    private final Map<QueryField, FieldIndex> indexes = new EnumMap<>(QueryField.class);
+
+    /**
+     * Constructs a QueryPlanner with empty indexes.
+     */
+    public QueryPlanner() {
+        for (QueryField queryField : SORTED_FIELDS) {
+            indexes.put(queryField, new SortedFieldIndex(queryField));
+        }
+        indexes.put(QueryField.NUMBER_OF_PARTICIPANTS, BitmapFieldIndex.byParticipantBuckets(rowTable));
+        indexes.put(QueryField.MUSIC_GENRE, BitmapFieldIndex.byGenre(rowTable));
+    }
+
+    /**
+     * This method is used to index a music band which has been added to the collection.
+     * @param musicBand the music band.
+     */
+    public void add(MusicBand musicBand) {
+        int row = rowTable.add(musicBand);
+        indexes.values().forEach(fieldIndex -> fieldIndex.add(musicBand, row));
+        nameIndex.add(musicBand, row);
+    }
+
+    /**
+     * This method is used to remove a music band which has been removed from the collection.
+     * @param musicBand the music band.
+     */
+    public void remove(MusicBand musicBand) {
+        int row = rowTable.remove(musicBand);
+        indexes.values().forEach(fieldIndex -> fieldIndex.remove(musicBand, row));
+        nameIndex.remove(musicBand, row);
+    }
+
+    /**
+     * This method is used to empty all the indexes.
+     */
+    public void clear() {
+        indexes.values().forEach(FieldIndex::clear);
+        nameIndex.clear();
+        rowTable.clear();
+    }
+
+    /**
+     * This method is used to index a whole collection anew, e.g. after it has been loaded.
+     * @param musicBands the collection.
+     */
+    public void rebuild(Collection<MusicBand> musicBands) {
+        clear();
+        musicBands.forEach(this::add);
+    }
+
+    /**
+     * This method is used to estimate the amount of rows which satisfy an indexed condition.
+     * @param condition      the condition.
+     * @param collectionSize the size of the collection, which is returned for a field without an index.
+     * @return estimated amount of rows.
+     */
+    public double estimate(IndexCondition condition, int collectionSize) {
+        FieldIndex fieldIndex = indexes.get(condition.field());
+        return fieldIndex == null ? collectionSize : fieldIndex.estimate(condition.operator(), condition.value());
+    }
+
+    /**
+     * This method is used to choose the cheapest access path of a query.
+     * @param queryPlan      the compiled query.
+     * @param collectionSize the size of the collection.
+     * @return the chosen access path.
+     */
+    public AccessPath choose(QueryPlan queryPlan, int collectionSize) {
+        List<IndexCondition> usable = new ArrayList<>();
+        Map<IndexCondition, Double> estimates = new HashMap<>();
+        double selectivity = 1;
+        for (IndexCondition condition : queryPlan.getIndexConditions()) {
+            if (indexes.containsKey(condition.field())) {
+                double estimate = estimate(condition, collectionSize);
+                usable.add(condition);
+                estimates.put(condition, estimate);
+                selectivity *= collectionSize == 0 ? 0 : estimate / collectionSize;
+            }
+        }
+        double estimatedRows = collectionSize * selectivity;
+        AccessPath best = new AccessPath(List.of(), List.of(), collectionSize * ROW_COST, estimatedRows);
+        usable.sort(Comparator.comparingDouble(estimates::get));
+        double entriesCost = 0;
+        double intersectionSelectivity = 1;
+        for (int k = 1; k <= usable.size(); k++) {
+            double estimate = estimates.get(usable.get(k - 1));
+            entriesCost += estimate * (indexes.get(usable.get(k - 1).field()) instanceof BitmapFieldIndex ? BITMAP_ENTRY_COST : INDEX_ENTRY_COST);
+            intersectionSelectivity *= collectionSize == 0 ? 0 : estimate / collectionSize;
+            double filteredRows = k == 1 ? estimate : collectionSize * intersectionSelectivity;
+            double cost = entriesCost + filteredRows * ROW_COST;
+            if (cost < best.getCost()) {
+                List<IndexCondition> conditions = List.copyOf(usable.subList(0, k));
+                best = new AccessPath(conditions, conditions.stream().map(condition -> indexes.get(condition.field())).toList(), cost, estimatedRows);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * This method is used to describe the statistics of every index.
+     * @return statistics by field.
+     */
+    public Map<String, String> describeStatistics() {
+        Map<String, String> statistics = new LinkedHashMap<>();
+        indexes.forEach((queryField, fieldIndex) -> statistics.put(queryField.getColumnName(), fieldIndex.describeStatistics()));
+        return statistics;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in QueryPlanner.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "QueryPlanner (indexes on " + indexes.keySet() + ")";
+    }
+}
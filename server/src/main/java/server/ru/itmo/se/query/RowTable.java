@@ -0,0 +1,100 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.utility.CompressedBitmap;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class used for giving every music band of the collection a dense row number, so bitmap indexes can refer to music bands by bit positions.
+ * The rows of removed music bands are reused, which keeps the bitmaps dense while the collection changes.
+ */
+public class RowTable {
+    /**
+     * This field holds the music bands by their rows (null for a free row).
+     */
+    private final ArrayList<MusicBand> rows = new ArrayList<>();
+    /**
+     * This structure maps the music bands to their rows.
+     */
+    private final Map<MusicBand, Integer> positions = new IdentityHashMap<>();
+    /**
+     * This field holds the rows which have been freed and can be reused.
+     */
+    private final CompressedBitmap freeRows = new CompressedBitmap();
+
+    /**
+     * This method is used to give a music band a row.
+     * @param musicBand the music band which has been added to the collection.
+     * @return the music band's row.
+     */
+    public int add(MusicBand musicBand) {
+        int row;
+        if (freeRows.isEmpty()) {
+            row = rows.size();
+            rows.add(musicBand);
+        } else {
+            row = freeRows.max();
+            freeRows.remove(row);
+            rows.set(row, musicBand);
+        }
+        positions.put(musicBand, row);
+        return row;
+    }
+
+    /**
+     * This method is used to free the row of a music band.
+     * @param musicBand the music band which has been removed from the collection.
+     * @return the freed row, <p>-1 if the music band has no row.
+     */
+    public int remove(MusicBand musicBand) {
+        Integer row = positions.remove(musicBand);
+        if (row == null) {
+            return -1;
+        }
+        rows.set(row, null);
+        freeRows.add(row);
+        return row;
+    }
+
+    /**
+     * This method is used to free all the rows.
+     */
+    public void clear() {
+        rows.clear();
+        positions.clear();
+        freeRows.clear();
+    }
+
+    /**
+     * This method is used to get the music band of a row.
+     * @param row the row.
+     * @return the music band, <p>null if the row is free.
+     */
+    public MusicBand get(int row) {
+        return rows.get(row);
+    }
+
+    /**
+     * This method is used to turn a set of rows into the music bands in a single pass.
+     * @param selectedRows the rows.
+     * @return the music bands of the rows in the order of the rows.
+     */
+    public List<MusicBand> materialize(CompressedBitmap selectedRows) {
+        ArrayList<MusicBand> musicBands = new ArrayList<>(selectedRows.size());
+        selectedRows.forEach(row -> musicBands.add(rows.get(row)));
+        return musicBands;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in RowTable.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "RowTable (" + positions.size() + " rows, " + freeRows.size() + " free)";
+    }
+}
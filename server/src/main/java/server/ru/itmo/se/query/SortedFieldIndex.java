@@ -0,0 +1,149 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+
+import java.util.*;
+
+/**
+ * Class used for indexing a field in a sorted map from values to the music bands which have them, so both equality and range conditions are answered without a scan.
+ * Count, min and max are always exact; the histogram is rebuilt lazily once a tenth of the index has changed since it was built.
+ */
+public class SortedFieldIndex implements FieldIndex {
+    /**
+     * This field holds the share of changed rows after which the histogram is considered stale.
+     */
+    private static final double STALE_RATIO = 0.1;
+    /**
+     * This field holds the indexed field.
+     */
+    private final QueryField field;
+    /**
+     * This structure maps every value of the field to the music bands which have it.
+     */
+    private final TreeMap<Comparable<?>, ArrayList<MusicBand>> entries = new TreeMap<>(ComparisonOperator::compareValues);
+    /**
+     * This field holds the amount of indexed music bands.
+     */
+    private int size;
+    /**
+     * This field holds the amount of changes since the histogram has been built.
+     */
+    private int changes;
+    /**
+     * This field holds the histogram of the values, <p>null if it hasn't been built yet.
+     */
+    private Histogram histogram;
+
+    /**
+     * Constructs a SortedFieldIndex on the specified field.
+     * @param field the field to be indexed.
+     */
+    public SortedFieldIndex(QueryField field) {
+        this.field = field;
+    }
+
+    @Override
+    public QueryField getField() {
+        return field;
+    }
+
+    @Override
+    public void add(MusicBand musicBand, int row) {
+        Comparable<?> value = field.extract(musicBand);
+        if (value != null) {
+            entries.computeIfAbsent(value, key -> new ArrayList<>(1)).add(musicBand);
+            size++;
+            changes++;
+        }
+    }
+
+    @Override
+    public void remove(MusicBand musicBand, int row) {
+        Comparable<?> value = field.extract(musicBand);
+        ArrayList<MusicBand> musicBands = value == null ? null : entries.get(value);
+        if (musicBands != null && musicBands.remove(musicBand)) {
+            if (musicBands.isEmpty()) {
+                entries.remove(value);
+            }
+            size--;
+            changes++;
+        }
+    }
+
+    @Override
+    public void clear() {
+        entries.clear();
+        size = 0;
+        changes = 0;
+        synchronized (this) {
+            histogram = null;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Collection<MusicBand> candidates(ComparisonOperator operator, Comparable<?> value) {
+        if (operator == ComparisonOperator.EQUAL) {
+            ArrayList<MusicBand> musicBands = entries.get(value);
+            return musicBands == null ? List.of() : Collections.unmodifiableList(musicBands);
+        }
+        NavigableMap<Comparable<?>, ArrayList<MusicBand>> range = switch (operator) {
+            case LESS -> entries.headMap(value, false);
+            case LESS_OR_EQUAL -> entries.headMap(value, true);
+            case GREATER -> entries.tailMap(value, false);
+            case GREATER_OR_EQUAL -> entries.tailMap(value, true);
+            default -> throw new IllegalArgumentException("The operator '" + operator.getSymbol() + "' cannot be answered by an index.");
+        };
+        ArrayList<MusicBand> musicBands = new ArrayList<>();
+        range.values().forEach(musicBands::addAll);
+        return musicBands;
+    }
+
+    /**
+     * This method is used to estimate how many music bands satisfy a condition. Equality is counted exactly, since it costs a single lookup; ranges are estimated by the histogram.
+     * @param operator the condition's operator.
+     * @param value    the condition's value.
+     * @return estimated amount of music bands.
+     */
+    @Override
+    public double estimate(ComparisonOperator operator, Comparable<?> value) {
+        if (operator == ComparisonOperator.EQUAL) {
+            ArrayList<MusicBand> musicBands = entries.get(value);
+            return musicBands == null ? 0 : musicBands.size();
+        }
+        return Math.max(0, Math.min(size, histogram().estimate(operator, value)));
+    }
+
+    /**
+     * This method is used to get an up-to-date histogram. Requests are handled concurrently, so the rebuilding is synchronized.
+     * @return the histogram.
+     */
+    private synchronized Histogram histogram() {
+        if (histogram == null || changes > STALE_RATIO * size) {
+            histogram = new Histogram(entries, size);
+            changes = 0;
+        }
+        return histogram;
+    }
+
+    @Override
+    public String describeStatistics() {
+        if (entries.isEmpty()) {
+            return "0 rows";
+        }
+        return size + " rows, " + entries.size() + " distinct, min " + entries.firstKey() + ", max " + entries.lastKey() + ", " + histogram();
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in SortedFieldIndex.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "SortedFieldIndex (" + field.getColumnName() + ")";
+    }
+}
@@ -0,0 +1,368 @@
+package server.ru.itmo.se.query;
+
+import common.ru.itmo.se.data.MusicBand;
+
+import java.util.*;
+
+/**
+ * Class used for indexing the music bands' coordinates in a k-d tree, so bounding box, radius and nearest neighbour queries don't scan the whole collection.
+ * The tree is stored in flat arrays: the median of every range is its root and the split axis alternates with the depth.
+ * Changes don't restructure the tree: added music bands wait in a small buffer and removed ones are marked as deleted,
+ * and the tree is rebuilt once the changes exceed an eighth of its size. Changes are made under the writer's lock, so queries never rebuild anything.
+ */
+public class SpatialIndex {
+    /**
+     * This field holds the least amount of changes after which the tree is rebuilt.
+     */
+    private static final int MIN_REBUILD_CHANGES = 64;
+    /**
+     * This field holds the share of changed music bands after which the tree is rebuilt.
+     */
+    private static final double REBUILD_RATIO = 0.125;
+    /**
+     * This field holds the music bands of the tree in the tree's order.
+     */
+    private MusicBand[] bands = new MusicBand[0];
+    /**
+     * This field holds the X coordinates of the tree's music bands.
+     */
+    private float[] xs = new float[0];
+    /**
+     * This field holds the Y coordinates of the tree's music bands.
+     */
+    private float[] ys = new float[0];
+    /**
+     * This field holds the music bands which have been added since the tree has been built.
+     */
+    private final ArrayList<MusicBand> buffer = new ArrayList<>();
+    /**
+     * This field holds the music bands of the tree which have been removed since it has been built.
+     */
+    private final Set<MusicBand> deleted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * This method is used to index a music band which has been added to the collection.
+     * @param musicBand the music band.
+     */
+    public void add(MusicBand musicBand) {
+        if (musicBand.getCoordinates() == null) {
+            return;
+        }
+        if (!deleted.remove(musicBand)) {
+            buffer.add(musicBand);
+        }
+        rebuildIfStale();
+    }
+
+    /**
+     * This method is used to remove a music band which has been removed from the collection.
+     * @param musicBand the music band.
+     */
+    public void remove(MusicBand musicBand) {
+        if (musicBand.getCoordinates() == null) {
+            return;
+        }
+        for (int i = buffer.size() - 1; i >= 0; i--) {
+            if (buffer.get(i) == musicBand) {
+                buffer.set(i, buffer.get(buffer.size() - 1));
+                buffer.remove(buffer.size() - 1);
+                return;
+            }
+        }
+        deleted.add(musicBand);
+        rebuildIfStale();
+    }
+
+    /**
+     * This method is used to empty the index.
+     */
+    public void clear() {
+        bands = new MusicBand[0];
+        xs = new float[0];
+        ys = new float[0];
+        buffer.clear();
+        deleted.clear();
+    }
+
+    /**
+     * This method is used to index a whole collection anew, e.g. after it has been loaded.
+     * @param musicBands the collection.
+     */
+    public void rebuild(Collection<MusicBand> musicBands) {
+        clear();
+        musicBands.stream().filter(musicBand -> musicBand.getCoordinates() != null).forEach(buffer::add);
+        rebuild();
+    }
+
+    /**
+     * This method is used to get the amount of indexed music bands.
+     * @return amount of indexed music bands.
+     */
+    public int size() {
+        return bands.length - deleted.size() + buffer.size();
+    }
+
+    /**
+     * This method is used to rebuild the tree once the buffered changes would make the queries noticeably slower.
+     */
+    private void rebuildIfStale() {
+        if (buffer.size() + deleted.size() > Math.max(MIN_REBUILD_CHANGES, REBUILD_RATIO * bands.length)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * This method is used to build the tree of all the indexed music bands, merging the buffer and dropping the deleted ones.
+     */
+    private void rebuild() {
+        ArrayList<MusicBand> all = new ArrayList<>(size());
+        for (MusicBand musicBand : bands) {
+            if (!deleted.contains(musicBand)) {
+                all.add(musicBand);
+            }
+        }
+        all.addAll(buffer);
+        MusicBand[] newBands = all.toArray(new MusicBand[0]);
+        float[] newXs = new float[newBands.length];
+        float[] newYs = new float[newBands.length];
+        for (int i = 0; i < newBands.length; i++) {
+            newXs[i] = newBands[i].getCoordinates().getX();
+            newYs[i] = newBands[i].getCoordinates().getY();
+        }
+        build(newBands, newXs, newYs, 0, newBands.length, 0);
+        bands = newBands;
+        xs = newXs;
+        ys = newYs;
+        buffer.clear();
+        deleted.clear();
+    }
+
+    /**
+     * This method is used to arrange a range of the arrays into a k-d tree by placing the median on the current axis in the middle.
+     * @param bands the music bands.
+     * @param xs    their X coordinates.
+     * @param ys    their Y coordinates.
+     * @param from  the start of the range (inclusive).
+     * @param to    the end of the range (exclusive).
+     * @param depth the depth of the range's root.
+     */
+    private static void build(MusicBand[] bands, float[] xs, float[] ys, int from, int to, int depth) {
+        if (to - from <= 1) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        float[] keys = depth % 2 == 0 ? xs : ys;
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            float pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(bands, xs, ys, i++, j--);
+                }
+            }
+            if (middle <= j) {
+                high = j;
+            } else if (middle >= i) {
+                low = i;
+            } else {
+                break;
+            }
+        }
+        build(bands, xs, ys, from, middle, depth + 1);
+        build(bands, xs, ys, middle + 1, to, depth + 1);
+    }
+
+    /**
+     * This method is used to swap 2 entries of the tree's arrays.
+     * @param bands the music bands.
+     * @param xs    their X coordinates.
+     * @param ys    their Y coordinates.
+     * @param i     the first entry.
+     * @param j     the second entry.
+     */
+    private static void swap(MusicBand[] bands, float[] xs, float[] ys, int i, int j) {
+        MusicBand band = bands[i];
+        bands[i] = bands[j];
+        bands[j] = band;
+        float x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        float y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+    }
+
+    /**
+     * This method is used to find the music bands inside a bounding box (borders included).
+     * @param minX the least X coordinate.
+     * @param minY the least Y coordinate.
+     * @param maxX the greatest X coordinate.
+     * @param maxY the greatest Y coordinate.
+     * @return the music bands inside the box.
+     */
+    public List<MusicBand> withinBox(double minX, double minY, double maxX, double maxY) {
+        ArrayList<MusicBand> result = new ArrayList<>();
+        withinBox(0, bands.length, 0, minX, minY, maxX, maxY, result);
+        for (MusicBand musicBand : buffer) {
+            double x = musicBand.getCoordinates().getX();
+            double y = musicBand.getCoordinates().getY();
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                result.add(musicBand);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method is used to search a subtree for the music bands inside a bounding box.
+     * @param from   the start of the subtree (inclusive).
+     * @param to     the end of the subtree (exclusive).
+     * @param depth  the depth of the subtree's root.
+     * @param minX   the least X coordinate.
+     * @param minY   the least Y coordinate.
+     * @param maxX   the greatest X coordinate.
+     * @param maxY   the greatest Y coordinate.
+     * @param result the list the found music bands are added to.
+     */
+    private void withinBox(int from, int to, int depth, double minX, double minY, double maxX, double maxY, List<MusicBand> result) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        double x = xs[middle];
+        double y = ys[middle];
+        if (x >= minX && x <= maxX && y >= minY && y <= maxY && !deleted.contains(bands[middle])) {
+            result.add(bands[middle]);
+        }
+        double key = depth % 2 == 0 ? x : y;
+        if ((depth % 2 == 0 ? minX : minY) <= key) {
+            withinBox(from, middle, depth + 1, minX, minY, maxX, maxY, result);
+        }
+        if ((depth % 2 == 0 ? maxX : maxY) >= key) {
+            withinBox(middle + 1, to, depth + 1, minX, minY, maxX, maxY, result);
+        }
+    }
+
+    /**
+     * This method is used to find the music bands within a distance of a point, ordered by the distance.
+     * @param x      the point's X coordinate.
+     * @param y      the point's Y coordinate.
+     * @param radius the distance.
+     * @return the music bands within the distance, the nearest first.
+     */
+    public List<MusicBand> withinRadius(double x, double y, double radius) {
+        double radiusSquared = radius * radius;
+        List<MusicBand> result = new ArrayList<>();
+        for (MusicBand musicBand : withinBox(x - radius, y - radius, x + radius, y + radius)) {
+            if (distanceSquared(musicBand, x, y) <= radiusSquared) {
+                result.add(musicBand);
+            }
+        }
+        result.sort(Comparator.comparingDouble(musicBand -> distanceSquared(musicBand, x, y)));
+        return result;
+    }
+
+    /**
+     * This method is used to find the k music bands nearest to a point.
+     * @param x the point's X coordinate.
+     * @param y the point's Y coordinate.
+     * @param k the amount of music bands.
+     * @return at most k music bands, the nearest first.
+     */
+    public List<MusicBand> nearest(double x, double y, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<MusicBand> best = new PriorityQueue<>(k + 1, Comparator.comparingDouble((MusicBand musicBand) -> distanceSquared(musicBand, x, y)).reversed());
+        nearest(0, bands.length, 0, x, y, k, best);
+        for (MusicBand musicBand : buffer) {
+            offer(best, musicBand, x, y, k);
+        }
+        ArrayList<MusicBand> result = new ArrayList<>(best);
+        result.sort(Comparator.comparingDouble(musicBand -> distanceSquared(musicBand, x, y)));
+        return result;
+    }
+
+    /**
+     * This method is used to search a subtree for the music bands nearest to a point. The side of the split containing the point is searched first,
+     * and the other side only if the splitting line is closer than the farthest music band found so far.
+     * @param from  the start of the subtree (inclusive).
+     * @param to    the end of the subtree (exclusive).
+     * @param depth the depth of the subtree's root.
+     * @param x     the point's X coordinate.
+     * @param y     the point's Y coordinate.
+     * @param k     the amount of music bands.
+     * @param best  the nearest music bands found so far, the farthest at the head.
+     */
+    private void nearest(int from, int to, int depth, double x, double y, int k, PriorityQueue<MusicBand> best) {
+        if (from >= to) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        if (!deleted.contains(bands[middle])) {
+            offer(best, bands[middle], x, y, k);
+        }
+        double difference = depth % 2 == 0 ? x - xs[middle] : y - ys[middle];
+        boolean left = difference <= 0;
+        if (left) {
+            nearest(from, middle, depth + 1, x, y, k, best);
+        } else {
+            nearest(middle + 1, to, depth + 1, x, y, k, best);
+        }
+        if (best.size() < k || difference * difference <= distanceSquared(best.peek(), x, y)) {
+            if (left) {
+                nearest(middle + 1, to, depth + 1, x, y, k, best);
+            } else {
+                nearest(from, middle, depth + 1, x, y, k, best);
+            }
+        }
+    }
+
+    /**
+     * This method is used to keep a music band among the nearest ones if it is closer than the farthest of them.
+     * @param best      the nearest music bands found so far, the farthest at the head.
+     * @param musicBand the music band.
+     * @param x         the point's X coordinate.
+     * @param y         the point's Y coordinate.
+     * @param k         the amount of music bands.
+     */
+    private static void offer(PriorityQueue<MusicBand> best, MusicBand musicBand, double x, double y, int k) {
+        if (best.size() < k) {
+            best.add(musicBand);
+        } else if (distanceSquared(musicBand, x, y) < distanceSquared(best.peek(), x, y)) {
+            best.poll();
+            best.add(musicBand);
+        }
+    }
+
+    /**
+     * This method is used to calculate the squared distance between a music band and a point.
+     * @param musicBand the music band.
+     * @param x         the point's X coordinate.
+     * @param y         the point's Y coordinate.
+     * @return the squared distance.
+     */
+    private static double distanceSquared(MusicBand musicBand, double x, double y) {
+        double dx = musicBand.getCoordinates().getX() - x;
+        double dy = musicBand.getCoordinates().getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in SpatialIndex.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "SpatialIndex (" + bands.length + " in the tree, " + buffer.size() + " buffered, " + deleted.size() + " deleted)";
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * <p>
+ * This package contains the parser and the compiled plans of the query command, the secondary indexes and the spatial index of the coordinates.
+ * </p>
+ *
+ * @version 2.3
+ * @author Аригуун Болорболд | XVIIstarPt__
+ * @since 2.3
+ */
+package server.ru.itmo.se.query;
@@ -0,0 +1,203 @@
+package server.ru.itmo.se.utility;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class used for answering "is this key certainly absent?" with a few bit probes, before a lookup touches the collection's structures.
+ * The filter is sized for an expected amount of keys and a target false positive rate: m = -n ln p / (ln 2)^2 bits and k = m / n ln 2 probes,
+ * and the probes are derived from two halves of a mixed 64-bit key (double hashing).
+ * Keys can't be removed from a Bloom filter, so the owner counts removals and rebuilds the filter once they make it too stale.
+ * Lookups may run concurrently with each other (they only read the bits); additions are made under the writer's lock.
+ */
+public class BloomFilter {
+    /**
+     * This field holds the command line option which sets the target false positive rate (0 disables the filters).
+     */
+    public static final String OPTION_PREFIX = "--bloom-fpp=";
+    /**
+     * This field holds the default target false positive rate.
+     */
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+    /**
+     * This field holds the least amount of keys a filter is sized for.
+     */
+    private static final int MIN_CAPACITY = 1024;
+    /**
+     * This field holds the bits of the filter.
+     */
+    private final long[] bits;
+    /**
+     * This field holds the amount of bits.
+     */
+    private final long bitCount;
+    /**
+     * This field holds the amount of probes per key.
+     */
+    private final int probes;
+    /**
+     * This field holds the amount of keys the filter has been sized for.
+     */
+    private final int capacity;
+    /**
+     * This field holds the amount of keys which have been added.
+     */
+    private int insertions;
+    /**
+     * This field holds the amount of lookups the filter has answered "absent".
+     */
+    private final LongAdder negatives = new LongAdder();
+    /**
+     * This field holds the amount of lookups the filter has answered "maybe present".
+     */
+    private final LongAdder positives = new LongAdder();
+    /**
+     * This field holds the amount of "maybe present" answers which have turned out to be wrong.
+     */
+    private final LongAdder falsePositives = new LongAdder();
+
+    /**
+     * Constructs a BloomFilter for the specified amount of keys and false positive rate.
+     * @param expectedKeys      the expected amount of keys.
+     * @param falsePositiveRate the target false positive rate, between 0 and 1 (exclusive).
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        this.capacity = Math.max(MIN_CAPACITY, expectedKeys);
+        long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[(int) Math.max(1, (optimalBits + 63) >>> 6)];
+        this.bitCount = 64L * bits.length;
+        this.probes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+    }
+
+    /**
+     * This method is used to add a key.
+     * @param key the key.
+     */
+    public void add(long key) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        insertions++;
+    }
+
+    /**
+     * This method is used to check whether a key may have been added. The answer is counted for the measured false positive rate.
+     * @param key the key.
+     * @return false if the key certainly hasn't been added, <p>true if it may have been.
+     */
+    public boolean mightContain(long key) {
+        boolean result = test(key);
+        (result ? positives : negatives).increment();
+        return result;
+    }
+
+    /**
+     * This method is used to check whether any of several keys may have been added, e.g. the keys of all the cells equal coordinates may lie in. The answer is counted as a single lookup.
+     * @param keys the keys.
+     * @return false if none of the keys has been added, <p>true if some may have been.
+     */
+    public boolean mightContainAny(long[] keys) {
+        for (long key : keys) {
+            if (test(key)) {
+                positives.increment();
+                return true;
+            }
+        }
+        negatives.increment();
+        return false;
+    }
+
+    /**
+     * This method is used to check whether a key may have been added, without counting the answer.
+     * @param key the key.
+     * @return false if the key certainly hasn't been added, <p>true if it may have been.
+     */
+    private boolean test(long key) {
+        long hash = mix(key);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < probes; i++) {
+            long bit = Integer.toUnsignedLong(first + i * second) % bitCount;
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This method is used to report that a "maybe present" answer has turned out to be wrong.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    /**
+     * This method is used to check whether more keys have been added than the filter has been sized for.
+     * @return true if the filter is over its capacity, <p>false otherwise.
+     */
+    public boolean isOverCapacity() {
+        return insertions > capacity;
+    }
+
+    /**
+     * This method is used to get the amount of keys the filter has been sized for.
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * This method is used to calculate the false positive rate expected for the current amount of keys: (1 - e^(-kn/m))^k.
+     * @return expected false positive rate.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) probes * insertions / bitCount), probes);
+    }
+
+    /**
+     * This method is used to calculate the share of the lookups of absent keys which the filter hasn't rejected.
+     * @return measured false positive rate, <p>0 if no absent key has been looked up.
+     */
+    public double measuredFalsePositiveRate() {
+        long wrong = falsePositives.sum();
+        long absent = wrong + negatives.sum();
+        return absent == 0 ? 0 : (double) wrong / absent;
+    }
+
+    /**
+     * This method is used to describe the filter's size and how well it works.
+     * @return the filter's metrics parsed to String data type.
+     */
+    public String describeMetrics() {
+        return String.format(Locale.ROOT, "%d keys / %d capacity, %d KiB, %d probes, rejected %d of %d lookups, false positive rate %.4f (expected %.4f)",
+                insertions, capacity, bits.length / 128, probes, negatives.sum(), negatives.sum() + positives.sum(),
+                measuredFalsePositiveRate(), expectedFalsePositiveRate());
+    }
+
+    /**
+     * This method is used to spread the bits of a key over the whole long (the finalizer of SplitMix64).
+     * @param key the key.
+     * @return the mixed key.
+     */
+    private static long mix(long key) {
+        key ^= 0x9e3779b97f4a7c15L;
+        key = (key ^ (key >>> 30)) * 0xbf58476d1ce4e5b9L;
+        key = (key ^ (key >>> 27)) * 0x94d049bb133111ebL;
+        return key ^ (key >>> 31);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in BloomFilter.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "BloomFilter (" + describeMetrics() + ")";
+    }
+}
@@ -0,0 +1,109 @@
+package server.ru.itmo.se.utility;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Utility class used for reusing the buffers into which responses are written and encoded.
+ * Only buffers up to a certain capacity are kept, so a single huge response doesn't stay in memory after it has been sent.
+ */
+public class BufferPool {
+    /**
+     * This field holds the maximum amount of buffers of each kind that are kept in the pool.
+     */
+    private static final int MAX_POOLED_BUFFERS = 16;
+    /**
+     * This field holds the maximum capacity (in chars or bytes) of a buffer that is returned to the pool.
+     */
+    static final int MAX_POOLED_CAPACITY = 256 * 1024;
+    /**
+     * This field holds the initial capacity of a new buffer.
+     */
+    private static final int INITIAL_CAPACITY = 4096;
+    /**
+     * This field holds the pooled text buffers.
+     */
+    private static final ConcurrentLinkedDeque<StringBuilder> textBuffers = new ConcurrentLinkedDeque<>();
+    /**
+     * This field holds the amount of pooled text buffers.
+     */
+    private static final AtomicInteger textBufferCount = new AtomicInteger();
+    /**
+     * This field holds the pooled byte buffers.
+     */
+    private static final ConcurrentLinkedDeque<ByteBuffer> byteBuffers = new ConcurrentLinkedDeque<>();
+    /**
+     * This field holds the amount of pooled byte buffers.
+     */
+    private static final AtomicInteger byteBufferCount = new AtomicInteger();
+
+    /**
+     * This method is used to take an empty text buffer from the pool.
+     * @return empty text buffer.
+     */
+    static StringBuilder acquireText() {
+        StringBuilder buffer = textBuffers.pollFirst();
+        if (buffer == null) {
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+        textBufferCount.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * This method is used to return a text buffer to the pool. Buffers that have grown too large are dropped.
+     * @param buffer the buffer to be returned.
+     */
+    static void releaseText(StringBuilder buffer) {
+        if (buffer.capacity() > MAX_POOLED_CAPACITY || textBufferCount.incrementAndGet() > MAX_POOLED_BUFFERS) {
+            textBufferCount.updateAndGet(count -> Math.min(count, MAX_POOLED_BUFFERS));
+            return;
+        }
+        buffer.setLength(0);
+        textBuffers.offerFirst(buffer);
+    }
+
+    /**
+     * This method is used to take an empty byte buffer with at least the given capacity.
+     * @param capacity the required capacity.
+     * @return empty byte buffer.
+     */
+    public static ByteBuffer acquireBytes(int capacity) {
+        if (capacity <= MAX_POOLED_CAPACITY) {
+            ByteBuffer buffer = byteBuffers.pollFirst();
+            if (buffer != null) {
+                byteBufferCount.decrementAndGet();
+                if (buffer.capacity() >= capacity) {
+                    return buffer.clear();
+                }
+            }
+        }
+        return ByteBuffer.allocate(Math.max(capacity, INITIAL_CAPACITY));
+    }
+
+    /**
+     * This method is used to return a byte buffer to the pool. Buffers that have grown too large are dropped,
+     * and so are the read-only buffers over cached frames, since their bytes are shared.
+     * @param buffer the buffer to be returned.
+     */
+    public static void releaseBytes(ByteBuffer buffer) {
+        if (buffer.isReadOnly()) {
+            return;
+        }
+        if (buffer.capacity() > MAX_POOLED_CAPACITY || byteBufferCount.incrementAndGet() > MAX_POOLED_BUFFERS) {
+            byteBufferCount.updateAndGet(count -> Math.min(count, MAX_POOLED_BUFFERS));
+            return;
+        }
+        byteBuffers.offerFirst(buffer.clear());
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in BufferPool.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "BufferPool (utility class for reusing response buffers)";
+    }
+}
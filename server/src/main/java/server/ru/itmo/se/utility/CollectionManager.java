@@ -1,17 +1,32 @@
 package server.ru.itmo.se.utility;
 
+import common.ru.itmo.se.data.MusicBandRecord;
+import common.ru.itmo.se.interaction.PageRequest;
+import common.ru.itmo.se.utility.IDRegistry;
+import lombok.AccessLevel;
 import lombok.Getter;
 import common.ru.itmo.se.data.MusicBand;
+import server.ru.itmo.se.App;
+import server.ru.itmo.se.query.QueryPlanner;
+import server.ru.itmo.se.query.SpatialIndex;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
 /**
- * Utility class used for operations with a double-linked list and its management.
+ * Utility class used for operations with an indexed list (the collection) and its management.
  */
 @Getter
 public class CollectionManager {
+    /**
+     * This field holds the line which separates the music bands in the collection's text.
+     */
+    private static final String SEPARATOR = "-=".repeat(41);
     /**
      * This field holds the value of the latest session's date and time.
      * -- GETTER --
@@ -23,7 +38,13 @@ public class CollectionManager {
      * -- GETTER --
      * Getter method for the collection.
      */
-    private LinkedList<MusicBand> musicBandCollection = new LinkedList<>();
+    private IndexedList<MusicBand> musicBandCollection = new IndexedList<>();
+    /**
+     * This field holds the view of the collection in the order shown to the user: the stored order, or the order of the last shuffle.
+     * -- GETTER --
+     * Getter method for the collection in the shown order.
+     */
+    private PermutedList<MusicBand> orderedCollection = new PermutedList<>(musicBandCollection);
     /**
      * This field holds the value of the session's last Save date and time.
      * -- GETTER --
@@ -31,33 +52,129 @@ public class CollectionManager {
      */
     private LocalDateTime lastSaveTime;
     /**
-     * This field holds an instance of a FileManager which is responsible for operations with files.
+     * This field holds an instance of a StorageEngine which is responsible for persisting the collection.
+     * -- GETTER --
+     * Getter method for the StorageEngine instance.
+     */
+    private final StorageEngine storageEngine;
+    /**
+     * This field holds the registry of IDs that are taken in the collection. It is shared by the load validation, ID generation and additions.
+     * -- GETTER --
+     * Getter method for the ID registry.
+     */
+    private final IDRegistry idRegistry = new IDRegistry();
+    /**
+     * This structure maps the IDs of the collection's music bands to the music bands, so a music band is found by its ID in constant time.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Map<Integer, MusicBand> musicBandsByID = new HashMap<>();
+    /**
+     * This field determines whether the collection has been loaded from the storage. Until then, only commands that don't need the collection can be executed.
+     * -- GETTER --
+     * Getter method for the loading state.
+     */
+    private volatile boolean loaded;
+    /**
+     * This field holds the validator which is loading the collection at the moment (null if nothing is being loaded).
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile FileContentValidator loader;
+    /**
+     * This field holds the reason why the collection couldn't be loaded, <p>null if loading hasn't failed.
+     * -- GETTER --
+     * Getter method for the reason of the loading failure.
+     */
+    private volatile String loadFailure;
+    /**
+     * This field holds the version of the collection. It is increased by every change, so a page cursor can tell whether it still points to the same contents.
+     * -- GETTER --
+     * Getter method for the collection's version.
+     */
+    private volatile long version;
+    /**
+     * This field holds the encoded records of the whole collection in the shown order together with the version they have been encoded at, <p>null until 'show' needs them.
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile RenderedCollection renderedCollection;
+    /**
+     * This field holds the Paginator which keeps the snapshots of paged queries.
+     */
+    @Getter(AccessLevel.NONE)
+    private final Paginator paginator = new Paginator();
+    /**
+     * This field holds the ResponseCache which keeps the encoded responses of read-only commands for the current version of the collection.
+     * -- GETTER --
+     * Getter method for the ResponseCache instance.
+     */
+    private final ResponseCache responseCache = new ResponseCache();
+    /**
+     * This field holds the QueryPlanner which keeps the secondary indexes of the collection up to date.
+     * -- GETTER --
+     * Getter method for the QueryPlanner instance.
+     */
+    private final QueryPlanner queryPlanner = new QueryPlanner();
+    /**
+     * This field holds the SpatialIndex of the music bands' coordinates.
      * -- GETTER --
-     * Getter method for the FileManager instance.
+     * Getter method for the SpatialIndex instance.
      */
-    private final FileManager fileManager;
+    private final SpatialIndex spatialIndex = new SpatialIndex();
+    /**
+     * This field holds the ContentHashIndex which finds music bands with the same content for the duplicate check of 'add'.
+     */
+    @Getter(AccessLevel.NONE)
+    private final ContentHashIndex contentHashIndex = new ContentHashIndex();
+    /**
+     * This field holds the target false positive rate of the Bloom filters, <p>0 if they are disabled.
+     */
+    @Getter(AccessLevel.NONE)
+    private final double bloomFalsePositiveRate;
+    /**
+     * This field holds the Bloom filter of the taken IDs, which rejects lookups of absent IDs before the collection is searched (null if the filters are disabled).
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile BloomFilter idFilter;
+    /**
+     * This field holds the Bloom filter of the content hashes, which rejects most duplicate checks of new music bands before the ContentHashIndex is searched (null if the filters are disabled).
+     */
+    @Getter(AccessLevel.NONE)
+    private volatile BloomFilter contentFilter;
+    /**
+     * This field holds the amount of music bands which have been removed since the Bloom filters have been built. Their keys stay in the filters until the next rebuild.
+     */
+    @Getter(AccessLevel.NONE)
+    private int staleFilterKeys;
+
+    /**
+     * Constructs a CollectionManager with the specified storage engine. The collection isn't loaded until loadCollectionInBackground() is called.
+     * @param storageEngine StorageEngine instance.
+     */
+    public CollectionManager(StorageEngine storageEngine) {
+        this(storageEngine, BloomFilter.DEFAULT_FALSE_POSITIVE_RATE);
+    }
 
     /**
-     * Constructs a CollectionManager with the specified file manager.
-     * @param fileManager FileManager instance.
+     * Constructs a CollectionManager with the specified storage engine and false positive rate of the Bloom filters. The collection isn't loaded until loadCollectionInBackground() is called.
+     * @param storageEngine          StorageEngine instance.
+     * @param bloomFalsePositiveRate target false positive rate of the Bloom filters, <p>0 to disable them.
      */
-    public CollectionManager(FileManager fileManager) {
+    public CollectionManager(StorageEngine storageEngine, double bloomFalsePositiveRate) {
         this.lastInitTime = null;
         this.lastSaveTime = null;
-        this.fileManager = fileManager;
-        loadCollection();
+        this.storageEngine = storageEngine;
+        this.bloomFalsePositiveRate = bloomFalsePositiveRate;
     }
 
     /**
      * This method is technically a getter for the collection's size.
-     * @return linked list's size.
+     * @return collection's size.
      */
     public int collectionSize() {
         return musicBandCollection.size();
     }
 
     /**
-     * This method is used to get the collection's type (spoiler: it's LinkedList).
+     * This method is used to get the collection's type (spoiler: it's IndexedList, a counted B+ tree which keeps the insertion order).
      * @return collection's type.
      */
     public String getCollectionType() {
@@ -71,7 +188,7 @@ public class CollectionManager {
      */
     @Deprecated
     public MusicBand getFirst() {
-        return musicBandCollection.getFirst();
+        return orderedCollection.get(0);
     }
 
     /**
@@ -81,7 +198,7 @@ public class CollectionManager {
      */
     @Deprecated
     public MusicBand getLast() {
-        return musicBandCollection.getLast();
+        return orderedCollection.get(orderedCollection.size() - 1);
     }
 
     /**
@@ -93,6 +210,57 @@ public class CollectionManager {
         return musicBandCollection.contains(musicBand);
     }
 
+    /**
+     * This method is used to find a music band with the same content (every field except the ID and creation date) in constant time.
+     * @param musicBand the music band to be looked for.
+     * @return a music band of the collection with the same content, <p>null if there isn't any.
+     */
+    public MusicBand findDuplicate(MusicBand musicBand) {
+        BloomFilter filter = contentFilter;
+        if (filter != null && !filter.mightContainAny(ContentHashIndex.probeKeys(musicBand))) {
+            return null;
+        }
+        MusicBand duplicate = contentHashIndex.findDuplicate(musicBand);
+        if (duplicate == null && filter != null) {
+            filter.recordFalsePositive();
+        }
+        return duplicate;
+    }
+
+    /**
+     * This method is used to describe the Bloom filters.
+     * @return metrics of the filters by their names, <p>an empty map if the filters are disabled.
+     */
+    public Map<String, String> describeFilters() {
+        Map<String, String> metrics = new LinkedHashMap<>();
+        BloomFilter ids = idFilter;
+        BloomFilter contents = contentFilter;
+        if (ids != null && contents != null) {
+            metrics.put("ID filter", ids.describeMetrics());
+            metrics.put("Content filter", contents.describeMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * This method is used to build the Bloom filters anew from the collection, sized for twice its current size so it can grow before the next rebuild.
+     * It is called after loading, after clearing, and once additions exceed the filters' capacity or removals leave too many stale keys in them.
+     */
+    private void rebuildFilters() {
+        staleFilterKeys = 0;
+        if (bloomFalsePositiveRate <= 0) {
+            return;
+        }
+        BloomFilter ids = new BloomFilter(2 * musicBandCollection.size(), bloomFalsePositiveRate);
+        BloomFilter contents = new BloomFilter(2 * musicBandCollection.size(), bloomFalsePositiveRate);
+        for (MusicBand musicBand : musicBandCollection) {
+            ids.add(musicBand.getId());
+            contents.add(ContentHashIndex.contentHash(musicBand, 0, 0));
+        }
+        idFilter = ids;
+        contentFilter = contents;
+    }
+
     /**
      * This method is used to sort the collection (by the music bands' ID value).
      * @param musicBands the collection to be sorted. Java usually uses Merge sort for this problem.
@@ -103,50 +271,121 @@ public class CollectionManager {
 
     /**
      * This method prints all the collection's unique dates and the number of their occurrences.
+     * @param responseAppender the response of the current request.
      */
-    public void groupCountingByEstablishmentDate() {
-        ResponseAppender.appendln("Counting the collection's establishment dates grouped by occurrences:");
+    public void groupCountingByEstablishmentDate(ResponseAppender responseAppender) {
+        responseAppender.appendln("Counting the collection's establishment dates grouped by occurrences:");
         Map<LocalDateTime, Long> establishmentDateMap = musicBandCollection.stream().collect(Collectors.groupingBy(MusicBand::getEstablishmentDate, Collectors.counting()));
-        establishmentDateMap.forEach((localDateTime, aLong) -> ResponseAppender.appendln(localDateTime + ": " + aLong));
+        establishmentDateMap.forEach(responseAppender::appendCount);
     }
 
     /**
-     * This method is used to access a collection's element by its ID value.
+     * This method is used to access a collection's element by its ID value in constant time.
      * @param id the value via which the element is going to be accessed.
      * @return the music band that has the ID, <p>null if there isn't any music band with this ID.
      */
     public MusicBand getByID(Integer id) {
-        return musicBandCollection.stream().filter(musicBand -> musicBand.getId().equals(id)).findFirst().orElse(null);
+        BloomFilter filter = idFilter;
+        if (filter != null && !filter.mightContain(id)) {
+            return null;
+        }
+        MusicBand found = id != null && id >= 0 && idRegistry.contains(id) ? musicBandsByID.get(id) : null;
+        if (found == null && filter != null) {
+            filter.recordFalsePositive();
+        }
+        return found;
     }
 
     /**
-     * This method is used to access a collection's element by its index.
+     * This method is used to access a collection's element by its index (in the shown order) in O(log n).
      * @param index the value via which the element is going to be accessed.
      * @return the music band that corresponds to this index, <p>null if the index is out of bounds.
      */
     public MusicBand getByIndex(Integer index) {
-        return musicBandCollection.get(index);
+        return index < 0 || index >= orderedCollection.size() ? null : orderedCollection.get(index);
     }
 
     /**
-     * This method prints every element's establishment date by descending order.
+     * This method is used to pick distinct music bands uniformly at random without changing the collection.
+     * The positions are drawn by Floyd's algorithm (k draws, each one new) and read in O(log n), so the whole collection is never walked; then they are put in a random order.
+     * @param count  the amount of music bands to be picked. If the collection is smaller, all of them are picked.
+     * @param random the source of randomness (seeded for a reproducible sample).
+     * @return the picked music bands in random order.
      */
-    public void printFieldDescendingEstablishmentDate() {
+    public List<MusicBand> sample(int count, RandomGenerator random) {
+        int size = musicBandCollection.size();
+        int k = Math.min(count, size);
+        HashSet<Integer> positions = new HashSet<>(Math.max(16, k * 2));
+        ArrayList<MusicBand> sample = new ArrayList<>(k);
+        for (int i = size - k; i < size; i++) {
+            int position = random.nextInt(i + 1);
+            if (!positions.add(position)) {
+                position = i;
+                positions.add(i);
+            }
+            sample.add(musicBandCollection.get(position));
+        }
+        for (int i = sample.size() - 1; i > 0; i--) {
+            Collections.swap(sample, i, random.nextInt(i + 1));
+        }
+        return sample;
+    }
+
+    /**
+     * This method collects every element's establishment date by descending order.
+     * @return establishment dates by descending order.
+     */
+    public List<LocalDateTime> establishmentDatesDescending() {
         Collection<MusicBand> copy = new TreeSet<>(Collections.reverseOrder(MusicBand::compareToEstablishmentDate));
         ArrayList<LocalDateTime> arrayList = new ArrayList<>();
         copy.addAll(musicBandCollection);
         copy.forEach(musicBand -> arrayList.add(musicBand.getEstablishmentDate()));
-        ResponseAppender.appendln(arrayList.toString().trim());
+        return arrayList;
+    }
+
+    /**
+     * This method is used to get the encoded records of the whole collection in the shown order.
+     * They are kept until the collection changes, so repeated shows of an unchanged collection only copy one buffer; after a change, only the new bands are encoded.
+     * @return the records of the collection.
+     */
+    public MusicBandRecord.Block renderCollection() {
+        long currentVersion = version;
+        RenderedCollection rendered = renderedCollection;
+        if (rendered == null || rendered.version() != currentVersion) {
+            rendered = new RenderedCollection(currentVersion, MusicBandRecord.encodeAll(orderedCollection));
+            renderedCollection = rendered;
+        }
+        return rendered.block();
+    }
+
+    /**
+     * This record represents the encoded records of the collection at a version.
+     * @param version the collection's version.
+     * @param block   the records.
+     */
+    private record RenderedCollection(long version, MusicBandRecord.Block block) {
+    }
+
+    /**
+     * This method is used to get a page of a query's result. The following pages are taken from the snapshot of the first one.
+     * @param query            the command and its argument.
+     * @param pageRequest      the requested page.
+     * @param view             the query itself.
+     * @param responseAppender the response of the current request. The cursor of the next page is added to it.
+     * @param <T>              the type of the result's elements.
+     * @return elements of the page.
+     */
+    public <T> List<T> page(String query, PageRequest pageRequest, Supplier<? extends Collection<T>> view, ResponseAppender responseAppender) {
+        return paginator.page(version, query, pageRequest, view, responseAppender);
     }
 
     /**
      * This method filters the collection for elements that have fewer participants than given.
      * @param numberOfParticipants the number of participants to be compared to.
-     * @return elements with fewer participants than given as String.
+     * @return elements with fewer participants than given.
      */
-    public String musicBandParticipantsFilteredInfo(Long numberOfParticipants) {
-        return musicBandCollection.stream().filter(musicBand -> musicBand.getNumberOfParticipants().equals(numberOfParticipants))
-                .reduce("", (sum, p) -> sum + (p + "\n\n"), (sum1, sum2) -> sum1 + sum2).trim();
+    public List<MusicBand> musicBandParticipantsFiltered(Long numberOfParticipants) {
+        return musicBandCollection.stream().filter(musicBand -> musicBand.getNumberOfParticipants().equals(numberOfParticipants)).toList();
     }
 
     /**
@@ -155,6 +394,21 @@ public class CollectionManager {
      */
     public void addToCollection(MusicBand musicBand) {
         musicBandCollection.add(musicBand);
+        orderedCollection.appended();
+        idRegistry.add(musicBand.getId());
+        musicBandsByID.put(musicBand.getId(), musicBand);
+        queryPlanner.add(musicBand);
+        spatialIndex.add(musicBand);
+        contentHashIndex.add(musicBand);
+        if (idFilter != null) {
+            idFilter.add(musicBand.getId());
+            contentFilter.add(ContentHashIndex.contentHash(musicBand, 0, 0));
+            if (idFilter.isOverCapacity()) {
+                rebuildFilters();
+            }
+        }
+        version++;
+        storageEngine.appendMutation(StorageMutation.put(musicBand));
     }
 
     /**
@@ -162,14 +416,131 @@ public class CollectionManager {
      * @param musicBand the music band to be removed.
      */
     public void removeFromCollection(MusicBand musicBand) {
-        musicBandCollection.remove(musicBand);
+        int storedIndex = musicBandCollection.indexOf(musicBand);
+        if (storedIndex >= 0) {
+            musicBandCollection.remove(storedIndex);
+            orderedCollection.removed(storedIndex);
+            forgetRemoved(musicBand);
+        }
+    }
+
+    /**
+     * This method is used to replace an element of the collection with its updated version in place, in O(log n).
+     * The updated music band keeps the position (and the ID) of the replaced one, so the collection stays ordered by ID and a shuffle stays in effect.
+     * @param musicBand the music band to be replaced.
+     * @param updated   the updated music band.
+     * @return true if the music band has been replaced, <p>false if it doesn't belong to the collection.
+     */
+    public boolean replaceInCollection(MusicBand musicBand, MusicBand updated) {
+        int storedIndex = musicBandCollection.indexOf(musicBand);
+        if (storedIndex < 0) {
+            return false;
+        }
+        musicBandCollection.set(storedIndex, updated);
+        musicBandsByID.put(updated.getId(), updated);
+        queryPlanner.remove(musicBand);
+        spatialIndex.remove(musicBand);
+        contentHashIndex.remove(musicBand);
+        queryPlanner.add(updated);
+        spatialIndex.add(updated);
+        contentHashIndex.add(updated);
+        if (contentFilter != null) {
+            contentFilter.add(ContentHashIndex.contentHash(updated, 0, 0));
+            if (contentFilter.isOverCapacity() || ++staleFilterKeys > contentFilter.getCapacity() / 4) {
+                rebuildFilters();
+            }
+        }
+        version++;
+        storageEngine.appendMutation(StorageMutation.put(updated));
+        return true;
     }
 
     /**
-     * This method is used to randomly Shuffle the collection.
+     * This method is used to remove the element at a position of the collection (in the shown order) in O(log n).
+     * @param index the position.
+     * @return the removed music band, <p>null if the index is out of bounds.
+     */
+    public MusicBand removeAt(int index) {
+        if (index < 0 || index >= musicBandCollection.size()) {
+            return null;
+        }
+        int storedIndex = orderedCollection.storedIndex(index);
+        MusicBand musicBand = musicBandCollection.remove(storedIndex);
+        orderedCollection.removed(storedIndex);
+        forgetRemoved(musicBand);
+        return musicBand;
+    }
+
+    /**
+     * This method is used to remove many elements at once, in a single compaction pass over the collection.
+     * When they are a large part of the collection, the indexes are built anew from the remaining elements instead of removing the elements one by one.
+     * @param musicBands the music bands to be removed (by identity).
+     * @return the amount of removed music bands.
+     */
+    public int removeAll(Collection<MusicBand> musicBands) {
+        Set<MusicBand> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (MusicBand musicBand : musicBands) {
+            if (musicBandCollection.contains(musicBand)) {
+                removed.add(musicBand);
+            }
+        }
+        if (removed.isEmpty()) {
+            return 0;
+        }
+        boolean[] kept = new boolean[musicBandCollection.size()];
+        int position = 0;
+        for (MusicBand musicBand : musicBandCollection) {
+            kept[position++] = !removed.contains(musicBand);
+        }
+        musicBandCollection.removeIf(removed::contains);
+        orderedCollection.retained(kept);
+        boolean rebuilt = removed.size() > musicBandCollection.size() / 4;
+        if (rebuilt) {
+            queryPlanner.rebuild(musicBandCollection);
+            spatialIndex.rebuild(musicBandCollection);
+            contentHashIndex.rebuild(musicBandCollection);
+        }
+        for (MusicBand musicBand : removed) {
+            idRegistry.remove(musicBand.getId());
+            musicBandsByID.remove(musicBand.getId());
+            if (!rebuilt) {
+                queryPlanner.remove(musicBand);
+                spatialIndex.remove(musicBand);
+                contentHashIndex.remove(musicBand);
+            }
+            storageEngine.appendMutation(StorageMutation.remove(musicBand.getId()));
+        }
+        staleFilterKeys += removed.size();
+        if (idFilter != null && staleFilterKeys > idFilter.getCapacity() / 4) {
+            rebuildFilters();
+        }
+        version++;
+        return removed.size();
+    }
+
+    /**
+     * This method is used to drop a music band which has just been removed from the collection from the indexes and to record the removal.
+     * @param musicBand the removed music band.
+     */
+    private void forgetRemoved(MusicBand musicBand) {
+        idRegistry.remove(musicBand.getId());
+        musicBandsByID.remove(musicBand.getId());
+        queryPlanner.remove(musicBand);
+        spatialIndex.remove(musicBand);
+        contentHashIndex.remove(musicBand);
+        if (idFilter != null && ++staleFilterKeys > idFilter.getCapacity() / 4) {
+            rebuildFilters();
+        }
+        version++;
+        storageEngine.appendMutation(StorageMutation.remove(musicBand.getId()));
+    }
+
+    /**
+     * This method is used to randomly Shuffle the collection. Only the shown order is shuffled, through a permutation of positions; the music bands themselves aren't moved.
      */
     public void shuffleCollection() {
-        Collections.shuffle(musicBandCollection);
+        orderedCollection.shuffle(ThreadLocalRandom.current());
+        version++;
     }
 
     /**
@@ -177,32 +548,118 @@ public class CollectionManager {
      */
     public void clearCollection() {
         musicBandCollection.clear();
+        orderedCollection.reset();
+        idRegistry.clear();
+        musicBandsByID.clear();
+        queryPlanner.clear();
+        spatialIndex.clear();
+        contentHashIndex.clear();
+        rebuildFilters();
+        version++;
+        storageEngine.appendMutation(StorageMutation.clear());
+    }
+
+    /**
+     * This method is used to start reading the collection in a separate thread, so the server can accept connections in the meantime.
+     */
+    public void loadCollectionInBackground() {
+        Thread loaderThread = new Thread(this::loadCollection, "collection-loader");
+        loaderThread.start();
     }
 
     /**
-     * This method is used to read the collection from the file to the application.
+     * This method is used to describe the progress of loading the collection.
+     * @return progress of the loading, <p>"done" if the collection has been loaded.
+     */
+    public String describeLoadProgress() {
+        if (loaded) {
+            return "done";
+        }
+        if (loadFailure != null) {
+            return "failed: " + loadFailure;
+        }
+        FileContentValidator currentLoader = loader;
+        return currentLoader == null ? "not started" : currentLoader.describeProgress();
+    }
+
+    /**
+     * This method is used to read the collection from the storage to the application.
+     * Messages produced while loading are written into the server's log, since there is no client to send them to.
+     * If the storage has imported the collection from elsewhere, the validated collection is written as its first snapshot.
+     * If loading fails, the failure is recorded, so the commands which need the collection report it instead of waiting forever.
      */
     private void loadCollection() {
-        FileContentValidator fileContentValidator = new FileContentValidator();
-        musicBandCollection = fileContentValidator.validateFileContent();
-        lastInitTime = LocalDateTime.now();
+        App.logger.log(Level.INFO, "Loading the collection...");
+        try {
+            FileContentValidator fileContentValidator = new FileContentValidator(storageEngine);
+            loader = fileContentValidator;
+            idRegistry.clear();
+            musicBandCollection = new IndexedList<>(fileContentValidator.validateFileContent(idRegistry));
+            orderedCollection = new PermutedList<>(musicBandCollection);
+            musicBandsByID.clear();
+            musicBandCollection.forEach(musicBand -> musicBandsByID.put(musicBand.getId(), musicBand));
+            queryPlanner.rebuild(musicBandCollection);
+            spatialIndex.rebuild(musicBandCollection);
+            contentHashIndex.rebuild(musicBandCollection);
+            rebuildFilters();
+            if (storageEngine.isImportPending() && !storageEngine.saveSnapshot(musicBandCollection)) {
+                App.logger.log(Level.SEVERE, "The imported collection cannot be written to the storage. No changes will be saved until the server is restarted.");
+            }
+            lastInitTime = LocalDateTime.now();
+            version++;
+            loaded = true;
+            App.logger.log(Level.INFO, "The collection has been loaded: " + musicBandCollection.size() + " elements.");
+        } catch (RuntimeException | OutOfMemoryError e) {
+            loadFailure = e.toString();
+            App.logger.log(Level.SEVERE, "The collection cannot be loaded: " + e + " " + Arrays.toString(e.getStackTrace()));
+        } finally {
+            loader = null;
+        }
     }
 
     /**
-     * This method is used to write the collection from the application to the file.
+     * This method is used to write the collection from the application to the storage.
+     * @return true if the collection has been written, <p>false if the storage reported an error.
      */
-    public void saveCollection() {
+    public boolean saveCollection() {
         sortCollection(musicBandCollection);
-        fileManager.writeCollection(musicBandCollection);
+        orderedCollection.reset();
+        version++;
+        if (!storageEngine.saveSnapshot(musicBandCollection)) {
+            return false;
+        }
         lastSaveTime = LocalDateTime.now();
+        return true;
+    }
+
+    /**
+     * This method is used to persist the changes made by a command.
+     * Engines which record every mutation on their own don't need a snapshot, so nothing is rewritten for them.
+     * The collection stays ordered by ID without sorting: new IDs are greater than every taken one and updates keep their positions.
+     * @return true if the changes have been persisted, <p>false if the storage reported an error.
+     */
+    public boolean persistChanges() {
+        if (storageEngine.isMutationDurable()) {
+            return storageEngine.commit();
+        }
+        return saveCollection();
+    }
+
+    /**
+     * This method is used to make the changes made by a command durable, if the engine records every mutation on its own.
+     * Snapshot engines write the changes with the next save, so nothing is done for them.
+     * @return true if the changes are durable or will be saved with the next snapshot, <p>false if the storage reported an error.
+     */
+    public boolean commitChanges() {
+        return !storageEngine.isMutationDurable() || storageEngine.commit();
     }
 
     /**
      * This method is used to automatically generate a value of an ID.
-     * @return 1 if the collection is empty, <p>n + 1 if the collection has n amount of elements.
+     * @return 1 if the collection is empty, <p>the greatest taken ID + 1 otherwise.
      */
     public Integer generateNextID() {
-        return (musicBandCollection.isEmpty()) ? 1 : musicBandCollection.stream().max(Comparator.comparing(MusicBand::getId)).get().getId() + 1;
+        return idRegistry.max() + 1;
     }
 
     /**
@@ -214,9 +671,9 @@ public class CollectionManager {
         if (musicBandCollection.isEmpty()) {
             return "Empty collection.";
         }
-        StringBuilder info = new StringBuilder();
-        musicBandCollection.forEach(musicBand ->
-                info.append(musicBand.toString()).append("\n").append("-=".repeat(41)).append("\n"));
+        StringBuilder info = new StringBuilder(musicBandCollection.size() * 256);
+        orderedCollection.forEach(musicBand ->
+                info.append(musicBand.toString()).append("\n").append(SEPARATOR).append("\n"));
         return info.toString();
     }
 }
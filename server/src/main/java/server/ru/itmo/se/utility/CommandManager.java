@@ -1,11 +1,9 @@
 package server.ru.itmo.se.utility;
 
-import lombok.Getter;
+import common.ru.itmo.se.interaction.CommandOpcode;
 import server.ru.itmo.se.commands.CommandImpl;
 
-import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,33 +19,46 @@ public class CommandManager {
      */
     public String[] commandHistory = new String[COMMAND_HISTORY_SIZE];
     /**
-     * This field stores all instances of commands.
-     * -- GETTER --
-     * Getter method for all instances of commands.
+     * This field tells for every opcode whether the command is recorded into history.
      */
-    @Getter
-    private final List<String> commands = new ArrayList<>();
+    private final boolean[] recordedInHistory = new boolean[CommandOpcode.tableSize()];
+    /**
+     * This field holds all instances of commands indexed by their opcodes, so a request is dispatched without any lookup by name.
+     */
+    private final CommandImpl[] commandTable = new CommandImpl[CommandOpcode.tableSize()];
     /**
      * This structure maps all aliases to their corresponding commands.
      */
     public Map<String, CommandImpl> commandMap = new LinkedHashMap<>();
 
     {
-        commands.add("add");
-        commands.add("clear");
-        commands.add("execute_script");
-        commands.add("exit");
-        commands.add("filter_less_than_number_of_participants");
-        commands.add("group_counting_by_establishment_date");
-        commands.add("help");
-        commands.add("history");
-        commands.add("info");
-        commands.add("print_field_descending_establishment_date");
-        commands.add("remove_at");
-        commands.add("remove_by_id");
-        commands.add("show");
-        commands.add("shuffle");
-        commands.add("update");
+        for (CommandOpcode opcode : new CommandOpcode[]{
+                CommandOpcode.ADD,
+                CommandOpcode.ADD_BATCH,
+                CommandOpcode.CLEAR,
+                CommandOpcode.EXECUTE_SCRIPT,
+                CommandOpcode.EXIT,
+                CommandOpcode.FILTER_LESS_THAN_NUMBER_OF_PARTICIPANTS,
+                CommandOpcode.FIND_BY_NAME,
+                CommandOpcode.GROUP_COUNTING_BY_ESTABLISHMENT_DATE,
+                CommandOpcode.HELP,
+                CommandOpcode.HISTORY,
+                CommandOpcode.INFO,
+                CommandOpcode.NEAREST,
+                CommandOpcode.PRINT_FIELD_DESCENDING_ESTABLISHMENT_DATE,
+                CommandOpcode.QUERY,
+                CommandOpcode.REMOVE_AT,
+                CommandOpcode.REMOVE_BY_ID,
+                CommandOpcode.REMOVE_WHERE,
+                CommandOpcode.SAMPLE,
+                CommandOpcode.SHOW,
+                CommandOpcode.SHUFFLE,
+                CommandOpcode.UPDATE,
+                CommandOpcode.UPDATE_BATCH,
+                CommandOpcode.WITHIN_BOX,
+                CommandOpcode.WITHIN_RADIUS}) {
+            recordedInHistory[opcode.getCode()] = true;
+        }
     }
     /**
      * This method add an alias with its corresponding command.
@@ -56,28 +67,49 @@ public class CommandManager {
      */
     protected void addCommand(String commandAlias, CommandImpl command) {
         this.commandMap.put(commandAlias, command);
+        CommandOpcode opcode = CommandOpcode.byName(commandAlias);
+        if (opcode != null) {
+            commandTable[opcode.getCode()] = command;
+        }
     }
 
+    /**
+     * This method is used to find a command by its opcode.
+     * @param opcode the command's code.
+     * @return the command, <p>null if no command is registered with this code.
+     */
+    CommandImpl getCommand(int opcode) {
+        return opcode >= 0 && opcode < commandTable.length ? commandTable[opcode] : null;
+    }
 
     /**
      * This method is used to register the 10 most recently used command into history.
-     * @param recentCommand the most recent command.
+     * @param opcode the most recent command's code.
      */
-    void addToHistory(String recentCommand) {
-        if (commands.contains(recentCommand)) {
+    synchronized void addToHistory(int opcode) {
+        if (opcode >= 0 && opcode < recordedInHistory.length && recordedInHistory[opcode]) {
             for (int i = COMMAND_HISTORY_SIZE - 1; i > 0; i--) {
                 commandHistory[i] = commandHistory[i - 1];
             }
-            commandHistory[0] = recentCommand;
+            commandHistory[0] = CommandOpcode.byCode(opcode).getCommandName();
         }
     }
 
+    /**
+     * This method is used to get a copy of the history, since requests are handled concurrently.
+     * @return the most recent commands, the latest first.
+     */
+    public synchronized String[] getHistorySnapshot() {
+        return commandHistory.clone();
+    }
+
     /**
      * This method is used to signify to the user that the command is unavailable.
-     * @param arg unavailable command.
+     * @param arg              unavailable command.
+     * @param responseAppender the response of the current request.
      */
-    static void noSuchCommand(String arg) {
-        ResponseAppender.appendln("Command '" + arg + "' not found. Use command 'help' for advice.");
+    static void noSuchCommand(String arg, ResponseAppender responseAppender) {
+        responseAppender.appendln("Command '" + arg + "' not found. Use command 'help' for advice.");
     }
 
     /**
@@ -0,0 +1,171 @@
+package server.ru.itmo.se.utility;
+
+import server.ru.itmo.se.commands.AccessMode;
+
+import java.util.function.Supplier;
+
+/**
+ * Utility class used for deciding which commands may run at the same time.
+ * Reading commands run concurrently, writing and administrative commands run alone.
+ * A read may start while writes are queued (so reads don't wait behind a slow write queue), but only a limited amount of times in a row, so a write can never starve.
+ */
+public class CommandScheduler {
+    /**
+     * This field holds the option via which the fairness bound is chosen on startup.
+     */
+    public static final String OPTION_PREFIX = "--read-overtake-limit=";
+    /**
+     * This field holds the default amount of reads which may overtake a queued write.
+     */
+    public static final int DEFAULT_READ_OVERTAKE_LIMIT = 8;
+    /**
+     * This field holds the amount of reads which may start while a write is queued, before the write gets its turn. 0 means that queued writes always go first.
+     */
+    private final int readOvertakeLimit;
+    /**
+     * This field holds the amount of reads which are running right now.
+     */
+    private int activeReaders;
+    /**
+     * This field tells whether an exclusive command is running right now.
+     */
+    private boolean writerActive;
+    /**
+     * This field holds the amount of exclusive commands which are waiting for their turn.
+     */
+    private int queuedWriters;
+    /**
+     * This field holds the amount of reads which have overtaken the queued writes since the last write.
+     */
+    private int overtakes;
+    /**
+     * This field holds the amount of executed reads.
+     */
+    private long totalReads;
+    /**
+     * This field holds the amount of executed exclusive commands.
+     */
+    private long totalWrites;
+    /**
+     * This field holds the amount of reads which have overtaken a queued write.
+     */
+    private long totalOvertakes;
+
+    /**
+     * Constructs a CommandScheduler with the specified fairness bound.
+     * @param readOvertakeLimit the amount of reads which may overtake a queued write.
+     */
+    public CommandScheduler(int readOvertakeLimit) {
+        if (readOvertakeLimit < 0) {
+            throw new IllegalArgumentException("The read overtake limit cannot be negative.");
+        }
+        this.readOvertakeLimit = readOvertakeLimit;
+    }
+
+    /**
+     * This method is used to execute an action in the given mode.
+     * @param accessMode the way the action accesses the collection.
+     * @param action     the action to be executed.
+     * @param <T>        the action's result type.
+     * @return the action's result.
+     */
+    public <T> T execute(AccessMode accessMode, Supplier<T> action) {
+        if (accessMode.isExclusive()) {
+            acquireExclusive();
+            try {
+                return action.get();
+            } finally {
+                releaseExclusive();
+            }
+        }
+        acquireShared();
+        try {
+            return action.get();
+        } finally {
+            releaseShared();
+        }
+    }
+
+    /**
+     * This method is used to wait until a read may start.
+     */
+    private synchronized void acquireShared() {
+        boolean interrupted = false;
+        while (writerActive || (queuedWriters > 0 && overtakes >= readOvertakeLimit)) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (queuedWriters > 0) {
+            overtakes++;
+            totalOvertakes++;
+        }
+        activeReaders++;
+        totalReads++;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is used to finish a read.
+     */
+    private synchronized void releaseShared() {
+        activeReaders--;
+        if (activeReaders == 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * This method is used to wait until an exclusive command may start.
+     */
+    private synchronized void acquireExclusive() {
+        boolean interrupted = false;
+        queuedWriters++;
+        try {
+            while (writerActive || activeReaders > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            queuedWriters--;
+        }
+        writerActive = true;
+        overtakes = 0;
+        totalWrites++;
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * This method is used to finish an exclusive command.
+     */
+    private synchronized void releaseExclusive() {
+        writerActive = false;
+        notifyAll();
+    }
+
+    /**
+     * This method is used to describe the scheduler's counters.
+     * @return amount of reads, exclusive commands and overtakes.
+     */
+    public synchronized String describe() {
+        return totalReads + " read(s), " + totalWrites + " exclusive command(s), " + totalOvertakes + " read(s) overtook a queued write (limit " + readOvertakeLimit + ")";
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in CommandScheduler.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "CommandScheduler (utility class for running commands concurrently)";
+    }
+}
@@ -0,0 +1,141 @@
+package server.ru.itmo.se.utility;
+
+import java.io.*;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * This enum represents all the codecs with which a collection file can be stored. All of them are streaming java.util.zip codecs.
+ */
+public enum CompressionCodec {
+    /**
+     * This value represents a plain (uncompressed) file.
+     */
+    NONE("") {
+        @Override
+        OutputStream wrapOutput(OutputStream outputStream, int level) {
+            return outputStream;
+        }
+
+        @Override
+        InputStream wrapInput(InputStream inputStream) {
+            return inputStream;
+        }
+    },
+    /**
+     * This value represents a GZIP file. It is chosen by the '.gz' extension and recognized by the 0x1F8B magic number.
+     */
+    GZIP(".gz") {
+        @Override
+        OutputStream wrapOutput(OutputStream outputStream, int level) throws IOException {
+            return new GZIPOutputStream(outputStream, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        InputStream wrapInput(InputStream inputStream) throws IOException {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+    },
+    /**
+     * This value represents a zlib (deflate) file. It is chosen by the '.zz' extension and recognized by a valid zlib header.
+     */
+    DEFLATE(".zz") {
+        @Override
+        OutputStream wrapOutput(OutputStream outputStream, int level) {
+            return new DeflaterOutputStream(outputStream, new Deflater(level), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    def.end();
+                }
+            };
+        }
+
+        @Override
+        InputStream wrapInput(InputStream inputStream) {
+            return new InflaterInputStream(inputStream, new Inflater(), BUFFER_SIZE) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    inf.end();
+                }
+            };
+        }
+    };
+
+    /**
+     * This field holds the size of the codecs' internal buffers.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * This field holds the file extension which selects the codec.
+     */
+    private final String extension;
+
+    /**
+     * Constructs a CompressionCodec with the specified extension.
+     * @param extension the file extension.
+     */
+    CompressionCodec(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * This method is used to wrap a file stream into a compressing one.
+     * @param outputStream the file stream.
+     * @param level        compression level from 0 (none) to 9 (best).
+     * @return compressing stream.
+     * @throws IOException if the stream cannot be initialized.
+     */
+    abstract OutputStream wrapOutput(OutputStream outputStream, int level) throws IOException;
+
+    /**
+     * This method is used to wrap a file stream into a decompressing one.
+     * @param inputStream the file stream.
+     * @return decompressing stream. It must be closed, so the native memory of its inflater is released.
+     * @throws IOException if the stream's header is invalid.
+     */
+    abstract InputStream wrapInput(InputStream inputStream) throws IOException;
+
+    /**
+     * This method is used to choose a codec by the file's extension.
+     * @param fileName the file's name.
+     * @return the corresponding codec, <p>NONE if the extension is unknown.
+     */
+    static CompressionCodec fromFileName(String fileName) {
+        for (CompressionCodec codec : values()) {
+            if (!codec.extension.isEmpty() && fileName.endsWith(codec.extension)) {
+                return codec;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * This method is used to recognize a codec by the first bytes of a file.
+     * @param inputStream the file stream. It must support mark/reset; its position is not changed.
+     * @return the corresponding codec, <p>NONE if the file is not compressed.
+     * @throws IOException if the stream cannot be read.
+     */
+    static CompressionCodec detect(InputStream inputStream) throws IOException {
+        inputStream.mark(2);
+        int first = inputStream.read();
+        int second = inputStream.read();
+        inputStream.reset();
+        if (first == 0x1F && second == 0x8B) {
+            return GZIP;
+        }
+        if (first >= 0 && second >= 0 && (first & 0x0F) == Deflater.DEFLATED && ((first << 8) | second) % 31 == 0) {
+            return DEFLATE;
+        }
+        return NONE;
+    }
+}
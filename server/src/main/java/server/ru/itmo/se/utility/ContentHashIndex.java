@@ -0,0 +1,194 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.Coordinates;
+import common.ru.itmo.se.data.MusicBand;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Class used for finding a music band with the same content as a new one in constant time, so 'add' can reject duplicates without scanning the collection.
+ * The content is everything the user enters: the name, coordinates, number of participants, establishment date, genre and studio (not the ID and creation date, which the server assigns).
+ * The fields are mixed into a 64-bit hash with a finalizer that spreads every input bit over the whole key.
+ * Coordinates are equal when they differ by less than Coordinates.EPSILON, which no hash can respect exactly, so they are hashed by the cells of a grid at least as wide as the epsilon:
+ * equal coordinates lie in the same or adjacent cells, and a lookup probes the 3 x 3 cells around the new coordinates.
+ */
+public class ContentHashIndex {
+    /**
+     * This field holds the width of a coordinate cell (2^-29, about 1.9e-9), which is greater than the epsilon of Coordinates.equals().
+     */
+    private static final double CELL = 0x1p-29;
+    /**
+     * This structure maps the content hashes to the music bands which have them.
+     */
+    private final HashMap<Long, ArrayList<MusicBand>> buckets = new HashMap<>();
+
+    /**
+     * This method is used to index a music band which has been added to the collection.
+     * @param musicBand the music band.
+     */
+    public void add(MusicBand musicBand) {
+        buckets.computeIfAbsent(contentHash(musicBand, 0, 0), key -> new ArrayList<>(1)).add(musicBand);
+    }
+
+    /**
+     * This method is used to remove a music band which has been removed from the collection.
+     * @param musicBand the music band.
+     */
+    public void remove(MusicBand musicBand) {
+        long key = contentHash(musicBand, 0, 0);
+        ArrayList<MusicBand> musicBands = buckets.get(key);
+        if (musicBands != null && musicBands.removeIf(candidate -> candidate == musicBand) && musicBands.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    /**
+     * This method is used to empty the index.
+     */
+    public void clear() {
+        buckets.clear();
+    }
+
+    /**
+     * This method is used to index a whole collection anew, e.g. after it has been loaded.
+     * @param musicBands the collection.
+     */
+    public void rebuild(Collection<MusicBand> musicBands) {
+        clear();
+        musicBands.forEach(this::add);
+    }
+
+    /**
+     * This method is used to find a music band with the same content.
+     * @param musicBand the music band to be looked for.
+     * @return a music band of the collection with the same content, <p>null if there isn't any.
+     */
+    public MusicBand findDuplicate(MusicBand musicBand) {
+        for (long key : probeKeys(musicBand)) {
+            ArrayList<MusicBand> musicBands = buckets.get(key);
+            if (musicBands != null) {
+                for (MusicBand candidate : musicBands) {
+                    if (sameContent(candidate, musicBand)) {
+                        return candidate;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * This method is used to calculate the content hashes under which a music band with the same content may be stored: the ones of the 3 x 3 cells around its coordinates.
+     * @param musicBand the music band to be looked for.
+     * @return the content hashes, the music band's own one first.
+     */
+    public static long[] probeKeys(MusicBand musicBand) {
+        long[] keys = new long[9];
+        int i = 0;
+        keys[i++] = contentHash(musicBand, 0, 0);
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                if (dx != 0 || dy != 0) {
+                    keys[i++] = contentHash(musicBand, dx, dy);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * This method is used to compare the content of 2 music bands, i.e. every field except the ID and the creation date.
+     * @param first  first music band.
+     * @param second second music band.
+     * @return true if the contents are equal, <p>false otherwise.
+     */
+    public static boolean sameContent(MusicBand first, MusicBand second) {
+        return Objects.equals(first.getName(), second.getName())
+                && Objects.equals(first.getCoordinates(), second.getCoordinates())
+                && Objects.equals(first.getNumberOfParticipants(), second.getNumberOfParticipants())
+                && Objects.equals(first.getEstablishmentDate(), second.getEstablishmentDate())
+                && first.getMusicGenre() == second.getMusicGenre()
+                && Objects.equals(first.getStudio(), second.getStudio());
+    }
+
+    /**
+     * This method is used to calculate the content hash of a music band, with its coordinates moved by whole cells.
+     * @param musicBand the music band.
+     * @param dx        the amount of cells the X coordinate is moved by.
+     * @param dy        the amount of cells the Y coordinate is moved by.
+     * @return the content hash.
+     */
+    public static long contentHash(MusicBand musicBand, int dx, int dy) {
+        long hash = mix(Objects.hashCode(musicBand.getName()));
+        Coordinates coordinates = musicBand.getCoordinates();
+        if (coordinates != null) {
+            hash = mix(hash ^ (cell(coordinates.getX()) + dx));
+            hash = mix(hash ^ (cell(coordinates.getY()) + dy));
+        }
+        hash = mix(hash ^ Objects.hashCode(musicBand.getNumberOfParticipants()));
+        LocalDateTime establishmentDate = musicBand.getEstablishmentDate();
+        if (establishmentDate != null) {
+            hash = mix(hash ^ establishmentDate.toEpochSecond(ZoneOffset.UTC));
+            hash = mix(hash ^ establishmentDate.getNano());
+        }
+        hash = mix(hash ^ (musicBand.getMusicGenre() == null ? -1 : musicBand.getMusicGenre().ordinal()));
+        return mix(hash ^ (musicBand.getStudio() == null ? 0 : Objects.hashCode(musicBand.getStudio().getAddress())));
+    }
+
+    /**
+     * This method is used to find the grid cell of a coordinate.
+     * @param coordinate the coordinate.
+     * @return the cell's number.
+     */
+    private static long cell(float coordinate) {
+        return (long) Math.floor(coordinate / CELL);
+    }
+
+    /**
+     * This method is used to spread the bits of a value over the whole long (the finalizer of SplitMix64).
+     * @param value the value.
+     * @return the mixed value.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * This method is used to describe how a hash function spreads music bands over the buckets of a hash table as big as the ones HashMap uses (the next power of 2 above n / 0.75).
+     * @param musicBands the music bands.
+     * @param hash       the hash function.
+     * @return amount of buckets, used buckets, the expected amount of used buckets for a uniform hash, the longest chain and the mean chain of a used bucket.
+     */
+    public static String describeDistribution(Collection<MusicBand> musicBands, ToIntFunction<MusicBand> hash) {
+        int n = musicBands.size();
+        int tableSize = Integer.highestOneBit(Math.max(1, (int) (n / 0.75f)) * 2 - 1);
+        int[] chains = new int[tableSize];
+        for (MusicBand musicBand : musicBands) {
+            int h = hash.applyAsInt(musicBand);
+            chains[(h ^ (h >>> 16)) & (tableSize - 1)]++;
+        }
+        int used = 0;
+        int longest = 0;
+        for (int chain : chains) {
+            used += chain == 0 ? 0 : 1;
+            longest = Math.max(longest, chain);
+        }
+        double expectedUsed = tableSize * (1 - Math.exp(-(double) n / tableSize));
+        return String.format(Locale.ROOT, "%d buckets, %d used (uniform: %.0f), longest chain %d, mean chain %.2f",
+                tableSize, used, expectedUsed, longest, used == 0 ? 0 : (double) n / used);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in ContentHashIndex.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "ContentHashIndex (" + buckets.size() + " distinct contents)";
+    }
+}
@@ -1,24 +1,35 @@
 package server.ru.itmo.se.utility;
 
-import server.ru.itmo.se.App;
 import common.ru.itmo.se.data.Coordinates;
 import common.ru.itmo.se.data.MusicBand;
 import common.ru.itmo.se.data.MusicGenre;
 import common.ru.itmo.se.utility.FieldValidator;
+import common.ru.itmo.se.utility.IDRegistry;
 import common.ru.itmo.se.data.Studio;
+import server.ru.itmo.se.App;
 
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.logging.Level;
 
 /**
  * Utility class used for validating the content of the file in case of an external change.
  */
 class FileContentValidator {
     /**
-     * This field holds an instance of a FileManager which is responsible for operations with files.
+     * This field holds an instance of a StorageEngine from which the collection is read.
      */
-    private FileManager fileManager = new FileManager(App.cliArgument);
+    private final StorageEngine storageEngine;
+    /**
+     * This field holds the amount of elements that were read from the storage (-1 while they are still being read).
+     */
+    private volatile int total = -1;
+    /**
+     * This field holds the amount of elements that have already been validated.
+     */
+    private volatile int validated;
     /**
      * This field holds a message to be displayed in case something went wrong.
      */
@@ -27,13 +38,27 @@ class FileContentValidator {
      * This field holds a message to be displayed if th element is being removed.
      */
     private static final String message2 = "Therefore, this element is being removed.";
+
+    /**
+     * Constructs a FileContentValidator with the specified storage engine.
+     * @param storageEngine the engine from which the collection is read.
+     */
+    FileContentValidator(StorageEngine storageEngine) {
+        this.storageEngine = storageEngine;
+    }
+
     /**
      * This method is used to validate the content of the file. If a violation was found, the corresponding object will be removed.
+     * @param idRegistry the collection's ID registry. IDs of the accepted elements are registered in it.
      * @return validated collection.
      */
-    LinkedList<MusicBand> validateFileContent() {
-        LinkedList<MusicBand> musicBandLinkedList = fileManager.readCollection();
-        for (MusicBand musicBand : musicBandLinkedList) {
+    LinkedList<MusicBand> validateFileContent(IDRegistry idRegistry) {
+        LinkedList<MusicBand> musicBandLinkedList = storageEngine.load();
+        total = musicBandLinkedList.size();
+        Iterator<MusicBand> iterator = musicBandLinkedList.iterator();
+        while (iterator.hasNext()) {
+            MusicBand musicBand = iterator.next();
+            boolean violated = false;
             Integer id = musicBand.getId();
             String name = musicBand.getName();
             Coordinates coordinates = musicBand.getCoordinates();
@@ -42,61 +67,82 @@ class FileContentValidator {
             LocalDateTime establishmentDate = musicBand.getEstablishmentDate();
             MusicGenre musicGenre = musicBand.getMusicGenre();
             Studio studio = musicBand.getStudio();
-            if (FieldValidator.checkID(id)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (ID: " + id + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+            boolean idViolated = FieldValidator.checkID(id, idRegistry);
+            if (idViolated) {
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (ID: " + id + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkName(name)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Name: " + name + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Name: " + name + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkX(coordinates.getX())) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Coordinates (X): " + coordinates.getX() + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Coordinates (X): " + coordinates.getX() + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkY(coordinates.getY())) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Coordinates (Y): " + coordinates.getY() + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Coordinates (Y): " + coordinates.getY() + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkDate(creationDate)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Creation date: " + creationDate + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Creation date: " + creationDate + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkNumberOfParticipants(numberOfParticipants)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Number of participants: " + numberOfParticipants + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Number of participants: " + numberOfParticipants + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkEstablishmentDate(establishmentDate)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Establishment date: " + establishmentDate + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Establishment date: " + establishmentDate + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkMusicGenre(musicGenre)) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Music genre: " + musicGenre + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Music genre: " + musicGenre + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
             if (FieldValidator.checkAddress(studio.toString())) {
-                ResponseAppender.appendError(message1);
-                ResponseAppender.appendError("This field (Studio address: " + studio + ") has violated the necessary constraints.");
-                ResponseAppender.appendError(message2);
-                musicBandLinkedList.remove(musicBand);
+                App.logger.log(Level.WARNING, message1);
+                App.logger.log(Level.WARNING, "This field (Studio address: " + studio + ") has violated the necessary constraints.");
+                App.logger.log(Level.WARNING, message2);
+                violated = true;
             }
+            if (violated) {
+                if (!idViolated) {
+                    idRegistry.remove(id);
+                }
+                iterator.remove();
+            }
+            validated++;
         }
         return musicBandLinkedList;
     }
+
+    /**
+     * This method is used to describe how far the validation has progressed. It may be called from another thread.
+     * @return progress of the validation.
+     */
+    String describeProgress() {
+        int total = this.total;
+        if (total < 0) {
+            return "reading the storage";
+        }
+        int validated = this.validated;
+        return "validated " + validated + " of " + total + " elements (" + (total == 0 ? 100 : validated * 100L / total) + "%)";
+    }
 }
@@ -5,6 +5,7 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
 import common.ru.itmo.se.data.MusicBand;
+import server.ru.itmo.se.App;
 
 import java.io.*;
 import java.lang.reflect.Type;
@@ -13,15 +14,45 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.zip.Deflater;
+import java.util.zip.ZipException;
 
 /**
  * Utility class used for I/O operations with a file. Uses reflection and Gson for serializing the collection.
+ * It is the default (JSON) storage engine: every change is persisted by rewriting the whole file.
+ * The file may be compressed: the codec is chosen by the file's extension on write and recognized by its magic bytes on read.
  */
-public class FileManager {
+public class FileManager implements StorageEngine {
+    /**
+     * This field holds the name via which this engine is selected on startup.
+     */
+    public static final String ENGINE_NAME = "json";
     /**
      * This field holds the name of the file that this class works with.
      */
     private final String fileName;
+    /**
+     * This field holds the codec with which the file is written.
+     */
+    private final CompressionCodec codec;
+    /**
+     * This field holds the compression level (0-9) with which the file is written.
+     */
+    private final int compressionLevel;
+    /**
+     * This field holds the metrics of the last snapshot that was written.
+     */
+    private String saveMetrics = "none yet";
+    /**
+     * This field holds the metrics of the last snapshot that was read.
+     */
+    private String loadMetrics = "none yet";
+    /**
+     * This field holds the reason why the file couldn't be read, <p>null if it has been read (or doesn't exist yet).
+     * Until the file is read successfully, it is never overwritten, so the data which couldn't be read isn't replaced with whatever is in the application.
+     */
+    private volatile String readFailure;
     /**
      * This field holds a Gson instance, via which serialization/deserialization of a collection occurs.
      * It converts a collection into a readable format and works with LocalDateTime and null types.
@@ -40,56 +71,174 @@ public class FileManager {
      * @param fileName file name passed from the console argument.
      */
     public FileManager(String fileName) {
+        this(fileName, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Constructs a FileManager with the specified file name and compression level.
+     *
+     * @param fileName         file name passed from the console argument.
+     * @param compressionLevel compression level from 0 (none) to 9 (best), or -1 for the codec's default.
+     */
+    public FileManager(String fileName, int compressionLevel) {
         this.fileName = fileName;
+        this.codec = fileName == null ? CompressionCodec.NONE : CompressionCodec.fromFileName(fileName);
+        this.compressionLevel = compressionLevel;
+    }
+
+    /**
+     * This method is a getter for the engine's name.
+     * @return engine's name.
+     */
+    @Override
+    public String getName() {
+        return ENGINE_NAME;
+    }
+
+    /**
+     * This method reads the collection from the JSON file.
+     * @return deserialized collection.
+     */
+    @Override
+    public LinkedList<MusicBand> load() {
+        return readCollection();
+    }
+
+    /**
+     * This method writes the whole collection into the JSON file, unless the file couldn't be read on load.
+     * @param collection the collection from the application.
+     * @return true if the file has been written, <p>false if an error occurred or the file couldn't be read.
+     */
+    @Override
+    public boolean saveSnapshot(Collection<MusicBand> collection) {
+        if (readFailure != null) {
+            App.logger.log(Level.SEVERE, "The snapshot cannot be written: the file couldn't be read (" + readFailure + "), so it is not replaced. Repair or move it and restart the server.");
+            return false;
+        }
+        return writeCollection(collection);
+    }
+
+    /**
+     * This method ignores single changes, since the JSON file can only be rewritten as a whole on the next snapshot.
+     * @param mutation the change to be recorded.
+     */
+    @Override
+    public void appendMutation(StorageMutation mutation) {
+    }
+
+    /**
+     * This method does nothing, since the file is never kept open between operations.
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * This method is a getter for the reason why the file couldn't be read on the last load.
+     * @return the reason, <p>null if the file has been read or doesn't exist.
+     */
+    String getReadFailure() {
+        return readFailure;
+    }
+
+    /**
+     * This method describes the raw and stored sizes and the duration of the last snapshot save and load.
+     * @return metrics of the last save and load.
+     */
+    @Override
+    public String describeMetrics() {
+        if (readFailure != null) {
+            return "read-only, the file couldn't be read (" + readFailure + "); codec " + codec + ", last load: " + loadMetrics;
+        }
+        return "codec " + codec + ", last save: " + saveMetrics + "; last load: " + loadMetrics;
     }
 
     /**
      * This method serializes the collection and writes it into a file.
      *
      * @param collection the collection from the application.
+     * @return true if the file has been written, <p>false if an error occurred.
      */
-    void writeCollection(Collection<?> collection) {
-        try {
-            Writer writer = new OutputStreamWriter(new FileOutputStream(fileName), StandardCharsets.UTF_8);
-            String json = gson.toJson(collection);
-            writer.write(json);
-            writer.close();
+    boolean writeCollection(Collection<?> collection) {
+        long start = System.nanoTime();
+        try (CountingOutputStream stored = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)));
+             CountingOutputStream raw = new CountingOutputStream(codec.wrapOutput(stored, compressionLevel));
+             Writer writer = new BufferedWriter(new OutputStreamWriter(raw, StandardCharsets.UTF_8))) {
+            gson.toJson(collection, writer);
+            writer.flush();
+            raw.close();
+            saveMetrics = formatMetrics(raw.getCount(), stored.getCount(), System.nanoTime() - start);
+            App.logger.log(Level.INFO, "Snapshot saved: " + saveMetrics);
+            return true;
         } catch (FileNotFoundException e) {
-            ResponseAppender.appendError("The file was not found.");
+            App.logger.log(Level.SEVERE, "The file was not found.");
         } catch (IOException e) {
-            ResponseAppender.appendError("File cannot be opened.");
+            App.logger.log(Level.SEVERE, "File cannot be opened.");
         }
+        return false;
     }
 
     /**
-     * This method reads the file's content and deserializes it into the app.
+     * This method reads the file's content and deserializes it into the app. Errors are written into the server's log.
+     * If an existing file cannot be read, the failure is kept and the file is never overwritten afterwards.
      *
      * @return deserialized collection.
+     * @throws IllegalStateException if the file cannot be read for an unknown reason. The server keeps running, the failure is reported by the collection's loader.
      */
     LinkedList<MusicBand> readCollection() {
+        readFailure = null;
         if (fileName != null) {
-            try (FileReader fileReader = new FileReader(fileName, StandardCharsets.UTF_8)) {
-                final Type collectionType = new TypeToken<LinkedList<MusicBand>>() {}.getType();
-                collection = gson.fromJson(fileReader, collectionType);
-                return collection;
+            long start = System.nanoTime();
+            try (CountingInputStream stored = new CountingInputStream(new BufferedInputStream(new FileInputStream(fileName)));
+                 BufferedInputStream header = new BufferedInputStream(stored)) {
+                CompressionCodec fileCodec = CompressionCodec.detect(header);
+                try (CountingInputStream raw = new CountingInputStream(fileCodec.wrapInput(header));
+                     Reader reader = new BufferedReader(new InputStreamReader(raw, StandardCharsets.UTF_8))) {
+                    final Type collectionType = new TypeToken<LinkedList<MusicBand>>() {}.getType();
+                    collection = gson.fromJson(reader, collectionType);
+                    loadMetrics = fileCodec + " " + formatMetrics(raw.getCount(), stored.getCount(), System.nanoTime() - start);
+                }
+                App.logger.log(Level.INFO, "Snapshot loaded: " + loadMetrics);
+                return collection == null ? new LinkedList<>() : collection;
             } catch (FileNotFoundException e) {
-                ResponseAppender.appendError("File not found.");
+                if (new File(fileName).exists()) {
+                    readFailure = "the file cannot be opened";
+                }
+                App.logger.log(Level.SEVERE, "File not found.");
             } catch (NoSuchElementException e) {
-                ResponseAppender.appendError("The file is empty.");
+                App.logger.log(Level.SEVERE, "The file is empty.");
             } catch (JsonParseException | NullPointerException e) {
-                ResponseAppender.appendError("No collection detected.");
+                readFailure = "no collection detected";
+                App.logger.log(Level.SEVERE, "No collection detected.");
             } catch (IllegalStateException e) {
-                ResponseAppender.appendError("Unknown error. Stopping the session...");
-                System.exit(0);
+                readFailure = "unknown error";
+                App.logger.log(Level.SEVERE, "Unknown error while reading the file: " + e.getMessage());
+                throw e;
+            } catch (ZipException | EOFException e) {
+                readFailure = "the compressed file is corrupted";
+                App.logger.log(Level.SEVERE, "The compressed file is corrupted.");
             } catch (IOException e) {
-                ResponseAppender.appendError("I/O operation interrupted.");
+                readFailure = "I/O error";
+                App.logger.log(Level.SEVERE, "I/O operation interrupted.");
             }
         } else {
-            ResponseAppender.appendError("JSON file not found.");
+            App.logger.log(Level.SEVERE, "JSON file not found.");
         }
         return new LinkedList<>();
     }
 
+    /**
+     * This method is used to format the metrics of a snapshot.
+     * @param rawBytes    size of the JSON text.
+     * @param storedBytes size of the file.
+     * @param nanos       duration of the operation.
+     * @return formatted metrics.
+     */
+    private static String formatMetrics(long rawBytes, long storedBytes, long nanos) {
+        double ratio = storedBytes == 0 ? 0 : (double) rawBytes / storedBytes;
+        return String.format("%d B raw, %d B stored (x%.2f), %.1f ms", rawBytes, storedBytes, ratio, nanos / 1_000_000.0);
+    }
+
     /**
      * This method is a custom implementation of the toString() method in FileManager.
      * @return information about this class.
@@ -98,4 +247,109 @@ public class FileManager {
     public String toString() {
         return "FileManager (utility class for file management)";
     }
+
+    /**
+     * Output stream which counts the bytes that pass through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        /**
+         * This field holds the amount of written bytes.
+         */
+        private long count;
+
+        /**
+         * Constructs a CountingOutputStream over the specified stream.
+         * @param outputStream the underlying stream.
+         */
+        CountingOutputStream(OutputStream outputStream) {
+            super(outputStream);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        /**
+         * This method is a getter for the amount of written bytes.
+         * @return amount of bytes.
+         */
+        long getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Input stream which counts the bytes that pass through it.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        /**
+         * This field holds the amount of read bytes.
+         */
+        private long count;
+        /**
+         * This field holds the amount of read bytes at the marked position.
+         */
+        private long markedCount;
+
+        /**
+         * Constructs a CountingInputStream over the specified stream.
+         * @param inputStream the underlying stream.
+         */
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public synchronized void mark(int readLimit) {
+            in.mark(readLimit);
+            markedCount = count;
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            in.reset();
+            count = markedCount;
+        }
+
+        /**
+         * This method is a getter for the amount of read bytes.
+         * @return amount of bytes.
+         */
+        long getCount() {
+            return count;
+        }
+    }
 }
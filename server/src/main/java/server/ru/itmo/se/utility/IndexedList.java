@@ -0,0 +1,615 @@
+package server.ru.itmo.se.utility;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Class used for keeping the collection in insertion order while reaching any position in O(log n): a counted B+ tree.
+ * The elements are stored in leaves of up to 64 elements which are linked in order, and every inner node knows how many elements are under each of its children,
+ * so a position is found by walking down from the root and skipping whole children by their sizes.
+ * Every element is also mapped (by identity) to its leaf, so the position of a given element, and thus remove(Object) and contains(Object), take O(log n) as well.
+ * An element instance may be stored only once; equal but distinct instances are fine.
+ * Reads don't change anything, so they may run concurrently as long as no thread is writing.
+ * @param <E> the type of the elements.
+ */
+public class IndexedList<E> extends AbstractList<E> {
+    /**
+     * This field holds the greatest amount of elements in a leaf.
+     */
+    private static final int LEAF_CAPACITY = 64;
+    /**
+     * This field holds the greatest amount of children of an inner node.
+     */
+    private static final int INNER_CAPACITY = 64;
+    /**
+     * This field holds the amount of elements below which a leaf is merged into its neighbour if they fit together.
+     */
+    private static final int LEAF_MERGE_THRESHOLD = LEAF_CAPACITY / 4;
+    /**
+     * This field holds the amount of elements put into a leaf when the tree is built in bulk.
+     */
+    private static final int BULK_LEAF_FILL = LEAF_CAPACITY * 3 / 4;
+    /**
+     * This field holds the root of the tree.
+     */
+    private Node root;
+    /**
+     * This structure maps the elements to the leaves which hold them.
+     */
+    private final IdentityHashMap<Object, Leaf> leaves = new IdentityHashMap<>();
+
+    /**
+     * Constructs an empty IndexedList.
+     */
+    public IndexedList() {
+        root = new Leaf();
+    }
+
+    /**
+     * Constructs an IndexedList with the elements of the specified collection, in its iteration order.
+     * @param elements the elements.
+     */
+    public IndexedList(Collection<? extends E> elements) {
+        root = new Leaf();
+        buildFrom(elements.toArray());
+    }
+
+    /**
+     * This class represents a node of the tree.
+     */
+    private abstract static class Node {
+        /**
+         * This field holds the parent of the node, <p>null for the root.
+         */
+        Inner parent;
+        /**
+         * This field holds the amount of elements under the node.
+         */
+        int size;
+    }
+
+    /**
+     * This class represents a leaf, which holds the elements themselves.
+     */
+    private static final class Leaf extends Node {
+        /**
+         * This field holds the elements of the leaf; only the first 'size' ones are used.
+         */
+        final Object[] items = new Object[LEAF_CAPACITY];
+        /**
+         * This field holds the next leaf in the list's order.
+         */
+        Leaf next;
+        /**
+         * This field holds the previous leaf in the list's order.
+         */
+        Leaf previous;
+
+        /**
+         * This method is used to find the offset of an element in the leaf.
+         * @param element the element.
+         * @return the element's offset, <p>-1 if the leaf doesn't hold it.
+         */
+        int offsetOf(Object element) {
+            for (int i = 0; i < size; i++) {
+                if (items[i] == element) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * This class represents an inner node, which holds the children and through them the counts.
+     */
+    private static final class Inner extends Node {
+        /**
+         * This field holds the children of the node; only the first 'childCount' ones are used.
+         */
+        final Node[] children = new Node[INNER_CAPACITY];
+        /**
+         * This field holds the amount of children.
+         */
+        int childCount;
+
+        /**
+         * This method is used to find the position of a child.
+         * @param child the child.
+         * @return the child's position among the children.
+         */
+        int indexOf(Node child) {
+            for (int i = 0; i < childCount; i++) {
+                if (children[i] == child) {
+                    return i;
+                }
+            }
+            throw new java.lang.IllegalStateException("The node is not a child of its parent.");
+        }
+
+        /**
+         * This method is used to insert a child.
+         * @param position the child's position.
+         * @param child    the child.
+         */
+        void insertChild(int position, Node child) {
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            children[position] = child;
+            child.parent = this;
+            childCount++;
+        }
+
+        /**
+         * This method is used to remove a child.
+         * @param position the child's position.
+         */
+        void removeChild(int position) {
+            System.arraycopy(children, position + 1, children, position, childCount - position - 1);
+            children[--childCount] = null;
+        }
+    }
+
+    /**
+     * This record represents a position in the tree: a leaf and an offset in it.
+     * @param leaf   the leaf.
+     * @param offset the offset in the leaf.
+     */
+    private record Position(Leaf leaf, int offset) {
+    }
+
+    @Override
+    public int size() {
+        return root.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        Position position = find(index);
+        return (E) position.leaf().items[position.offset()];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size());
+        Position position = find(index);
+        E previous = (E) position.leaf().items[position.offset()];
+        if (previous != element) {
+            leaves.remove(previous);
+            position.leaf().items[position.offset()] = element;
+            leaves.put(element, position.leaf());
+        }
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size() + 1);
+        Leaf leaf;
+        int offset;
+        if (index == size()) {
+            leaf = lastLeaf();
+            offset = leaf.size;
+        } else {
+            Position position = find(index);
+            leaf = position.leaf();
+            offset = position.offset();
+        }
+        if (leaf.size == LEAF_CAPACITY) {
+            Leaf right = splitLeaf(leaf);
+            if (offset > leaf.size) {
+                offset -= leaf.size;
+                leaf = right;
+            }
+        }
+        System.arraycopy(leaf.items, offset, leaf.items, offset + 1, leaf.size - offset);
+        leaf.items[offset] = element;
+        leaves.put(element, leaf);
+        for (Node node = leaf; node != null; node = node.parent) {
+            node.size++;
+        }
+        modCount++;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+        Position position = find(index);
+        E removed = (E) position.leaf().items[position.offset()];
+        removeAt(position.leaf(), position.offset());
+        return removed;
+    }
+
+    /**
+     * This method is used to remove an element. The element itself is found in O(log n); only if the list doesn't hold that instance, the first equal element is looked for by a scan.
+     * @param element the element to be removed.
+     * @return true if an element has been removed, <p>false otherwise.
+     */
+    @Override
+    public boolean remove(Object element) {
+        Leaf leaf = leaves.get(element);
+        if (leaf != null) {
+            removeAt(leaf, leaf.offsetOf(element));
+            return true;
+        }
+        int index = indexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return leaves.containsKey(element) || super.contains(element);
+    }
+
+    /**
+     * This method is used to find the position of an element. The element itself is found in O(log n); otherwise the first equal element is looked for by a scan.
+     * @param element the element.
+     * @return the element's position, <p>-1 if the list doesn't contain it.
+     */
+    @Override
+    public int indexOf(Object element) {
+        Leaf leaf = leaves.get(element);
+        if (leaf == null) {
+            return super.indexOf(element);
+        }
+        int index = leaf.offsetOf(element);
+        Node child = leaf;
+        for (Inner parent = leaf.parent; parent != null; child = parent, parent = parent.parent) {
+            for (int i = 0; parent.children[i] != child; i++) {
+                index += parent.children[i].size;
+            }
+        }
+        return index;
+    }
+
+    @Override
+    public void clear() {
+        root = new Leaf();
+        leaves.clear();
+        modCount++;
+    }
+
+    /**
+     * This method is used to sort the elements. They are sorted in an array and the tree is built anew, which is cheaper than setting every position.
+     * @param comparator the comparator (null for the natural order).
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> comparator) {
+        Object[] elements = toArray();
+        Arrays.sort(elements, (Comparator<Object>) comparator);
+        root = new Leaf();
+        leaves.clear();
+        buildFrom(elements);
+        modCount++;
+    }
+
+    /**
+     * This method is used to remove all the elements which satisfy a condition in a single compaction pass: the remaining elements are collected in order and the tree is built anew.
+     * @param filter the condition.
+     * @return true if any element has been removed, <p>false otherwise.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Object[] remaining = new Object[size()];
+        int count = 0;
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                if (!filter.test((E) leaf.items[i])) {
+                    remaining[count++] = leaf.items[i];
+                }
+            }
+        }
+        if (count == size()) {
+            return false;
+        }
+        root = new Leaf();
+        leaves.clear();
+        buildFrom(Arrays.copyOf(remaining, count));
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new LeafIterator();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        for (Leaf leaf = firstLeaf(); leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                action.accept((E) leaf.items[i]);
+            }
+        }
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+        return Spliterators.spliterator(this, Spliterator.ORDERED | Spliterator.SIZED);
+    }
+
+    /**
+     * This method is used to find the leaf and offset of a position by walking down from the root.
+     * @param index the position, which must be in bounds.
+     * @return the leaf and the offset in it.
+     */
+    private Position find(int index) {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            int i = 0;
+            while (i < inner.childCount - 1 && index >= inner.children[i].size) {
+                index -= inner.children[i].size;
+                i++;
+            }
+            node = inner.children[i];
+        }
+        return new Position((Leaf) node, index);
+    }
+
+    /**
+     * This method is used to find the first leaf.
+     * @return the leftmost leaf.
+     */
+    private Leaf firstLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[0];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * This method is used to find the last leaf.
+     * @return the rightmost leaf.
+     */
+    private Leaf lastLeaf() {
+        Node node = root;
+        while (node instanceof Inner inner) {
+            node = inner.children[inner.childCount - 1];
+        }
+        return (Leaf) node;
+    }
+
+    /**
+     * This method is used to split a full leaf in halves. The right half becomes a new leaf next to it.
+     * @param leaf the leaf.
+     * @return the new leaf.
+     */
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int half = leaf.size / 2;
+        right.size = leaf.size - half;
+        System.arraycopy(leaf.items, half, right.items, 0, right.size);
+        Arrays.fill(leaf.items, half, leaf.size, null);
+        leaf.size = half;
+        for (int i = 0; i < right.size; i++) {
+            leaves.put(right.items[i], right);
+        }
+        right.next = leaf.next;
+        right.previous = leaf;
+        if (leaf.next != null) {
+            leaf.next.previous = right;
+        }
+        leaf.next = right;
+        insertAfter(leaf, right);
+        return right;
+    }
+
+    /**
+     * This method is used to put a new node right after its left neighbour, splitting the parents which are full on the way up.
+     * @param left  the node's left neighbour.
+     * @param right the new node. Its size must already be counted in the left neighbour's ancestors.
+     */
+    private void insertAfter(Node left, Node right) {
+        Inner parent = left.parent;
+        if (parent == null) {
+            Inner newRoot = new Inner();
+            newRoot.insertChild(0, left);
+            newRoot.insertChild(1, right);
+            newRoot.size = left.size + right.size;
+            root = newRoot;
+            return;
+        }
+        if (parent.childCount == INNER_CAPACITY) {
+            Inner rightParent = new Inner();
+            int half = parent.childCount / 2;
+            for (int i = half; i < parent.childCount; i++) {
+                rightParent.insertChild(rightParent.childCount, parent.children[i]);
+                rightParent.size += parent.children[i].size;
+                parent.children[i] = null;
+            }
+            parent.childCount = half;
+            parent.size -= rightParent.size;
+            if (left.parent == rightParent) {
+                parent.size -= right.size;
+                rightParent.size += right.size;
+            }
+            insertAfter(parent, rightParent);
+            parent = left.parent;
+        }
+        parent.insertChild(parent.indexOf(left) + 1, right);
+    }
+
+    /**
+     * This method is used to remove the element at an offset of a leaf, dropping or merging the leaf if it becomes (nearly) empty.
+     * @param leaf   the leaf.
+     * @param offset the offset.
+     */
+    private void removeAt(Leaf leaf, int offset) {
+        leaves.remove(leaf.items[offset]);
+        System.arraycopy(leaf.items, offset + 1, leaf.items, offset, leaf.size - offset - 1);
+        leaf.items[leaf.size - 1] = null;
+        for (Node node = leaf; node != null; node = node.parent) {
+            node.size--;
+        }
+        modCount++;
+        if (leaf.size == 0 && leaf.parent != null) {
+            detach(leaf);
+        } else if (leaf.size < LEAF_MERGE_THRESHOLD && leaf.previous != null && leaf.previous.parent == leaf.parent && leaf.previous.size + leaf.size <= LEAF_CAPACITY) {
+            mergeIntoPrevious(leaf);
+        }
+    }
+
+    /**
+     * This method is used to move the elements of a leaf to the end of its previous leaf (which has the same parent) and to drop the leaf.
+     * @param leaf the leaf.
+     */
+    private void mergeIntoPrevious(Leaf leaf) {
+        Leaf previous = leaf.previous;
+        System.arraycopy(leaf.items, 0, previous.items, previous.size, leaf.size);
+        for (int i = 0; i < leaf.size; i++) {
+            leaves.put(leaf.items[i], previous);
+        }
+        previous.size += leaf.size;
+        Arrays.fill(leaf.items, 0, leaf.size, null);
+        leaf.size = 0;
+        detach(leaf);
+    }
+
+    /**
+     * This method is used to drop an empty node from the tree, together with its ancestors which become empty, and to shorten the tree if the root is left with a single child.
+     * @param node the empty node. It must have a parent.
+     */
+    private void detach(Node node) {
+        if (node instanceof Leaf leaf) {
+            if (leaf.previous != null) {
+                leaf.previous.next = leaf.next;
+            }
+            if (leaf.next != null) {
+                leaf.next.previous = leaf.previous;
+            }
+        }
+        Inner parent = node.parent;
+        parent.removeChild(parent.indexOf(node));
+        node.parent = null;
+        if (parent.childCount == 0 && parent.parent != null) {
+            detach(parent);
+        }
+        while (root instanceof Inner inner && inner.childCount == 1) {
+            root = inner.children[0];
+            root.parent = null;
+        }
+        if (root instanceof Inner inner && inner.childCount == 0) {
+            root = new Leaf();
+        }
+    }
+
+    /**
+     * This method is used to build the tree bottom-up from elements in their order.
+     * @param elements the elements.
+     */
+    private void buildFrom(Object[] elements) {
+        if (elements.length == 0) {
+            return;
+        }
+        List<Node> level = new ArrayList<>();
+        Leaf previous = null;
+        for (int start = 0; start < elements.length; start += BULK_LEAF_FILL) {
+            Leaf leaf = new Leaf();
+            leaf.size = Math.min(BULK_LEAF_FILL, elements.length - start);
+            System.arraycopy(elements, start, leaf.items, 0, leaf.size);
+            for (int i = 0; i < leaf.size; i++) {
+                leaves.put(leaf.items[i], leaf);
+            }
+            leaf.previous = previous;
+            if (previous != null) {
+                previous.next = leaf;
+            }
+            previous = leaf;
+            level.add(leaf);
+        }
+        int fill = INNER_CAPACITY * 3 / 4;
+        while (level.size() > 1) {
+            List<Node> parents = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += fill) {
+                Inner inner = new Inner();
+                for (int i = start; i < Math.min(start + fill, level.size()); i++) {
+                    inner.insertChild(inner.childCount, level.get(i));
+                    inner.size += level.get(i).size;
+                }
+                parents.add(inner);
+            }
+            level = parents;
+        }
+        root = level.get(0);
+        root.parent = null;
+    }
+
+    /**
+     * This class is an iterator which walks the linked leaves, so a whole pass takes O(n).
+     */
+    private final class LeafIterator implements Iterator<E> {
+        /**
+         * This field holds the leaf of the next element.
+         */
+        private Leaf leaf = firstLeaf();
+        /**
+         * This field holds the offset of the next element in its leaf.
+         */
+        private int offset;
+        /**
+         * This field holds the position of the next element in the list.
+         */
+        private int index;
+        /**
+         * This field holds the position of the element returned last, <p>-1 if it has been removed or nothing has been returned yet.
+         */
+        private int lastReturned = -1;
+        /**
+         * This field holds the modification count the iterator expects.
+         */
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return index < size();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (index >= size()) {
+                throw new NoSuchElementException();
+            }
+            while (offset >= leaf.size) {
+                leaf = leaf.next;
+                offset = 0;
+            }
+            lastReturned = index++;
+            return (E) leaf.items[offset++];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new java.lang.IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            IndexedList.this.remove(lastReturned);
+            index = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+            if (index < size()) {
+                Position position = find(index);
+                leaf = position.leaf();
+                offset = position.offset();
+            }
+        }
+    }
+}
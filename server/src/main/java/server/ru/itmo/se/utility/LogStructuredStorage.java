@@ -0,0 +1,801 @@
+package server.ru.itmo.se.utility;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import common.ru.itmo.se.data.MusicBand;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import server.ru.itmo.se.App;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Storage engine which appends every version of a music band to rolling segment files.<p>
+ * An in-memory index maps a music band's ID to the segment and offset of its latest record, so an update or a removal is a single small append.
+ * When a segment is sealed, a compact footer with the (kind, ID, offset) of all its records is written at its end, so a restart rebuilds the index without reading the payloads.
+ * A background compactor rewrites the live records once superseded and removed ones take up most of the log.
+ * A snapshot is written into a temporary file which replaces the older segments only once it is complete, so a failed snapshot leaves the log as it was.
+ */
+public class LogStructuredStorage implements StorageEngine {
+    /**
+     * This field holds the name via which this engine is selected on startup.
+     */
+    public static final String ENGINE_NAME = "log";
+    /**
+     * This field holds the size after which the active segment is sealed and a new one is started.
+     */
+    private static final long SEGMENT_SIZE_LIMIT = 8L * 1024 * 1024;
+    /**
+     * This field holds the minimum size of the log that is worth compacting.
+     */
+    private static final long MIN_COMPACTION_SIZE = 1024L * 1024;
+    /**
+     * This field holds the share of dead bytes after which the log is compacted.
+     */
+    private static final double COMPACTION_GARBAGE_RATIO = 0.5;
+    /**
+     * This field holds the period (in seconds) between compaction checks.
+     */
+    private static final long COMPACTION_PERIOD = 30;
+    /**
+     * This field holds the length of a record header: kind (1), ID (4), payload length (4) and payload checksum (4).
+     */
+    private static final int RECORD_HEADER_SIZE = 13;
+    /**
+     * This field holds the length of a footer entry: kind (1), ID (4) and offset (8).
+     */
+    private static final int FOOTER_ENTRY_SIZE = 13;
+    /**
+     * This field holds the length of a footer trailer: entry count (4), footer offset (8) and magic number (4).
+     */
+    private static final int FOOTER_TRAILER_SIZE = 16;
+    /**
+     * This field holds the magic number which marks a sealed segment.
+     */
+    private static final int FOOTER_MAGIC = 0x4C534746;
+    /**
+     * This field holds the extension of segment files.
+     */
+    private static final String SEGMENT_EXTENSION = ".seg";
+    /**
+     * This field holds the extension which is added to a snapshot's segment until it is complete.
+     */
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    /**
+     * This field holds the name of the file that the engine works with. Segments are stored next to it as '&lt;file&gt;.&lt;number&gt;.seg'.
+     */
+    private final String fileName;
+    /**
+     * This field holds a Gson instance, via which a single music band is serialized into a record.
+     */
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .serializeNulls().create();
+    /**
+     * This field maps every live music band's ID to the location of its latest record.
+     */
+    private final Map<Integer, RecordPointer> index = new HashMap<>();
+    /**
+     * This field holds all the segments ordered by their numbers. The last one is the active segment.
+     */
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    /**
+     * This field holds the total size of all the records in the log.
+     */
+    private long totalBytes;
+    /**
+     * This field holds the total size of the records the index points to.
+     */
+    private long liveBytes;
+    /**
+     * This field determines whether the log couldn't be read on load. Then the segments are never replaced or appended to, so the records which couldn't be read aren't lost.
+     */
+    private boolean readOnly;
+    /**
+     * This field determines whether the collection has been imported from the JSON file and hasn't been written as the first snapshot yet.
+     * Until then nothing is appended, so the log never holds a part of the import which would prevent importing it again.
+     */
+    private boolean importPending;
+    /**
+     * This field determines whether records have been appended since the last commit, so the active segment has to be forced to the disk.
+     */
+    private boolean uncommitted;
+    /**
+     * This field determines whether a record couldn't be appended since the last commit.
+     */
+    private boolean appendFailed;
+    /**
+     * This field holds the background compactor.
+     */
+    private final ScheduledExecutorService compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "log-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a LogStructuredStorage with the specified file name.
+     * @param fileName file name passed from the console argument.
+     */
+    public LogStructuredStorage(String fileName) {
+        this.fileName = fileName;
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, COMPACTION_PERIOD, COMPACTION_PERIOD, TimeUnit.SECONDS);
+    }
+
+    /**
+     * This method is a getter for the engine's name.
+     * @return engine's name.
+     */
+    @Override
+    public String getName() {
+        return ENGINE_NAME;
+    }
+
+    /**
+     * This method rebuilds the index from the segments and reads every live music band.
+     * If there are no segments yet, the collection is imported from the JSON file with the same name. Nothing is written until the validated collection is saved as the first snapshot.
+     * If the segments (or the file to be imported) cannot be read, the engine becomes read-only: whatever has been read is returned, but the log is never replaced or appended to.
+     * @return the stored collection ordered by ID.
+     */
+    @Override
+    public synchronized LinkedList<MusicBand> load() {
+        LinkedList<MusicBand> collection = new LinkedList<>();
+        readOnly = false;
+        importPending = false;
+        try {
+            openSegments();
+            if (segments.isEmpty()) {
+                FileManager importedFile = new FileManager(fileName);
+                collection = importedFile.load();
+                if (importedFile.getReadFailure() != null) {
+                    readOnly = true;
+                    App.logger.log(Level.SEVERE, "The file to be imported cannot be read (" + importedFile.getReadFailure() + "). The log is read-only until the server is restarted, no changes will be saved.");
+                } else {
+                    importPending = true;
+                }
+                return collection;
+            }
+            for (RecordPointer pointer : index.values()) {
+                collection.add(readRecord(pointer));
+            }
+            collection.sort(MusicBand::compareTo);
+        } catch (IOException | JsonParseException e) {
+            readOnly = true;
+            App.logger.log(Level.SEVERE, "The segment files cannot be read: " + e.getMessage() + ". The log is read-only until the server is restarted, no changes will be saved.");
+        }
+        return collection;
+    }
+
+    /**
+     * This method replaces the whole log with a single snapshot of the collection.
+     * @param collection the collection from the application.
+     * @return true if the snapshot has been written, <p>false if an error occurred.
+     */
+    @Override
+    public synchronized boolean saveSnapshot(Collection<MusicBand> collection) {
+        if (readOnly) {
+            App.logger.log(Level.SEVERE, "The snapshot cannot be written: the log hasn't been read completely, so it is not replaced.");
+            return false;
+        }
+        try {
+            writeSnapshot(collection);
+            return true;
+        } catch (IOException e) {
+            App.logger.log(Level.SEVERE, "The snapshot cannot be written: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * This method tells whether the collection has been imported from the JSON file on load and still has to be written as the first snapshot.
+     * @return true if the import hasn't been written yet, <p>false otherwise.
+     */
+    @Override
+    public synchronized boolean isImportPending() {
+        return importPending;
+    }
+
+    /**
+     * This method appends a single record to the active segment and updates the index.
+     * @param mutation the change to be recorded.
+     */
+    @Override
+    public synchronized void appendMutation(StorageMutation mutation) {
+        try {
+            if (readOnly) {
+                throw new IOException("the log hasn't been read completely");
+            }
+            if (importPending) {
+                throw new IOException("the imported collection hasn't been written to the log yet");
+            }
+            append(mutation);
+            uncommitted = true;
+        } catch (IOException e) {
+            appendFailed = true;
+            App.logger.log(Level.SEVERE, "The change cannot be written to the log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method forces the records appended since the last commit to the disk, once for all the changes of a command.
+     * @return true if every record since the last commit is on the disk, <p>false if a record couldn't be written or the segment cannot be forced.
+     */
+    @Override
+    public synchronized boolean commit() {
+        boolean committed = !appendFailed;
+        appendFailed = false;
+        if (uncommitted && !segments.isEmpty()) {
+            try {
+                segments.lastEntry().getValue().channel.force(false);
+                uncommitted = false;
+            } catch (IOException e) {
+                App.logger.log(Level.SEVERE, "The log cannot be forced to the disk: " + e.getMessage());
+                committed = false;
+            }
+        }
+        return committed;
+    }
+
+    /**
+     * This method tells that every mutation is persisted by its own record, which is forced to the disk by commit().
+     * @return true.
+     */
+    @Override
+    public boolean isMutationDurable() {
+        return true;
+    }
+
+    /**
+     * This method stops the compactor, seals the active segment and closes all the files.
+     */
+    @Override
+    public synchronized void close() {
+        compactor.shutdownNow();
+        try {
+            if (!segments.isEmpty()) {
+                Segment active = segments.lastEntry().getValue();
+                if (active.entries.isEmpty()) {
+                    segments.remove(active.number);
+                    active.delete();
+                } else {
+                    active.seal();
+                }
+            }
+            for (Segment segment : segments.values()) {
+                segment.channel.close();
+            }
+            segments.clear();
+        } catch (IOException e) {
+            App.logger.log(Level.WARNING, "The segment files cannot be closed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method describes the log's metrics.
+     * @return the log's current state, and whether it is read-only.
+     */
+    @Override
+    public synchronized String describeMetrics() {
+        return readOnly ? "read-only, the log couldn't be read; " + stats() : stats();
+    }
+
+    /**
+     * This method is used to describe the current state of the log.
+     * @return amount of segments, live records and the share of dead bytes.
+     */
+    public synchronized String stats() {
+        return segments.size() + " segment(s), " + index.size() + " live record(s), " + Math.round(garbageRatio() * 100) + "% garbage";
+    }
+
+    /**
+     * This method opens every existing segment and replays their footers (or their records, if a segment wasn't sealed) into the index.
+     * @throws IOException if a segment cannot be read.
+     */
+    private void openSegments() throws IOException {
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+        segments.clear();
+        index.clear();
+        totalBytes = 0;
+        liveBytes = 0;
+        deleteTemporarySegments();
+        for (int number : findSegmentNumbers()) {
+            Segment segment = new Segment(number, segmentPath(number));
+            if (!segment.readFooter()) {
+                segment.recover();
+                if (segment.entries.isEmpty()) {
+                    segment.delete();
+                    continue;
+                }
+                segment.seal();
+            }
+            segments.put(number, segment);
+            replay(segment);
+        }
+        if (!segments.isEmpty()) {
+            startSegment();
+        }
+    }
+
+    /**
+     * This method applies all the records of a segment to the index.
+     * @param segment the segment.
+     */
+    private void replay(Segment segment) {
+        List<FooterEntry> entries = segment.entries;
+        for (int i = 0; i < entries.size(); i++) {
+            FooterEntry entry = entries.get(i);
+            long end = i + 1 < entries.size() ? entries.get(i + 1).getOffset() : segment.dataSize;
+            replay(entry.getKind(), entry.getId(), new RecordPointer(segment.number, entry.getOffset(), (int) (end - entry.getOffset())));
+        }
+        totalBytes += segment.dataSize;
+    }
+
+    /**
+     * This method applies a single record to the index.
+     * @param kind    the record's kind.
+     * @param id      the record's ID.
+     * @param pointer the record's location.
+     */
+    private void replay(StorageMutation.Kind kind, int id, RecordPointer pointer) {
+        switch (kind) {
+            case PUT -> {
+                RecordPointer previous = index.put(id, pointer);
+                if (previous != null) {
+                    liveBytes -= previous.getLength();
+                }
+                liveBytes += pointer.getLength();
+            }
+            case REMOVE -> {
+                RecordPointer previous = index.remove(id);
+                if (previous != null) {
+                    liveBytes -= previous.getLength();
+                }
+            }
+            case CLEAR -> {
+                index.clear();
+                liveBytes = 0;
+            }
+        }
+    }
+
+    /**
+     * This method appends a single record to the active segment, rolling it over if it's full.
+     * @param mutation the change to be recorded.
+     * @throws IOException if the record cannot be written.
+     */
+    private void append(StorageMutation mutation) throws IOException {
+        if (segments.isEmpty()) {
+            startSegment();
+        }
+        Segment active = segments.lastEntry().getValue();
+        if (active.dataSize >= SEGMENT_SIZE_LIMIT) {
+            active.seal();
+            active = startSegment();
+        }
+        ByteBuffer record = encodeRecord(mutation);
+        long offset = active.write(mutation, record);
+        totalBytes += record.limit();
+        replay(mutation.getKind(), mutation.getId(), new RecordPointer(active.number, offset, record.limit()));
+    }
+
+    /**
+     * This method encodes a mutation into a record: the header followed by the music band's JSON.
+     * @param mutation the change to be encoded.
+     * @return the record, ready to be written.
+     */
+    private ByteBuffer encodeRecord(StorageMutation mutation) {
+        byte[] payload = mutation.getMusicBand() == null ? new byte[0] : gson.toJson(mutation.getMusicBand()).getBytes(StandardCharsets.UTF_8);
+        CRC32 checksum = new CRC32();
+        checksum.update(payload);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length);
+        record.put((byte) mutation.getKind().ordinal()).putInt(mutation.getId()).putInt(payload.length).putInt((int) checksum.getValue()).put(payload);
+        record.flip();
+        return record;
+    }
+
+    /**
+     * This method writes the collection into a single fresh segment and deletes all the older ones.
+     * The segment is written under a temporary name and renamed once it is sealed, so if the snapshot fails, no part of it is left in the log.
+     * If the older segments cannot be deleted afterwards, they are harmless, since the snapshot starts with a clear record.
+     * @param collection the collection to be written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    private void writeSnapshot(Collection<MusicBand> collection) throws IOException {
+        int number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Path path = segmentPath(number);
+        Path temporaryPath = path.resolveSibling(path.getFileName() + TEMPORARY_EXTENSION);
+        Files.deleteIfExists(temporaryPath);
+        Segment snapshot = new Segment(number, temporaryPath);
+        try {
+            snapshot.write(StorageMutation.clear(), encodeRecord(StorageMutation.clear()));
+            for (MusicBand musicBand : collection) {
+                StorageMutation mutation = StorageMutation.put(musicBand);
+                snapshot.write(mutation, encodeRecord(mutation));
+            }
+            snapshot.seal();
+            snapshot.moveTo(path);
+        } catch (IOException | RuntimeException e) {
+            try {
+                snapshot.delete();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        List<Segment> obsolete = new ArrayList<>(segments.values());
+        segments.clear();
+        segments.put(number, snapshot);
+        index.clear();
+        totalBytes = 0;
+        liveBytes = 0;
+        replay(snapshot);
+        importPending = false;
+        startSegment();
+        for (Segment segment : obsolete) {
+            segment.delete();
+        }
+    }
+
+    /**
+     * This method is run by the background compactor. It rewrites the live records once most of the log is dead.
+     * It is package-private, so the tests can compact the log without waiting for the compactor.
+     */
+    synchronized void compactIfNeeded() {
+        if (readOnly || segments.isEmpty() || totalBytes < MIN_COMPACTION_SIZE || garbageRatio() < COMPACTION_GARBAGE_RATIO) {
+            return;
+        }
+        try {
+            String before = stats();
+            List<MusicBand> live = new ArrayList<>(index.size());
+            for (RecordPointer pointer : index.values()) {
+                live.add(readRecord(pointer));
+            }
+            live.sort(MusicBand::compareTo);
+            writeSnapshot(live);
+            App.logger.log(Level.INFO, "The log has been compacted: " + before + " -> " + stats() + ".");
+        } catch (IOException | JsonParseException e) {
+            App.logger.log(Level.SEVERE, "The log cannot be compacted: " + e.getMessage());
+        }
+    }
+
+    /**
+     * This method is used to calculate the share of dead bytes in the log.
+     * @return value between 0 and 1.
+     */
+    private double garbageRatio() {
+        return totalBytes == 0 ? 0 : 1.0 - (double) liveBytes / totalBytes;
+    }
+
+    /**
+     * This method reads a music band from its record.
+     * @param pointer the record's location.
+     * @return deserialized music band.
+     * @throws IOException if the record is missing or corrupted.
+     */
+    private MusicBand readRecord(RecordPointer pointer) throws IOException {
+        Segment segment = segments.get(pointer.getSegment());
+        if (segment == null) {
+            throw new IOException("Segment " + pointer.getSegment() + " is missing.");
+        }
+        ByteBuffer record = ByteBuffer.allocate(pointer.getLength());
+        readFully(segment.channel, record, pointer.getOffset());
+        record.flip();
+        record.position(RECORD_HEADER_SIZE);
+        return gson.fromJson(new String(record.array(), RECORD_HEADER_SIZE, record.remaining(), StandardCharsets.UTF_8), MusicBand.class);
+    }
+
+    /**
+     * This method creates a new active segment after the last one.
+     * @return the new segment.
+     * @throws IOException if the segment file cannot be created.
+     */
+    private Segment startSegment() throws IOException {
+        int number = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment segment = new Segment(number, segmentPath(number));
+        segments.put(number, segment);
+        return segment;
+    }
+
+    /**
+     * This method is used to find the numbers of the existing segments.
+     * @return sorted segment numbers.
+     */
+    private List<Integer> findSegmentNumbers() {
+        File base = new File(fileName).getAbsoluteFile();
+        String prefix = base.getName() + ".";
+        File[] files = base.getParentFile().listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(SEGMENT_EXTENSION));
+        List<Integer> numbers = new ArrayList<>();
+        if (files != null) {
+            for (File file : files) {
+                String number = file.getName().substring(prefix.length(), file.getName().length() - SEGMENT_EXTENSION.length());
+                try {
+                    numbers.add(Integer.parseInt(number));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    /**
+     * This method deletes the segments of snapshots which haven't been completed, e.g. because the server stopped while writing them.
+     * @throws IOException if a file cannot be deleted.
+     */
+    private void deleteTemporarySegments() throws IOException {
+        File base = new File(fileName).getAbsoluteFile();
+        String prefix = base.getName() + ".";
+        File[] files = base.getParentFile().listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(SEGMENT_EXTENSION + TEMPORARY_EXTENSION));
+        if (files != null) {
+            for (File file : files) {
+                Files.deleteIfExists(file.toPath());
+            }
+        }
+    }
+
+    /**
+     * This method is used to get the path of a segment file.
+     * @param number the segment's number.
+     * @return path of the segment file.
+     */
+    private Path segmentPath(int number) {
+        return new File(fileName).getAbsoluteFile().toPath().resolveSibling(new File(fileName).getName() + "." + String.format("%06d", number) + SEGMENT_EXTENSION);
+    }
+
+    /**
+     * This method reads from a channel until the buffer is full.
+     * @param channel  the channel to be read.
+     * @param buffer   the buffer to be filled.
+     * @param position the position in the channel.
+     * @throws IOException if the channel ends before the buffer is full.
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of a segment.");
+            }
+        }
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in LogStructuredStorage.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "LogStructuredStorage (log-structured storage engine)";
+    }
+
+    /**
+     * This class represents the location of a record in the log.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class RecordPointer {
+        /**
+         * This field holds the number of the segment.
+         */
+        private final int segment;
+        /**
+         * This field holds the offset of the record in the segment.
+         */
+        private final long offset;
+        /**
+         * This field holds the length of the whole record.
+         */
+        private final int length;
+    }
+
+    /**
+     * This class represents a single entry of a segment's footer.
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class FooterEntry {
+        /**
+         * This field holds the record's kind.
+         */
+        private final StorageMutation.Kind kind;
+        /**
+         * This field holds the record's ID.
+         */
+        private final int id;
+        /**
+         * This field holds the offset of the record in the segment.
+         */
+        private final long offset;
+    }
+
+    /**
+     * This class represents a single segment file.
+     */
+    private static class Segment {
+        /**
+         * This field holds the segment's number.
+         */
+        private final int number;
+        /**
+         * This field holds the segment's path.
+         */
+        private Path path;
+        /**
+         * This field holds the channel via which the segment is read and written.
+         */
+        private final FileChannel channel;
+        /**
+         * This field holds the entries of all the records in the order they were written.
+         */
+        private final List<FooterEntry> entries = new ArrayList<>();
+        /**
+         * This field holds the size of the records (without the footer).
+         */
+        private long dataSize;
+        /**
+         * This field determines whether the footer has already been written.
+         */
+        private boolean sealed;
+
+        /**
+         * Constructs a Segment with the specified number and path. The file is created if it doesn't exist.
+         * @param number the segment's number.
+         * @param path   the segment's path.
+         * @throws IOException if the file cannot be opened.
+         */
+        Segment(int number, Path path) throws IOException {
+            this.number = number;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * This method reads the footer of a sealed segment. The footer has no checksum, so every entry is checked the way recover() checks the records.
+         * @return true if the segment was sealed, <p>false if it has no valid footer, so its records have to be scanned.
+         * @throws IOException if the file cannot be read.
+         */
+        boolean readFooter() throws IOException {
+            long size = channel.size();
+            if (size < FOOTER_TRAILER_SIZE) {
+                return false;
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(FOOTER_TRAILER_SIZE);
+            readFully(channel, trailer, size - FOOTER_TRAILER_SIZE);
+            trailer.flip();
+            int count = trailer.getInt();
+            long footerOffset = trailer.getLong();
+            if (trailer.getInt() != FOOTER_MAGIC || count < 0 || footerOffset + (long) count * FOOTER_ENTRY_SIZE + FOOTER_TRAILER_SIZE != size) {
+                return false;
+            }
+            ByteBuffer footer = ByteBuffer.allocate(count * FOOTER_ENTRY_SIZE);
+            readFully(channel, footer, footerOffset);
+            footer.flip();
+            StorageMutation.Kind[] kinds = StorageMutation.Kind.values();
+            long previousOffset = -1;
+            for (int i = 0; i < count; i++) {
+                int kind = footer.get();
+                int id = footer.getInt();
+                long offset = footer.getLong();
+                if (kind < 0 || kind >= kinds.length || offset <= previousOffset || offset + RECORD_HEADER_SIZE > footerOffset) {
+                    entries.clear();
+                    return false;
+                }
+                entries.add(new FooterEntry(kinds[kind], id, offset));
+                previousOffset = offset;
+            }
+            dataSize = footerOffset;
+            sealed = true;
+            return true;
+        }
+
+        /**
+         * This method scans the records of a segment that wasn't sealed (e.g. after a crash) and cuts off a torn record at the end.
+         * @throws IOException if the file cannot be read.
+         */
+        void recover() throws IOException {
+            long size = channel.size();
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+            StorageMutation.Kind[] kinds = StorageMutation.Kind.values();
+            while (offset + RECORD_HEADER_SIZE <= size) {
+                header.clear();
+                readFully(channel, header, offset);
+                header.flip();
+                int kind = header.get();
+                int id = header.getInt();
+                int length = header.getInt();
+                int checksum = header.getInt();
+                if (kind < 0 || kind >= kinds.length || length < 0 || offset + RECORD_HEADER_SIZE + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                readFully(channel, payload, offset + RECORD_HEADER_SIZE);
+                CRC32 crc = new CRC32();
+                crc.update(payload.array());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                entries.add(new FooterEntry(kinds[kind], id, offset));
+                offset += RECORD_HEADER_SIZE + length;
+            }
+            channel.truncate(offset);
+            dataSize = offset;
+        }
+
+        /**
+         * This method writes a record after the last one.
+         * @param mutation the change which is recorded.
+         * @param record   the encoded record, positioned at its start.
+         * @return the record's offset.
+         * @throws IOException if the record cannot be written.
+         */
+        long write(StorageMutation mutation, ByteBuffer record) throws IOException {
+            long offset = dataSize;
+            long position = offset;
+            while (record.hasRemaining()) {
+                position += channel.write(record, position);
+            }
+            dataSize = position;
+            entries.add(new FooterEntry(mutation.getKind(), mutation.getId(), offset));
+            return offset;
+        }
+
+        /**
+         * This method renames the segment's file. The rename is atomic, so the file appears under the new name either complete or not at all.
+         * @param target the new path.
+         * @throws IOException if the file cannot be renamed.
+         */
+        void moveTo(Path target) throws IOException {
+            Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            path = target;
+        }
+
+        /**
+         * This method writes the footer and flushes the segment to the disk. A sealed segment is never written again.
+         * @throws IOException if the footer cannot be written.
+         */
+        void seal() throws IOException {
+            if (sealed) {
+                return;
+            }
+            ByteBuffer footer = ByteBuffer.allocate(entries.size() * FOOTER_ENTRY_SIZE + FOOTER_TRAILER_SIZE);
+            for (FooterEntry entry : entries) {
+                footer.put((byte) entry.getKind().ordinal()).putInt(entry.getId()).putLong(entry.getOffset());
+            }
+            footer.putInt(entries.size()).putLong(dataSize).putInt(FOOTER_MAGIC);
+            footer.flip();
+            long position = dataSize;
+            while (footer.hasRemaining()) {
+                position += channel.write(footer, position);
+            }
+            channel.force(true);
+            sealed = true;
+        }
+
+        /**
+         * This method closes and deletes the segment file.
+         * @throws IOException if the file cannot be deleted.
+         */
+        void delete() throws IOException {
+            channel.close();
+            Files.deleteIfExists(path);
+        }
+    }
+}
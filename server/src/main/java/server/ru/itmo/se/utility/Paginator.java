@@ -0,0 +1,133 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.exceptions.InvalidCursorException;
+import common.ru.itmo.se.exceptions.ValueRangeException;
+import common.ru.itmo.se.interaction.PageRequest;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Class used for splitting the results of list-producing commands into pages.
+ * The first page of a query captures the whole result at the current collection version, so the following pages come from the same snapshot even if other clients change the collection in the meantime.
+ * Only the latest snapshots are kept; a cursor whose snapshot has been discarded is rejected and the client has to start over.
+ */
+public class Paginator {
+    /**
+     * This field holds the greatest allowed page size.
+     */
+    public static final int MAX_PAGE_SIZE = 10_000;
+    /**
+     * This field holds the amount of snapshots that are kept at the same time.
+     */
+    private static final int SNAPSHOT_LIMIT = 16;
+    /**
+     * This field holds the length of a decoded cursor: the snapshot's version, the offset of the page and the hash of the query.
+     */
+    private static final int CURSOR_LENGTH = Long.BYTES + 2 * Integer.BYTES;
+    /**
+     * This structure maps "version/query" keys to the captured results. The least recently used snapshot is discarded first.
+     */
+    private final Map<String, List<?>> snapshots = new LinkedHashMap<>(SNAPSHOT_LIMIT, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<?>> eldest) {
+            return size() > SNAPSHOT_LIMIT;
+        }
+    };
+
+    /**
+     * This method is used to get a page of a query's result.
+     * If more pages follow, the cursor of the next one is added to the response.
+     * @param version          the current version of the collection.
+     * @param query            the command and its argument; a cursor is only valid for the query it has been issued for.
+     * @param pageRequest      the requested page.
+     * @param view             the query itself. It is only evaluated for the first page.
+     * @param responseAppender the response of the current request.
+     * @param <T>              the type of the result's elements.
+     * @return elements of the page.
+     * @throws ValueRangeException    if the page size is out of bounds.
+     * @throws InvalidCursorException if the cursor is malformed, belongs to another query or has expired.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> page(long version, String query, PageRequest pageRequest, Supplier<? extends Collection<T>> view, ResponseAppender responseAppender) {
+        int pageSize = pageRequest.getPageSize();
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new ValueRangeException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".", new RuntimeException());
+        }
+        long snapshotVersion = version;
+        int offset = 0;
+        if (pageRequest.getCursor() != null) {
+            ByteBuffer cursor = decode(pageRequest.getCursor());
+            snapshotVersion = cursor.getLong();
+            offset = cursor.getInt();
+            if (cursor.getInt() != query.hashCode() || offset < 0) {
+                throw new InvalidCursorException("The cursor doesn't belong to this query.", new RuntimeException());
+            }
+        }
+        String key = snapshotVersion + "/" + query;
+        List<T> snapshot;
+        synchronized (snapshots) {
+            snapshot = (List<T>) snapshots.get(key);
+        }
+        if (snapshot == null) {
+            if (snapshotVersion != version) {
+                throw new InvalidCursorException("The cursor has expired. Please request the first page again.", new RuntimeException());
+            }
+            snapshot = new ArrayList<>(view.get());
+        }
+        if (offset > snapshot.size()) {
+            throw new InvalidCursorException("The cursor points beyond the end of the result.", new RuntimeException());
+        }
+        int end = Math.min(offset + pageSize, snapshot.size());
+        if (end < snapshot.size()) {
+            synchronized (snapshots) {
+                snapshots.putIfAbsent(key, snapshot);
+            }
+            responseAppender.appendNextCursor(encode(snapshotVersion, end, query));
+        }
+        return snapshot.subList(offset, end);
+    }
+
+    /**
+     * This method is used to build an opaque cursor.
+     * @param version the snapshot's version.
+     * @param offset  the offset of the page.
+     * @param query   the query.
+     * @return URL-safe Base64 cursor.
+     */
+    private static String encode(long version, int offset, String query) {
+        ByteBuffer cursor = ByteBuffer.allocate(CURSOR_LENGTH).putLong(version).putInt(offset).putInt(query.hashCode());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.array());
+    }
+
+    /**
+     * This method is used to unpack a cursor.
+     * @param cursor the cursor sent by the client.
+     * @return buffer positioned at the snapshot's version.
+     * @throws InvalidCursorException if the cursor is malformed.
+     */
+    private static ByteBuffer decode(String cursor) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+            if (bytes.length != CURSOR_LENGTH) {
+                throw new BufferUnderflowException();
+            }
+            return ByteBuffer.wrap(bytes);
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            throw new InvalidCursorException("The cursor is malformed.", new RuntimeException());
+        }
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in Paginator.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        synchronized (snapshots) {
+            return "Paginator (" + snapshots.size() + "/" + SNAPSHOT_LIMIT + " snapshots)";
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package server.ru.itmo.se.utility;
+
+import java.util.*;
+import java.util.random.RandomGenerator;
+
+/**
+ * Class used for showing a list in a shuffled order without moving its elements: a read-only view through a permutation of positions.
+ * The permutation is a primitive int array, so a shuffle is a single O(n) pass over ints and a reset only drops the array.
+ * While no shuffle is active the view is the list itself.
+ * The owner reports the additions and removals made to the list, so the permutation keeps following it.
+ * @param <E> the type of the elements.
+ */
+public class PermutedList<E> extends AbstractList<E> {
+    /**
+     * This field holds the viewed list.
+     */
+    private final List<E> base;
+    /**
+     * This field holds the stored position of every position of the view, <p>null if no shuffle is active.
+     */
+    private int[] permutation;
+
+    /**
+     * Constructs a PermutedList over the specified list, in its own order.
+     * @param base the viewed list.
+     */
+    public PermutedList(List<E> base) {
+        this.base = base;
+    }
+
+    /**
+     * This method is used to shuffle the view (Fisher-Yates over the positions).
+     * @param random the source of randomness.
+     */
+    public void shuffle(RandomGenerator random) {
+        int size = base.size();
+        int[] shuffled = new int[Math.max(16, size + size / 2)];
+        for (int i = 0; i < size; i++) {
+            int j = random.nextInt(i + 1);
+            shuffled[i] = shuffled[j];
+            shuffled[j] = i;
+        }
+        permutation = shuffled;
+        modCount++;
+    }
+
+    /**
+     * This method is used to bring the view back to the list's own order.
+     */
+    public void reset() {
+        permutation = null;
+        modCount++;
+    }
+
+    /**
+     * This method is used to check whether a shuffle is active.
+     * @return true if the view is shuffled, <p>false if it shows the list's own order.
+     */
+    public boolean isShuffled() {
+        return permutation != null;
+    }
+
+    /**
+     * This method is used to find the position in the list of a position of the view.
+     * @param index the position of the view.
+     * @return the stored position.
+     */
+    public int storedIndex(int index) {
+        Objects.checkIndex(index, base.size());
+        return permutation == null ? index : permutation[index];
+    }
+
+    /**
+     * This method is used to report that an element has been added at the end of the list. It is shown at the end of the view as well.
+     */
+    public void appended() {
+        if (permutation != null) {
+            int last = base.size() - 1;
+            if (last == permutation.length) {
+                permutation = Arrays.copyOf(permutation, permutation.length + permutation.length / 2);
+            }
+            permutation[last] = last;
+        }
+        modCount++;
+    }
+
+    /**
+     * This method is used to report that the element at a position of the list has been removed.
+     * The permutation drops that position and moves the following ones back, which is a pass over ints.
+     * @param storedIndex the removed element's former position in the list.
+     */
+    public void removed(int storedIndex) {
+        if (permutation != null) {
+            int size = base.size();
+            int target = 0;
+            while (permutation[target] != storedIndex) {
+                target++;
+            }
+            System.arraycopy(permutation, target + 1, permutation, target, size - target);
+            for (int i = 0; i < size; i++) {
+                if (permutation[i] > storedIndex) {
+                    permutation[i]--;
+                }
+            }
+        }
+        modCount++;
+    }
+
+    /**
+     * This method is used to report that many elements have been removed from the list at once. The permutation is compacted in two passes, keeping the shown order of the remaining elements.
+     * @param kept the former positions of the list which have been kept.
+     */
+    public void retained(boolean[] kept) {
+        if (permutation != null) {
+            int[] newPositions = new int[kept.length];
+            int count = 0;
+            for (int i = 0; i < kept.length; i++) {
+                newPositions[i] = kept[i] ? count++ : -1;
+            }
+            int size = 0;
+            for (int i = 0; i < kept.length; i++) {
+                if (newPositions[permutation[i]] >= 0) {
+                    permutation[size++] = newPositions[permutation[i]];
+                }
+            }
+        }
+        modCount++;
+    }
+
+    @Override
+    public E get(int index) {
+        return base.get(storedIndex(index));
+    }
+
+    @Override
+    public int size() {
+        return base.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return permutation == null ? Collections.unmodifiableList(base).iterator() : super.iterator();
+    }
+}
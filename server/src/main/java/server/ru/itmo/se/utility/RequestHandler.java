@@ -1,8 +1,14 @@
 package server.ru.itmo.se.utility;
 
+import common.ru.itmo.se.interaction.CommandOpcode;
+import common.ru.itmo.se.interaction.PageRequest;
 import common.ru.itmo.se.interaction.Request;
-import common.ru.itmo.se.interaction.Response;
 import common.ru.itmo.se.interaction.ResponseCode;
+import server.ru.itmo.se.commands.AccessMode;
+import server.ru.itmo.se.commands.CommandImpl;
+
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Utility class used for interpreting client requests.
@@ -12,44 +18,167 @@ public class RequestHandler {
      * This field holds a CommandManager which is responsible for all operations with commands.
      */
     private final CommandManager commandManager;
+    /**
+     * This field holds a CollectionManager which tells whether the collection has been loaded yet.
+     */
+    private final CollectionManager collectionManager;
+    /**
+     * This field holds a CommandScheduler which decides which commands may run at the same time.
+     */
+    private final CommandScheduler commandScheduler;
 
     /**
-     * Constructs a RequestHandler with the specified command manager.
-     * @param commandManager the specified CommandManager.
+     * Constructs a RequestHandler with the specified command manager, collection manager and scheduler.
+     * @param commandManager    the specified CommandManager.
+     * @param collectionManager the specified CollectionManager.
+     * @param commandScheduler  the specified CommandScheduler.
      */
-    public RequestHandler(CommandManager commandManager) {
+    public RequestHandler(CommandManager commandManager, CollectionManager collectionManager, CommandScheduler commandScheduler) {
         this.commandManager = commandManager;
+        this.collectionManager = collectionManager;
+        this.commandScheduler = commandScheduler;
+    }
+
+    /**
+     * This method is used to handle interpret requests from the client. It may be called from several threads at once: the scheduler lets reads run concurrently and writes run alone.
+     * @param request          the client's request.
+     * @param responseAppender the response of the request, to which the command's output is appended.
+     * @return the according response code.
+     */
+    public ResponseCode handle(Request request, ResponseAppender responseAppender) {
+        commandManager.addToHistory(request.getOpcode());
+        if (request.getOpcode() == CommandOpcode.EXECUTE_SCRIPT.getCode() && request.getCommandObjArg() instanceof List<?> batch) {
+            return commandScheduler.execute(getAccessMode(batch), () -> executeBatch(request.getCommandStrArg(), batch, responseAppender));
+        }
+        return commandScheduler.execute(getAccessMode(request.getOpcode()),
+                () -> executeCommand(request.getOpcode(), request.getCommandStrArg(), request.getCommandObjArg(), responseAppender));
     }
 
     /**
-     * This method is used to handle interpret requests from the client.
+     * This method is used to find the key under which the response of a request is cached.
+     * A page is deterministic as well: its cursor holds the version of the snapshot it comes from.
+     * The collection's version is read before the command is executed, so a response is never kept under a version newer than the one it has been produced from.
      * @param request the client's request.
-     * @return the according response to the request.
+     * @return the key, <p>null if the response of the request cannot be cached.
      */
-    public Response handle(Request request) {
-        commandManager.addToHistory(request.getCommandName());
-        ResponseCode responseCode = executeCommand(request.getCommandName(), request.getCommandStrArg(), request.getCommandObjArg());
-        return new Response(responseCode, ResponseAppender.getAndClear());
+    public ResponseCache.Key getCacheKey(Request request) {
+        CommandImpl command = commandManager.getCommand(request.getOpcode());
+        if (command == null || !command.isCacheable()) {
+            return null;
+        }
+        if (request.getCommandObjArg() instanceof PageRequest pageRequest) {
+            return new ResponseCache.Key(request.getOpcode(), request.getCommandStrArg(), pageRequest.getPageSize(), pageRequest.getCursor(), collectionManager.getVersion());
+        }
+        return request.getCommandObjArg() == null ? new ResponseCache.Key(request.getOpcode(), request.getCommandStrArg(), 0, null, collectionManager.getVersion()) : null;
+    }
+
+    /**
+     * This method is used to answer a request from the cache. A request answered this way is recorded into history as well.
+     * @param request  the client's request.
+     * @param cacheKey the key of the request's response.
+     * @return the cached frame of the response, <p>null if it isn't cached.
+     */
+    public ByteBuffer findCachedFrame(Request request, ResponseCache.Key cacheKey) {
+        ByteBuffer frame = collectionManager.getResponseCache().get(cacheKey);
+        if (frame != null) {
+            commandManager.addToHistory(request.getOpcode());
+        }
+        return frame;
+    }
+
+    /**
+     * This method is used to keep the encoded response of a request, so the next identical request is answered from the cache.
+     * @param cacheKey the key of the request's response.
+     * @param frame    the encoded response.
+     */
+    public void cacheFrame(ResponseCache.Key cacheKey, ByteBuffer frame) {
+        collectionManager.getResponseCache().put(cacheKey, frame);
+    }
+
+    /**
+     * This method is used to find out how a command accesses the collection.
+     * @param opcode the command's code.
+     * @return the command's access mode, <p>READ if there is no such command (only an error is reported then).
+     */
+    private AccessMode getAccessMode(int opcode) {
+        CommandImpl command = commandManager.getCommand(opcode);
+        return command == null ? AccessMode.READ : command.getAccessMode();
+    }
+
+    /**
+     * This method is used to find out how a script batch accesses the collection.
+     * @param batch the script's requests.
+     * @return the strictest access mode among the script's commands.
+     */
+    private AccessMode getAccessMode(List<?> batch) {
+        AccessMode accessMode = getAccessMode(CommandOpcode.EXECUTE_SCRIPT.getCode());
+        for (Object element : batch) {
+            if (element instanceof Request request) {
+                accessMode = accessMode.combine(getAccessMode(request.getOpcode()));
+            }
+        }
+        return accessMode;
+    }
+
+    /**
+     * This method is used to execute a whole script, which the client has already parsed into requests, as a single batch.
+     * The scheduler is entered once for the whole script and the execution stops at the first command which doesn't succeed, as it does when a script is run interactively.
+     * @param scriptName       the script's file name.
+     * @param batch            the script's requests.
+     * @param responseAppender the response of the request, to which the output of every command and its result code is appended.
+     * @return OK if every command has succeeded, <p>the code of the first failed command otherwise.
+     */
+    private ResponseCode executeBatch(String scriptName, List<?> batch, ResponseAppender responseAppender) {
+        ResponseCode responseCode = executeCommand(CommandOpcode.EXECUTE_SCRIPT.getCode(), scriptName, null, responseAppender);
+        if (responseCode != ResponseCode.OK) {
+            return responseCode;
+        }
+        for (Object element : batch) {
+            if (!(element instanceof Request request) || request.getOpcode() == CommandOpcode.EXECUTE_SCRIPT.getCode()) {
+                responseAppender.appendError("Execution error: Please debug your script.");
+                responseAppender.appendResultCode(ResponseCode.ERROR);
+                return ResponseCode.ERROR;
+            }
+            commandManager.addToHistory(request.getOpcode());
+            responseCode = executeCommand(request.getOpcode(), request.getCommandStrArg(), request.getCommandObjArg(), responseAppender);
+            responseAppender.appendResultCode(responseCode);
+            if (responseCode != ResponseCode.OK) {
+                responseAppender.appendError("Execution error: Please debug your script.");
+                return responseCode;
+            }
+        }
+        return ResponseCode.OK;
     }
 
     /**
      * This method is used to execute the client's request.
-     * @param commandName   the request's command name.
+     * @param opcode        the request's command code.
      * @param commandStrArg the request's string argument.
      * @param commandObjArg the request's object argument.
+     * @param responseAppender the response of the request.
      * @return the according response code.
      */
-    private ResponseCode executeCommand(String commandName, String commandStrArg, Object commandObjArg) {
-        if(commandManager.commandMap.containsKey(commandName)) {
-            if(commandName.equals("server_exit")){
-                return (commandManager.commandMap.get("server_exit").apply(commandStrArg, commandObjArg)) ? ResponseCode.SERVER_EXIT : ResponseCode.ERROR;
+    private ResponseCode executeCommand(int opcode, String commandStrArg, Object commandObjArg, ResponseAppender responseAppender) {
+        CommandImpl command = commandManager.getCommand(opcode);
+        if(command != null) {
+            if(command.requiresCollection() && !collectionManager.isLoaded()) {
+                if (collectionManager.getLoadFailure() != null) {
+                    responseAppender.appendError("The collection cannot be loaded (" + collectionManager.getLoadFailure() + "). See the server's log for details.");
+                    return ResponseCode.ERROR;
+                }
+                responseAppender.appendError("The collection is still loading (" + collectionManager.describeLoadProgress() + "). Please retry later.");
+                return ResponseCode.LOADING;
+            }
+            if(opcode == CommandOpcode.SERVER_EXIT.getCode()){
+                return (command.apply(commandStrArg, commandObjArg, responseAppender)) ? ResponseCode.SERVER_EXIT : ResponseCode.ERROR;
             } else {
-                return (commandManager.commandMap.get(commandName).apply(commandStrArg, commandObjArg)) ? ResponseCode.OK : ResponseCode.ERROR;
+                return (command.apply(commandStrArg, commandObjArg, responseAppender)) ? ResponseCode.OK : ResponseCode.ERROR;
             }
-        } else if(commandName.isEmpty()) {
+        } else if(opcode == CommandOpcode.NONE.getCode()) {
             return ResponseCode.ERROR;
         } else {
-            CommandManager.noSuchCommand(commandName);
+            CommandOpcode commandOpcode = CommandOpcode.byCode(opcode);
+            CommandManager.noSuchCommand(commandOpcode == null ? "#" + opcode : commandOpcode.getCommandName(), responseAppender);
         }
         return ResponseCode.ERROR;
     }
@@ -1,76 +1,236 @@
 package server.ru.itmo.se.utility;
 
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.data.MusicBandRecord;
+import common.ru.itmo.se.interaction.MessageKind;
+import common.ru.itmo.se.interaction.ResponseCode;
+import common.ru.itmo.se.interaction.ResponsePayload;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+
 /**
- * Class used for appending colored and formatted strings as a response.
+ * Class used for appending messages and typed data as a response. Formatting and coloring are left to the client.
+ * Every request gets its own instance, whose buffer is taken from the BufferPool and returned to it after the response has been encoded.
  */
 public class ResponseAppender {
     /**
-     * This field is used to accumulate formatted strings.
+     * This field holds the maximum length of a single response. Everything beyond it is dropped and replaced with a notice.
+     */
+    public static final int MAX_RESPONSE_LENGTH = 8 * 1024 * 1024;
+    /**
+     * This field holds the notice which is appended when a response gets truncated.
+     */
+    private static final String TRUNCATION_NOTICE = MessageKind.ERROR.getMarker() + "The response is too long and has been truncated." + MessageKind.MESSAGE_SEPARATOR;
+    /**
+     * This field is used to accumulate formatted strings of the current request.
+     */
+    private StringBuilder output;
+    /**
+     * This field tells whether the response has been truncated.
+     */
+    private boolean truncated;
+    /**
+     * This field holds the typed data of the current request.
+     */
+    private final ResponsePayload payload = new ResponsePayload();
+
+    /**
+     * Constructs a ResponseAppender with the specified buffer.
+     * @param output the buffer to be used.
+     */
+    private ResponseAppender(StringBuilder output) {
+        this.output = output;
+    }
+
+    /**
+     * This method is used to create a response for a new request.
+     * @return empty ResponseAppender.
      */
-    public static StringBuilder output = new StringBuilder();
+    public static ResponseAppender acquire() {
+        return new ResponseAppender(BufferPool.acquireText());
+    }
+
+    /**
+     * This method is used to return the buffer to the pool. The instance must not be used afterwards.
+     */
+    public void release() {
+        if (output != null) {
+            BufferPool.releaseText(output);
+            output = null;
+        }
+    }
 
     /**
-     * This method is a custom implementation of the print() method. The output is colored purple with the Help of a corresponding ANSI code.
+     * This method is a custom implementation of the print() method. The message is not followed by a line break.
      * @param toOut the object to be printed.
      */
-    public static void append(Object toOut) {
-        output.append("\u001B[1;35m" + toOut + "\u001B[0m");
+    public void append(Object toOut) {
+        write(MessageKind.INLINE, String.valueOf(toOut));
     }
 
     /**
-     * This method is a custom implementation of the println() method. The output is colored green with the Help of a corresponding ANSI code.
+     * This method is a custom implementation of the println() method which outputs an empty line.
      */
-    public static void appendln() {
-        output.append("\u001B[0m\n");
+    public void appendln() {
+        write(MessageKind.LINE, "");
     }
 
     /**
-     *
+     * This method is a custom implementation of the println() method which prints an object.
      * @param toOut the object to be printed.
      */
-    public static void appendln(Object toOut) {
-        output.append("\u001B[32m" + toOut + "\u001B[0m").append("\n");
+    public void appendln(Object toOut) {
+        write(MessageKind.LINE, String.valueOf(toOut));
     }
+
     /**
-     * This method is a custom implementation of the err.print() method. The output is colored black with red background with the Help of corresponding ANSI codes.
+     * This method is a custom implementation of the err.print() method. The client renders it as an error.
      * @param toOut the error that was raised.
      */
-    public static void appendError(Object toOut) {
-        output.append("\u001B[41m + \u001B[30m" + "Error: ").append(toOut).append("\u001B[0m\n");
+    public void appendError(Object toOut) {
+        write(MessageKind.ERROR, String.valueOf(toOut));
     }
 
     /**
-     * This method is used to output all the commands in a table format. The row border is colored purple, the object and the column border is colored cyan with the Help of corresponding ANSI codes.
+     * This method is used to output a row of a three-column table. The client aligns the cells.
      * @param e1 first column object.
      * @param e2 second column object.
      * @param e3 third column object.
      */
-    public static void appendTable(Object e1, Object e2, Object e3) {
-        output.append(String.format("\u001B[36m| %-41s | %-24s | %-75s | %n", e1, e2, e3)).append("\u001B[35m=-".repeat(75)).append("\u001B[0m\n");
+    public void appendTable(Object e1, Object e2, Object e3) {
+        write(MessageKind.TABLE_ROW, String.valueOf(e1) + MessageKind.CELL_SEPARATOR + e2 + MessageKind.CELL_SEPARATOR + e3);
     }
 
     /**
-     * This method is used to retrieve the accumulated string.
-     * @return resulting string.
+     * This method is used to add music band records to the response.
+     * @param musicBands the music bands to be sent.
      */
-    public static String getString() {
-        return output.toString();
+    public void appendMusicBands(Collection<MusicBand> musicBands) {
+        payload.addMusicBands(musicBands);
     }
 
     /**
-     * This method is used to retrieve the accumulated string and to clear the buffer.
-     * @return resulting string.
+     * This method is used to add already encoded music bands to the response.
+     * @param musicBands the records of the music bands.
+     */
+    public void appendMusicBands(MusicBandRecord.Block musicBands) {
+        payload.addMusicBands(musicBands);
+    }
+
+    /**
+     * This method is used to add rows of selected fields to the response.
+     * @param columns the column names.
+     * @param rows    the rows, each of them with a value per column.
+     */
+    public void appendRows(List<String> columns, Collection<String[]> rows) {
+        payload.addRows(columns, rows);
+    }
+
+    /**
+     * This method is used to add a counted value to the response.
+     * @param key   the value which has been counted.
+     * @param count the amount of occurrences.
      */
-    public static String getAndClear() {
-        String toReturn = getString();
-        output.delete(0, output.length());
-        return toReturn;
+    public void appendCount(Object key, long count) {
+        payload.putCount(key, count);
     }
 
     /**
-     * This method is used to clear the StringBuilder buffer.
+     * This method is used to add a named scalar value to the response.
+     * @param name  the field's name.
+     * @param value the field's value.
+     */
+    public void appendField(String name, Object value) {
+        payload.putField(name, value);
+    }
+
+    /**
+     * This method is used to add the result code of a command of a script batch.
+     * @param resultCode the command's result code.
+     */
+    public void appendResultCode(ResponseCode resultCode) {
+        payload.addResultCode(resultCode);
+    }
+
+    /**
+     * This method is used to add the cursor of the next page to the response.
+     * @param nextCursor the cursor of the next page.
+     */
+    public void appendNextCursor(String nextCursor) {
+        payload.setNextCursor(nextCursor);
+    }
+
+    /**
+     * This method is used to retrieve the typed part of the response.
+     * @return the payload, <p>null if nothing typed has been added.
+     */
+    public ResponsePayload getPayload() {
+        return payload.isEmpty() ? null : payload;
+    }
+
+    /**
+     * This method is used to append a message of the given kind, unless the response has reached its maximum length.
+     * A response is never cut between the two chars of a surrogate pair, so it always stays valid UTF-16.
+     * @param kind  the kind of the message.
+     * @param toOut the message's text.
+     */
+    private void write(MessageKind kind, String toOut) {
+        if (truncated) {
+            return;
+        }
+        output.append(kind.getMarker()).append(toOut).append(MessageKind.MESSAGE_SEPARATOR);
+        if (output.length() > MAX_RESPONSE_LENGTH) {
+            output.setLength(Character.isHighSurrogate(output.charAt(MAX_RESPONSE_LENGTH - 1)) ? MAX_RESPONSE_LENGTH - 1 : MAX_RESPONSE_LENGTH);
+            output.append(MessageKind.MESSAGE_SEPARATOR).append(TRUNCATION_NOTICE);
+            truncated = true;
+        }
+    }
+
+    /**
+     * This method is used to retrieve the length of the accumulated response.
+     * @return amount of accumulated chars.
+     */
+    public int length() {
+        return output.length();
+    }
+
+    /**
+     * This method is used to encode the accumulated response as UTF-8 straight into a buffer, without building an intermediate string.
+     * @param target  the buffer to be written to. It must have at least maxEncodedLength() bytes remaining.
+     * @throws IllegalStateException if the buffer is too small or the response contains malformed chars, rather than sending a partial response.
+     */
+    public void encodeTo(ByteBuffer target) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        CharBuffer source = CharBuffer.wrap(output);
+        CoderResult result = encoder.encode(source, target, true);
+        if (result.isError()) {
+            throw new IllegalStateException("The response cannot be encoded: " + result + " at char " + source.position() + ".");
+        }
+        if (result.isOverflow() || encoder.flush(target).isOverflow()) {
+            throw new IllegalStateException("The response buffer is too small.");
+        }
+    }
+
+    /**
+     * This method is used to estimate the size of the encoded response.
+     * @return the greatest amount of bytes the response can take in UTF-8.
+     */
+    public int maxEncodedLength() {
+        return output.length() * 3;
+    }
+
+    /**
+     * This method is used to retrieve the accumulated string.
+     * @return resulting string.
      */
-    public static void clear() {
-        output.delete(0, output.length());
+    @Override
+    public String toString() {
+        return output == null ? "" : output.toString();
     }
 }
@@ -0,0 +1,120 @@
+package server.ru.itmo.se.utility;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Class used for keeping the encoded response frames of read-only commands, so a response which hasn't changed since it was last produced goes to the socket without executing the command and encoding it again.
+ * A frame is kept under its command's code, its argument (and the requested page) and the version of the collection it has been produced from. Once the collection changes, the frames of the older versions cannot be requested anymore, so they are dropped.
+ * The cache is bounded by the total size of the frames; the least recently used frame is discarded first.
+ */
+public class ResponseCache {
+    /**
+     * This field holds the total size of the frames that are kept at the same time.
+     */
+    private static final int CAPACITY_BYTES = 32 * 1024 * 1024;
+    /**
+     * This field holds the size of the largest frame that is kept, so a single response cannot take the whole cache.
+     */
+    private static final int MAX_FRAME_BYTES = CAPACITY_BYTES / 4;
+    /**
+     * This structure maps the keys of responses to their frames, the least recently used first.
+     */
+    private final Map<Key, byte[]> frames = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * This field holds the collection's version the kept frames have been produced from.
+     */
+    private long version;
+    /**
+     * This field holds the total size of the kept frames.
+     */
+    private long size;
+    /**
+     * This field holds the amount of responses which have been found in the cache.
+     */
+    private long hits;
+    /**
+     * This field holds the amount of responses which have been looked up and not found.
+     */
+    private long misses;
+    /**
+     * This field holds the amount of frames which have been discarded to stay within the capacity.
+     */
+    private long evictions;
+
+    /**
+     * This record represents the key of a response.
+     * @param opcode   the command's code.
+     * @param argument the command's string argument.
+     * @param pageSize the size of the requested page, <p>0 if the whole result has been requested.
+     * @param cursor   the cursor of the requested page, <p>null for the first page.
+     * @param version  the collection's version when the request has been received.
+     */
+    public record Key(int opcode, String argument, int pageSize, String cursor, long version) {
+    }
+
+    /**
+     * This method is used to find the frame of a response.
+     * @param key the response's key.
+     * @return a read-only buffer over the frame, ready to be written to the channel, <p>null if it isn't cached.
+     */
+    public synchronized ByteBuffer get(Key key) {
+        byte[] frame = frames.get(key);
+        if (frame == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return ByteBuffer.wrap(frame).asReadOnlyBuffer();
+    }
+
+    /**
+     * This method is used to keep the frame of a response. The frame's bytes are copied, so the buffer itself may be reused afterwards.
+     * @param key   the response's key.
+     * @param frame the frame, positioned at its start.
+     */
+    public void put(Key key, ByteBuffer frame) {
+        if (frame.remaining() > MAX_FRAME_BYTES) {
+            return;
+        }
+        byte[] bytes = new byte[frame.remaining()];
+        frame.duplicate().get(bytes);
+        synchronized (this) {
+            if (key.version() < version) {
+                return;
+            }
+            if (key.version() > version) {
+                frames.clear();
+                size = 0;
+                version = key.version();
+            }
+            byte[] previous = frames.put(key, bytes);
+            size += bytes.length - (previous == null ? 0 : previous.length);
+            Iterator<byte[]> eldest = frames.values().iterator();
+            while (size > CAPACITY_BYTES) {
+                size -= eldest.next().length;
+                eldest.remove();
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * This method describes the cache's metrics.
+     * @return amount and size of the kept frames, hits, misses and evictions.
+     */
+    public synchronized String describeMetrics() {
+        return frames.size() + " frame(s), " + size / 1024 + " KiB, " + hits + " hits, " + misses + " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in ResponseCache.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "ResponseCache (" + describeMetrics() + ")";
+    }
+}
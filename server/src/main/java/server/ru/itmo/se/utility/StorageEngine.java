@@ -0,0 +1,78 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.MusicBand;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.LinkedList;
+
+/**
+ * Interface for all the storage engines that can persist the collection.
+ * The engine is chosen at startup, so different implementations can be run side by side on the same workload.
+ */
+public interface StorageEngine extends Closeable {
+    /**
+     * Abstract method used for returning the engine's name. It is the same name that selects the engine on startup.
+     * @return engine's name.
+     */
+    String getName();
+
+    /**
+     * Abstract method used for reading the whole collection from the storage.
+     * @return the stored collection, <p>an empty collection if there is nothing to read.
+     */
+    LinkedList<MusicBand> load();
+
+    /**
+     * Abstract method used for writing a full snapshot of the collection into the storage.
+     * @param collection the collection from the application.
+     * @return true if the snapshot has been written, <p>false if an error occurred.
+     */
+    boolean saveSnapshot(Collection<MusicBand> collection);
+
+    /**
+     * Abstract method used for recording a single change of the collection.
+     * Engines that only work with snapshots may ignore it, since the change will be written with the next snapshot.
+     * @param mutation the change to be recorded.
+     */
+    void appendMutation(StorageMutation mutation);
+
+    /**
+     * Abstract method used for making the mutations recorded since the last call durable. It is called once after all the changes of a command.
+     * @return true if the mutations are durable (or the engine ignores them), <p>false if some of them may be lost.
+     */
+    default boolean commit() {
+        return true;
+    }
+
+    /**
+     * Abstract method used for checking whether the engine persists every mutation on its own.
+     * @return true if a snapshot is not needed after a mutation, <p>false if it is.
+     */
+    default boolean isMutationDurable() {
+        return false;
+    }
+
+    /**
+     * Abstract method used for checking whether the last load() has imported the collection from another storage, so the engine holds nothing yet.
+     * Then the collection is written as the engine's first snapshot once it has been validated, so the elements which have been removed by the validation aren't stored.
+     * @return true if the imported collection has to be saved, <p>false otherwise.
+     */
+    default boolean isImportPending() {
+        return false;
+    }
+
+    /**
+     * Abstract method used for describing the engine's I/O metrics, e.g. sizes and durations of the last snapshots.
+     * @return human-readable metrics.
+     */
+    default String describeMetrics() {
+        return "no metrics are collected by this engine";
+    }
+
+    /**
+     * Abstract method used for releasing the engine's resources. The engine must not be used afterwards.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,57 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.exceptions.InvalidInputException;
+
+/**
+ * Utility class used for choosing a storage engine by its name.
+ */
+public class StorageEngineFactory {
+    /**
+     * This field holds the command-line option prefix via which an engine is selected.
+     */
+    public static final String OPTION_PREFIX = "--storage=";
+    /**
+     * This field holds the command-line option prefix via which the compression level of snapshots is selected.
+     */
+    public static final String COMPRESSION_LEVEL_OPTION_PREFIX = "--compression-level=";
+    /**
+     * This field holds the name of the engine that is used if none was selected.
+     */
+    public static final String DEFAULT_ENGINE = FileManager.ENGINE_NAME;
+
+    /**
+     * This method is used to construct a storage engine.
+     * @param engineName the engine's name.
+     * @param fileName   the file (or the base name of the files) that the engine works with.
+     * @param compressionLevel compression level (0-9, or -1 for the default one) of the snapshots, if the file name selects a compression codec.
+     * @return the storage engine.
+     * @throws InvalidInputException if there is no engine with such name.
+     */
+    public static StorageEngine create(String engineName, String fileName, int compressionLevel) {
+        if (compressionLevel < -1 || compressionLevel > 9) {
+            throw new InvalidInputException("Compression level must be between 0 and 9 (or -1 for the default one).", new RuntimeException());
+        }
+        return switch (engineName) {
+            case FileManager.ENGINE_NAME -> new FileManager(fileName, compressionLevel);
+            case LogStructuredStorage.ENGINE_NAME -> new LogStructuredStorage(fileName);
+            default -> throw new InvalidInputException("Unknown storage engine: '" + engineName + "'. Available engines: " + availableEngines() + ".", new RuntimeException());
+        };
+    }
+
+    /**
+     * This method is used to list the names of all the engines.
+     * @return comma-separated engine names.
+     */
+    public static String availableEngines() {
+        return String.join(", ", FileManager.ENGINE_NAME, LogStructuredStorage.ENGINE_NAME);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in StorageEngineFactory.
+     * @return information about this class.
+     */
+    @Override
+    public String toString() {
+        return "StorageEngineFactory (utility class for choosing a storage engine)";
+    }
+}
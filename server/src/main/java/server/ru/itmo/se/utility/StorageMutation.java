@@ -0,0 +1,80 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.MusicBand;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * This class represents a single change of the collection that is passed to a storage engine.
+ * -- CONSTRUCTOR --
+ * Constructs a StorageMutation with the specified fields.
+ */
+@Getter
+@AllArgsConstructor
+public class StorageMutation {
+    /**
+     * This enum represents all the possible kinds of mutations.
+     */
+    public enum Kind {
+        /**
+         * This value represents an addition of a music band or a replacement of the one with the same ID.
+         */
+        PUT,
+        /**
+         * This value represents a removal of a music band by its ID.
+         */
+        REMOVE,
+        /**
+         * This value represents a removal of every music band.
+         */
+        CLEAR
+    }
+
+    /**
+     * This field holds the kind of the mutation.
+     */
+    private final Kind kind;
+    /**
+     * This field holds the ID of the affected music band (0 for CLEAR).
+     */
+    private final int id;
+    /**
+     * This field holds the new version of the music band (null for REMOVE and CLEAR).
+     */
+    private final MusicBand musicBand;
+
+    /**
+     * This method is used to create a mutation which adds or replaces a music band.
+     * @param musicBand the new version of the music band.
+     * @return PUT mutation.
+     */
+    public static StorageMutation put(MusicBand musicBand) {
+        return new StorageMutation(Kind.PUT, musicBand.getId(), musicBand);
+    }
+
+    /**
+     * This method is used to create a mutation which removes a music band.
+     * @param id the ID of the music band.
+     * @return REMOVE mutation.
+     */
+    public static StorageMutation remove(int id) {
+        return new StorageMutation(Kind.REMOVE, id, null);
+    }
+
+    /**
+     * This method is used to create a mutation which removes every music band.
+     * @return CLEAR mutation.
+     */
+    public static StorageMutation clear() {
+        return new StorageMutation(Kind.CLEAR, 0, null);
+    }
+
+    /**
+     * This method is a custom implementation of the toString() method in StorageMutation.
+     * @return values of a StorageMutation parsed to String data type.
+     */
+    @Override
+    public String toString() {
+        return "StorageMutation[" + kind + " " + id + "]";
+    }
+}
@@ -0,0 +1,112 @@
+package server.ru.itmo.se.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Class used for checking IndexedList against ArrayList: both lists get the same random operations and must stay equal after every one of them.
+ */
+class IndexedListTest {
+    /**
+     * This field holds the amount of operations of a single run. It is large enough for the tree to grow several levels and shrink back.
+     */
+    private static final int OPERATIONS = 200_000;
+
+    /**
+     * This class represents an element with identity equality, since IndexedList stores an element instance only once.
+     * @param value the element's value, which is used for sorting and filtering.
+     */
+    private record Element(int value) {
+        @Override
+        public boolean equals(Object obj) {
+            return this == obj;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+
+    /**
+     * This method checks random inserts, removals, replacements, lookups, sorts and bulk removals of a growing and shrinking list.
+     */
+    @Test
+    void randomOperationsMatchArrayList() {
+        for (long seed = 1; seed <= 5; seed++) {
+            Random random = new Random(seed);
+            List<Element> expected = new ArrayList<>();
+            IndexedList<Element> actual = new IndexedList<>();
+            for (int step = 0; step < OPERATIONS; step++) {
+                // Inserts prevail in the first half of a run and removals in the second one, so the tree both splits and merges.
+                boolean growing = step < OPERATIONS / 2;
+                int operation = random.nextInt(100);
+                String context = "seed " + seed + ", step " + step + ", operation " + operation;
+                if (expected.isEmpty() || operation < (growing ? 40 : 20)) {
+                    Element element = new Element(random.nextInt(1000));
+                    int index = random.nextInt(expected.size() + 1);
+                    expected.add(index, element);
+                    actual.add(index, element);
+                } else if (operation < (growing ? 50 : 60)) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.remove(index), actual.remove(index), context);
+                } else if (operation < 65) {
+                    Element element = expected.get(random.nextInt(expected.size()));
+                    assertEquals(expected.remove(element), actual.remove(element), context);
+                } else if (operation < 75) {
+                    int index = random.nextInt(expected.size());
+                    Element element = new Element(random.nextInt(1000));
+                    assertEquals(expected.set(index, element), actual.set(index, element), context);
+                } else if (operation < 90) {
+                    Element element = random.nextBoolean() ? expected.get(random.nextInt(expected.size())) : new Element(-1);
+                    assertEquals(expected.indexOf(element), actual.indexOf(element), context);
+                    assertEquals(expected.contains(element), actual.contains(element), context);
+                } else if (operation < 97) {
+                    int index = random.nextInt(expected.size());
+                    assertEquals(expected.get(index), actual.get(index), context);
+                } else if (operation < 98) {
+                    Comparator<Element> comparator = Comparator.comparingInt(Element::value);
+                    expected.sort(comparator);
+                    actual.sort(comparator);
+                } else if (operation < 99) {
+                    int divisor = 2 + random.nextInt(30);
+                    assertEquals(expected.removeIf(element -> element.value() % divisor == 0), actual.removeIf(element -> element.value() % divisor == 0), context);
+                } else {
+                    assertEquals(expected, actual, context);
+                }
+                assertEquals(expected.size(), actual.size(), context);
+            }
+            assertEquals(expected, actual, "seed " + seed);
+            assertEquals(expected, new IndexedList<>(expected), "seed " + seed);
+        }
+    }
+
+    /**
+     * This method checks that the iterator's removal keeps the list equal to ArrayList.
+     */
+    @Test
+    void iteratorRemovalMatchesArrayList() {
+        Random random = new Random(42);
+        List<Element> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            expected.add(new Element(random.nextInt(1000)));
+        }
+        IndexedList<Element> actual = new IndexedList<>(expected);
+        expected.removeIf(element -> element.value() % 3 == 0);
+        for (var iterator = actual.iterator(); iterator.hasNext(); ) {
+            if (iterator.next().value() % 3 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(expected, actual);
+        for (Element element : expected) {
+            assertEquals(expected.indexOf(element), actual.indexOf(element));
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package server.ru.itmo.se.utility;
+
+import common.ru.itmo.se.data.Coordinates;
+import common.ru.itmo.se.data.MusicBand;
+import common.ru.itmo.se.data.MusicGenre;
+import common.ru.itmo.se.data.Studio;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Class used for checking that LogStructuredStorage returns what has been written to it: after a restart, after a compaction and after a crash which tore the last record.
+ * It also checks the import of the JSON file on the first start, which must write nothing but the validated collection.
+ */
+class LogStructuredStorageTest {
+    /**
+     * This field holds the name of the collection file. The segments are created next to it.
+     */
+    private static final String FILE_NAME = "collection.json";
+    /**
+     * This field holds a temporary directory for the segments, which is created for every test.
+     */
+    @TempDir
+    Path directory;
+
+    /**
+     * This method checks that puts, removals and a clear are replayed in order after the log has been closed and opened again.
+     */
+    @Test
+    void mutationsSurviveReopening() {
+        Map<Integer, MusicBand> expected = new TreeMap<>();
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        for (int id = 1; id <= 10; id++) {
+            storage.appendMutation(StorageMutation.put(musicBand(id, 0)));
+        }
+        storage.appendMutation(StorageMutation.clear());
+        for (int id = 1; id <= 50; id++) {
+            put(storage, expected, musicBand(id, 0));
+        }
+        for (int id = 1; id <= 50; id += 3) {
+            put(storage, expected, musicBand(id, 1));
+        }
+        for (int id = 2; id <= 50; id += 5) {
+            storage.appendMutation(StorageMutation.remove(id));
+            expected.remove(id);
+        }
+        assertTrue(storage.commit());
+        storage.close();
+
+        LogStructuredStorage reopened = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertCollection(expected, reopened.load());
+        reopened.close();
+    }
+
+    /**
+     * This method checks that a compaction keeps exactly the latest version of every live music band and drops the garbage.
+     */
+    @Test
+    void compactionKeepsLatestVersions() {
+        Map<Integer, MusicBand> expected = new TreeMap<>();
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        // Every music band is rewritten a hundred times, so the log exceeds the minimum compaction size and almost all of it is dead.
+        for (int version = 0; version < 100; version++) {
+            for (int id = 1; id <= 50; id++) {
+                put(storage, expected, musicBand(id, version));
+            }
+        }
+        for (int id = 1; id <= 50; id += 7) {
+            storage.appendMutation(StorageMutation.remove(id));
+            expected.remove(id);
+        }
+        assertTrue(storage.commit());
+        assertTrue(storage.stats().endsWith("% garbage") && !storage.stats().endsWith(" 0% garbage"), storage.stats());
+        storage.compactIfNeeded();
+        assertTrue(storage.stats().endsWith(" 0% garbage"), storage.stats());
+        put(storage, expected, musicBand(3, 100));
+        assertTrue(storage.commit());
+        storage.close();
+
+        LogStructuredStorage reopened = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertCollection(expected, reopened.load());
+        reopened.close();
+    }
+
+    /**
+     * This method checks that a record which was torn by a crash is cut off, the records before it are recovered and the log can be appended to afterwards.
+     * The crash is simulated by copying the segments of a log which hasn't been closed, so the active segment has no footer, and appending half a record to the copy.
+     * @throws IOException if the segments cannot be copied.
+     */
+    @Test
+    void tornTailIsRecovered() throws IOException {
+        Map<Integer, MusicBand> expected = new TreeMap<>();
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        for (int id = 1; id <= 20; id++) {
+            put(storage, expected, musicBand(id, 0));
+        }
+        assertTrue(storage.commit());
+        Path crashed = Files.createDirectory(directory.resolve("crashed"));
+        List<Path> segments = listSegments(directory);
+        assertEquals(1, segments.size());
+        for (Path segment : segments) {
+            Files.copy(segment, crashed.resolve(segment.getFileName()));
+        }
+        storage.close();
+        try (FileChannel channel = FileChannel.open(crashed.resolve(segments.get(0).getFileName()), StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            // The header of a put announces a payload of 200 bytes, but only 10 of them have been written.
+            ByteBuffer torn = ByteBuffer.allocate(13 + 10);
+            torn.put((byte) StorageMutation.Kind.PUT.ordinal()).putInt(21).putInt(200).putInt(0);
+            torn.flip();
+            channel.write(torn);
+        }
+
+        LogStructuredStorage recovered = new LogStructuredStorage(crashed.resolve(FILE_NAME).toString());
+        assertCollection(expected, recovered.load());
+        put(recovered, expected, musicBand(21, 1));
+        assertTrue(recovered.commit());
+        recovered.close();
+
+        LogStructuredStorage reopened = new LogStructuredStorage(crashed.resolve(FILE_NAME).toString());
+        assertCollection(expected, reopened.load());
+        reopened.close();
+    }
+
+    /**
+     * This method checks that a sealed segment whose footer has been corrupted is scanned record by record instead of being trusted.
+     * @throws IOException if the segment cannot be changed.
+     */
+    @Test
+    void corruptedFooterIsRescanned() throws IOException {
+        Map<Integer, MusicBand> expected = new TreeMap<>();
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        for (int id = 1; id <= 20; id++) {
+            put(storage, expected, musicBand(id, 0));
+        }
+        storage.close();
+        List<Path> segments = listSegments(directory);
+        assertEquals(1, segments.size());
+        try (FileChannel channel = FileChannel.open(segments.get(0), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The trailer holds the entry count, the footer's offset and the magic number; the kind of the first entry is the footer's first byte.
+            ByteBuffer trailer = ByteBuffer.allocate(16);
+            channel.read(trailer, channel.size() - 16);
+            trailer.flip();
+            trailer.getInt();
+            channel.write(ByteBuffer.wrap(new byte[]{0x7F}), trailer.getLong());
+        }
+
+        LogStructuredStorage reopened = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertCollection(expected, reopened.load());
+        assertFalse(reopened.describeMetrics().startsWith("read-only"), reopened.describeMetrics());
+        reopened.close();
+    }
+
+    /**
+     * This method checks that on the first start the JSON file is imported through the validation: only the accepted music bands are written to the log, and they are read from the log afterwards.
+     * @throws InterruptedException if the test is interrupted while the collection is loading.
+     */
+    @Test
+    void importWritesValidatedCollection() throws InterruptedException {
+        List<MusicBand> imported = new ArrayList<>();
+        Map<Integer, MusicBand> expected = new TreeMap<>();
+        for (int id = 1; id <= 5; id++) {
+            imported.add(musicBand(id, 0));
+            expected.put(id, musicBand(id, 0));
+        }
+        imported.add(musicBand(null, 0));
+        imported.add(new MusicBand(6, "", new Coordinates(1, 1), new Date(1_700_000_000_000L), 1L, LocalDateTime.of(2000, 1, 1, 0, 0), MusicGenre.POP, new Studio("Studio")));
+        assertTrue(new FileManager(directory.resolve(FILE_NAME).toString()).writeCollection(imported));
+
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        CollectionManager collectionManager = new CollectionManager(storage);
+        collectionManager.loadCollectionInBackground();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!collectionManager.isLoaded() && collectionManager.getLoadFailure() == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(collectionManager.isLoaded(), String.valueOf(collectionManager.getLoadFailure()));
+        assertEquals(5, collectionManager.collectionSize());
+        assertFalse(storage.isImportPending());
+        storage.close();
+
+        LogStructuredStorage reopened = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertCollection(expected, reopened.load());
+        assertFalse(reopened.isImportPending());
+        reopened.close();
+    }
+
+    /**
+     * This method checks that a JSON file which cannot be parsed is not imported as an empty collection: the log stays read-only and no segment is created, so the file is imported once it is repaired.
+     * @throws IOException if the file cannot be written.
+     */
+    @Test
+    void unreadableImportLeavesNoSegments() throws IOException {
+        Path file = directory.resolve(FILE_NAME);
+        Files.writeString(file, "[{\"id\": 1, \"name\": ");
+        LogStructuredStorage storage = new LogStructuredStorage(file.toString());
+        assertTrue(storage.load().isEmpty());
+        assertFalse(storage.isImportPending());
+        assertFalse(storage.saveSnapshot(List.of(musicBand(1, 0))));
+        storage.appendMutation(StorageMutation.put(musicBand(1, 0)));
+        assertFalse(storage.commit());
+        storage.close();
+        assertEquals(List.of(), listSegments(directory));
+        assertEquals("[{\"id\": 1, \"name\": ", Files.readString(file));
+    }
+
+    /**
+     * This method checks that a snapshot which fails in the middle leaves no segment behind, so the import is retried on the next start.
+     * @throws IOException if the directory cannot be listed.
+     */
+    @Test
+    void failedSnapshotLeavesNoSegments() throws IOException {
+        assertTrue(new FileManager(directory.resolve(FILE_NAME).toString()).writeCollection(List.of(musicBand(1, 0))));
+        LogStructuredStorage storage = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertEquals(1, storage.load().size());
+        assertTrue(storage.isImportPending());
+        // A music band without an ID cannot be encoded, so the snapshot fails after its first records have been written.
+        assertThrows(NullPointerException.class, () -> storage.saveSnapshot(List.of(musicBand(1, 0), musicBand(null, 0))));
+        assertTrue(storage.isImportPending());
+        storage.appendMutation(StorageMutation.put(musicBand(2, 0)));
+        assertFalse(storage.commit());
+        storage.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(directory.resolve(FILE_NAME)), files.toList());
+        }
+
+        LogStructuredStorage reopened = new LogStructuredStorage(directory.resolve(FILE_NAME).toString());
+        assertEquals(1, reopened.load().size());
+        assertTrue(reopened.isImportPending());
+        reopened.close();
+    }
+
+    /**
+     * This method is used to create a music band whose fields depend on its ID and version.
+     * @param id      the music band's ID (null for an invalid music band).
+     * @param version the music band's version.
+     * @return the music band.
+     */
+    private static MusicBand musicBand(Integer id, int version) {
+        int seed = id == null ? 0 : id;
+        MusicGenre[] genres = MusicGenre.values();
+        return new MusicBand(id, "Band " + seed + " v" + version, new Coordinates(seed, -version), new Date(1_700_000_000_000L + seed * 1000L),
+                (long) version + 1, LocalDateTime.of(2000, 1, 1, 0, 0).plusDays(seed), genres[(seed + version) % genres.length], new Studio("Studio " + version));
+    }
+
+    /**
+     * This method is used to append a put both to the log and to the expected collection.
+     * @param storage   the log.
+     * @param expected  the expected collection.
+     * @param musicBand the music band to be put.
+     */
+    private static void put(LogStructuredStorage storage, Map<Integer, MusicBand> expected, MusicBand musicBand) {
+        storage.appendMutation(StorageMutation.put(musicBand));
+        expected.put(musicBand.getId(), musicBand);
+    }
+
+    /**
+     * This method is used to compare a loaded collection with the expected one, IDs included, since MusicBand.equals() ignores them.
+     * @param expected the expected collection.
+     * @param actual   the loaded collection.
+     */
+    private static void assertCollection(Map<Integer, MusicBand> expected, List<MusicBand> actual) {
+        assertEquals(new ArrayList<>(expected.keySet()), actual.stream().map(MusicBand::getId).toList());
+        assertEquals(new ArrayList<>(expected.values()), actual);
+    }
+
+    /**
+     * This method is used to find the segment files in a directory.
+     * @param directory the directory.
+     * @return the segments' paths ordered by name.
+     * @throws IOException if the directory cannot be listed.
+     */
+    private static List<Path> listSegments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".seg")).sorted().toList();
+        }
+    }
+}